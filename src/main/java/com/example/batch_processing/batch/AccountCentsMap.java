@@ -0,0 +1,129 @@
+package com.example.batch_processing.batch;
+
+/**
+ * Classe AccountCentsMap
+ * <p>
+ * Table de hachage à adressage ouvert (sondage linéaire) de clés et valeurs {@code long} :
+ * total en centimes par identifiant de compte. Aucun objet n'est alloué par ajout (ni {@code Long}
+ * ni entrée), les deux tableaux sont doublés quand le taux de remplissage dépasse 1/2. Un total qui
+ * dépasserait un {@code long} lève une ArithmeticException, comme SUM(amount) un dépassement numeric.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class AccountCentsMap {
+
+    /**
+     * Parcours des entrées sans boxing.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<E extends Exception> {
+        void accept(long accountId, long cents) throws E;
+    }
+
+    // Case libre : les identifiants de compte sont strictement positifs, 0 est géré à part
+    private static final long FREE = 0L;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    private boolean hasZeroKey;
+    private long zeroKeyValue;
+
+    public AccountCentsMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @throws ArithmeticException si le total du compte dépasse un {@code long}
+     */
+    public void add(long accountId, long cents) {
+        if (accountId == FREE) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroKeyValue = Math.addExact(zeroKeyValue, cents);
+            return;
+        }
+        int slot = slot(accountId);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == accountId) {
+                values[slot] = Math.addExact(values[slot], cents);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = accountId;
+        values[slot] = cents;
+        if (++size > (mask + 1) >>> 1) {
+            allocate((mask + 1) << 1);
+        }
+    }
+
+    /**
+     * @return le total du compte, 0 s'il est absent
+     */
+    public long get(long accountId) {
+        if (accountId == FREE) {
+            return zeroKeyValue;
+        }
+        int slot = slot(accountId);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == accountId) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0L;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public <E extends Exception> void forEach(EntryConsumer<E> consumer) throws E {
+        if (hasZeroKey) {
+            consumer.accept(FREE, zeroKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int slot(long accountId) {
+        // Mélange de Fibonacci : des identifiants consécutifs ne tombent pas dans des cases consécutives
+        return (int) ((accountId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        if (oldKeys == null) {
+            return;
+        }
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
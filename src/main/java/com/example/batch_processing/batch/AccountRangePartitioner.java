@@ -0,0 +1,57 @@
+package com.example.batch_processing.batch;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe AccountRangePartitioner
+ * <p>
+ * Calcule les bornes des partitions à partir de la distribution réelle des identifiants
+ * de la table {@code accounts} : chaque partition reçoit à peu près le même nombre de comptes,
+ * quelle que soit la densité de l'espace d'identifiants, et le dernier compte est toujours couvert.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class AccountRangePartitioner extends IdRangePartitioner {
+
+    static final String SELECT_ACCOUNT_BUCKETS = """
+            SELECT MIN(b.id) AS min_id, MAX(b.id) AS max_id
+            FROM (
+                SELECT a.id, NTILE(:gridSize) OVER (ORDER BY a.id) AS bucket
+                FROM accounts a
+            ) b
+            GROUP BY b.bucket
+            ORDER BY b.bucket
+            """;
+
+    private final JdbcClient jdbcClient;
+
+    // Les plages ne dépendent pas de la date : calculées une seule fois par exécution
+    private final Map<Integer, List<IdRange>> rangesByGridSize = new HashMap<>();
+
+    public AccountRangePartitioner(JdbcClient jdbcClient, List<LocalDate> businessDates) {
+        super(businessDates);
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    protected List<IdRange> split(LocalDate businessDate, int gridSize) {
+        return rangesByGridSize.computeIfAbsent(gridSize, size -> contiguous(loadBuckets(size)));
+    }
+
+    /**
+     * Une ligne par tranche NTILE : MIN/MAX des identifiants existants de la tranche.
+     */
+    protected List<IdRange> loadBuckets(int gridSize) {
+        return jdbcClient.sql(SELECT_ACCOUNT_BUCKETS)
+                .param("gridSize", gridSize)
+                .query((rs, rowNum) -> new IdRange(rs.getLong("min_id"), rs.getLong("max_id")))
+                .list();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Classe BalanceSliceTasklet
+ * <p>
+ * Traite la plage [minId, maxId] d'une partition, pour sa date métier, par tranches de
+ * {@code sliceSize} identifiants. Chaque tranche est une itération du tasklet, donc une transaction : après son commit, le plus
+ * grand identifiant traité ({@code lastProcessedId}) est enregistré dans l'ExecutionContext du step,
+ * dans la même transaction. Au redémarrage d'une partition en échec, le traitement reprend
+ * juste après ce point au lieu de refaire toute la plage.
+ * <p>
+ * En mode fusionné, chaque tranche est appliquée par une seule requête (agrégation unique
+ * réutilisée pour account_daily_balance et accounts) au lieu de deux passes.
+ * <p>
+ * Dans les deux modes, seules les lignes non encore appliquées aux comptes sont reportées
+ * (registre applied_* de account_daily_balance) : relancer une tranche ne compte rien deux fois.
+ * <p>
+ * En mode file de travail, la borne haute est lue à chaque tranche dans le {@link RangeLease} de la
+ * partition : le gestionnaire peut lui retirer la fin de sa plage pour la confier à des workers libres.
+ * Un {@code statement_timeout} local à la transaction peut borner la durée de chaque requête.
+ * <p>
+ * Avec un {@link JavaDailyTotalAggregator}, les totaux journaliers de chaque tranche sont calculés
+ * côté Java au lieu du GROUP BY de UPSERT_DAILY_BALANCE ; l'application des soldes est inchangée.
+ * <p>
+ * Pour une date déjà agrégée en cours de journée ({@code applyOnly}), les totaux journaliers sont à
+ * jour : chaque tranche se limite à l'application des soldes, sans relire les transactions.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class BalanceSliceTasklet implements Tasklet {
+
+    public static final String LAST_PROCESSED_ID = "lastProcessedId";
+
+    private final JdbcClientWrapper jdbcWrapper;
+    private final LocalDate businessDate;
+    private final long minId;
+    private final long maxId;
+    private final long sliceSize;
+    private final boolean fused;
+    private final RangeLeaseRegistry leases;
+    private final Duration statementTimeout;
+    private final boolean applyOnly;
+    private JavaDailyTotalAggregator javaAggregator;
+
+    public BalanceSliceTasklet(JdbcClientWrapper jdbcWrapper, LocalDate businessDate,
+                               long minId, long maxId, long sliceSize) {
+        this(jdbcWrapper, businessDate, minId, maxId, sliceSize, false);
+    }
+
+    public BalanceSliceTasklet(JdbcClientWrapper jdbcWrapper, LocalDate businessDate,
+                               long minId, long maxId, long sliceSize, boolean fused) {
+        this(jdbcWrapper, businessDate, minId, maxId, sliceSize, fused, null, Duration.ZERO);
+    }
+
+    public BalanceSliceTasklet(JdbcClientWrapper jdbcWrapper, LocalDate businessDate,
+                               long minId, long maxId, long sliceSize, boolean fused,
+                               RangeLeaseRegistry leases, Duration statementTimeout) {
+        this(jdbcWrapper, businessDate, minId, maxId, sliceSize, fused, leases, statementTimeout, false);
+    }
+
+    public BalanceSliceTasklet(JdbcClientWrapper jdbcWrapper, LocalDate businessDate,
+                               long minId, long maxId, long sliceSize, boolean fused,
+                               RangeLeaseRegistry leases, Duration statementTimeout, boolean applyOnly) {
+        this.jdbcWrapper = jdbcWrapper;
+        this.businessDate = businessDate;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.sliceSize = Math.max(1, sliceSize);
+        this.fused = fused;
+        this.leases = leases;
+        this.statementTimeout = statementTimeout == null ? Duration.ZERO : statementTimeout;
+        this.applyOnly = applyOnly;
+    }
+
+    /**
+     * Calcule les totaux journaliers en Java plutôt qu'en SQL (mode non fusionné uniquement).
+     */
+    public void enableJavaAggregation(JavaDailyTotalAggregator javaAggregator) {
+        this.javaAggregator = javaAggregator;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext context = contribution.getStepExecution().getExecutionContext();
+
+        long sliceStart = context.containsKey(LAST_PROCESSED_ID)
+                ? context.getLong(LAST_PROCESSED_ID) + 1
+                : minId;
+        RangeLease lease = leases == null ? null : leases.get(contribution.getStepExecution().getId());
+        long sliceEnd = lease != null
+                ? lease.nextSliceEnd(sliceStart, sliceSize)
+                : Math.min(maxId, sliceStart + sliceSize - 1);
+        if (sliceStart > sliceEnd) {
+            return RepeatStatus.FINISHED;
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("businessDate", businessDate);
+        params.put("minId", sliceStart);
+        params.put("maxId", sliceEnd);
+        params.put("jobExecutionId", contribution.getStepExecution().getJobExecutionId());
+
+        if (!statementTimeout.isZero()) {
+            jdbcWrapper.setLocalStatementTimeout(statementTimeout);
+        }
+
+        int dailyUpdated;
+        int accountsUpdated;
+        if (applyOnly) {
+            dailyUpdated = 0;
+            accountsUpdated = jdbcWrapper.updateAccountBalance(params);
+        } else if (fused) {
+            JdbcClientWrapper.ApplyResult result = jdbcWrapper.applyDailyBalanceFused(params);
+            dailyUpdated = result.dailyUpserted();
+            accountsUpdated = result.accountsUpdated();
+        } else {
+            dailyUpdated = javaAggregator != null
+                    ? javaAggregator.upsertDailyBalance(params)
+                    : jdbcWrapper.upsertDailyBalance(params);
+            accountsUpdated = jdbcWrapper.updateAccountBalance(params);
+        }
+
+        contribution.incrementWriteCount(accountsUpdated);
+        context.putLong(LAST_PROCESSED_ID, sliceEnd);
+
+        log.info("Partition {} [{}-{}] tranche [{}-{}] : account_daily_balance mis à jour = {}, comptes mis à jour = {}",
+                businessDate, minId, maxId, sliceStart, sliceEnd, dailyUpdated, accountsUpdated);
+
+        long effectiveMaxId = lease != null ? lease.maxId() : maxId;
+        return sliceEnd >= effectiveMaxId ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.batch_processing.batch;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Classe BusinessDates
+ * <p>
+ * Résolution des dates métier d'une exécution à partir des paramètres de job :
+ * {@code businessDate} pour un jour, {@code fromDate}/{@code toDate} pour un rattrapage (backfill).
+ * Sans paramètre, la date métier est la veille dans le fuseau du batch.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class BusinessDates {
+
+    public static final String BUSINESS_DATE = "businessDate";
+    public static final String FROM_DATE = "fromDate";
+    public static final String TO_DATE = "toDate";
+
+    /** Nombre maximal de jours recalculés par un même rattrapage */
+    public static final int MAX_BACKFILL_DAYS = 92;
+
+    private BusinessDates() {
+        // classe utilitaire
+    }
+
+    public static LocalDate yesterday(ZoneId zone) {
+        return LocalDate.now(zone).minusDays(1);
+    }
+
+    public static List<LocalDate> resolve(String businessDate, String fromDate, String toDate, ZoneId zone) {
+        if (StringUtils.isNotBlank(fromDate) || StringUtils.isNotBlank(toDate)) {
+            if (StringUtils.isBlank(fromDate) || StringUtils.isBlank(toDate)) {
+                throw new IllegalArgumentException("fromDate et toDate doivent être fournis ensemble");
+            }
+            return range(LocalDate.parse(fromDate), LocalDate.parse(toDate));
+        }
+        return List.of(StringUtils.isNotBlank(businessDate) ? LocalDate.parse(businessDate) : yesterday(zone));
+    }
+
+    public static List<LocalDate> range(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("fromDate doit être antérieure ou égale à toDate");
+        }
+        List<LocalDate> dates = fromDate.datesUntil(toDate.plusDays(1)).toList();
+        if (dates.size() > MAX_BACKFILL_DAYS) {
+            throw new IllegalArgumentException("Un rattrapage est limité à " + MAX_BACKFILL_DAYS + " jours");
+        }
+        return dates;
+    }
+}
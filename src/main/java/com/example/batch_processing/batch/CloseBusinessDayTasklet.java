@@ -0,0 +1,45 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Classe CloseBusinessDayTasklet
+ * <p>
+ * Dernier step du job de fin de journée : les dates traitées sont enregistrées dans
+ * business_day_close et leur watermark intraday est supprimé. À partir de là, toute transaction
+ * ajoutée ou modifiée pour ces dates marque son compte dans dirty_account_day, et seul le job de
+ * correction met à jour leurs totaux.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class CloseBusinessDayTasklet implements Tasklet {
+
+    private final JdbcClientWrapper jdbcWrapper;
+    private final List<LocalDate> businessDates;
+
+    public CloseBusinessDayTasklet(JdbcClientWrapper jdbcWrapper, List<LocalDate> businessDates) {
+        this.jdbcWrapper = jdbcWrapper;
+        this.businessDates = businessDates;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        long jobExecutionId = contribution.getStepExecution().getJobExecutionId();
+        for (LocalDate businessDate : businessDates) {
+            jdbcWrapper.closeBusinessDay(businessDate, jobExecutionId);
+        }
+        log.info("Dates clôturées par l'exécution {} : {}", jobExecutionId, businessDates);
+        return RepeatStatus.FINISHED;
+    }
+}
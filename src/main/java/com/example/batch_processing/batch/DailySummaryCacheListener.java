@@ -0,0 +1,79 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.AccountDailyBalanceService;
+import com.example.batch_processing.service.DailySummaryCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Classe DailySummaryCacheListener
+ * <p>
+ * Fin du job de fin de journée : le cache du résumé est vidé, quel que soit le statut (une exécution
+ * en échec a pu modifier les totaux). Toutes les dates, pas seulement celles traitées : le solde courant
+ * des comptes, présent dans le résumé de chaque date, a changé, comme la version servie en ETag. Si les
+ * dates ont été clôturées, leurs premières pages sont ensuite rechargées pour que les premiers appels de
+ * l'API n'attendent pas la base.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class DailySummaryCacheListener implements JobExecutionListener {
+
+    private final DailySummaryCache cache;
+    private final AccountDailyBalanceService summaryService;
+    private final ZoneId batchZone;
+    private final int prewarmPages;
+    private final int prewarmSize;
+
+    public DailySummaryCacheListener(DailySummaryCache cache, AccountDailyBalanceService summaryService,
+                                     ZoneId batchZone, int prewarmPages, int prewarmSize) {
+        this.cache = cache;
+        this.summaryService = summaryService;
+        this.batchZone = batchZone;
+        this.prewarmPages = prewarmPages;
+        this.prewarmSize = Math.max(1, prewarmSize);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        JobParameters parameters = jobExecution.getJobParameters();
+        List<LocalDate> businessDates = BusinessDates.resolve(
+                value(parameters, BusinessDates.BUSINESS_DATE),
+                value(parameters, BusinessDates.FROM_DATE),
+                value(parameters, BusinessDates.TO_DATE),
+                batchZone);
+        cache.evictAll();
+
+        if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+            return;
+        }
+        try {
+            for (LocalDate businessDate : businessDates) {
+                for (int page = 1; page <= prewarmPages; page++) {
+                    if (summaryService.getDailySummary(businessDate, null, page, prewarmSize).size() < prewarmSize) {
+                        break;
+                    }
+                }
+            }
+            log.info("Résumé journalier préchargé : {} pages de {} comptes pour {}", prewarmPages, prewarmSize, businessDates);
+        } catch (RuntimeException e) {
+            // Le job est terminé : un préchargement manqué ne coûte que les premiers appels
+            log.warn("Préchargement du résumé journalier interrompu", e);
+        }
+    }
+
+    private static String value(JobParameters parameters, String name) {
+        JobParameter<?> parameter = parameters.getParameter(name);
+        return parameter != null ? String.valueOf(parameter.getValue()) : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.batch_processing.batch;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Classe DailyTotal
+ * <p>
+ * Total journalier des transactions VALIDATED d'un compte (item du step chunk).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public record DailyTotal(long accountId, LocalDate balanceDate, BigDecimal dailyTotal) {
+}
@@ -0,0 +1,163 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classe DailyTotalFoldTasklet
+ * <p>
+ * Agrégation incrémentale : cumule dans account_daily_balance.daily_total les transactions VALIDATED
+ * arrivées depuis le dernier passage (watermark sur (created_xid, id)), par lots d'au plus
+ * {@code maxTransactions} transactions. Chaque lot est une itération du tasklet, donc une transaction
+ * qui avance le watermark en même temps qu'elle cumule : un lot n'est jamais compté deux fois.
+ * <p>
+ * Utilisé par le job intraday pour la date du jour, et par le job de fin de journée pour clôturer
+ * les dates déjà alimentées en cours de journée ({@code watermarkedOnly}) ; les autres dates y sont
+ * agrégées en entier par les partitions. La clôture d'une date se fait en quatre temps, chacun dans
+ * sa transaction :
+ * <ol>
+ *   <li>watermark marqué {@code closing} : le trigger de transactions marque désormais les insertions de la date ;</li>
+ *   <li>attente de la fin des transactions d'écriture commencées avant (au plus {@code closeWait}, sinon
+ *   le watermark est supprimé et la date réagrégée en entier par les partitions) ;</li>
+ *   <li>derniers cumuls ;</li>
+ *   <li>recalcul des couples (compte, date) marqués dans dirty_account_day (transactions modifiées ou
+ *   supprimées après leur cumul, insertions pendant la clôture), par lots de {@code dirtyBatchSize}.</li>
+ * </ol>
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class DailyTotalFoldTasklet implements Tasklet {
+
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private enum Phase { BEGIN_CLOSING, AWAIT_WRITERS, FOLD, RECOMPUTE }
+
+    private final JdbcClientWrapper jdbcWrapper;
+    private final List<LocalDate> businessDates;
+    private final boolean watermarkedOnly;
+    private final int maxTransactions;
+    private final int dirtyBatchSize;
+    private final Duration closeWait;
+
+    private List<LocalDate> remainingDates;
+    private Phase phase;
+
+    public DailyTotalFoldTasklet(JdbcClientWrapper jdbcWrapper, List<LocalDate> businessDates, boolean watermarkedOnly,
+                                 int maxTransactions, int dirtyBatchSize, Duration closeWait) {
+        this.jdbcWrapper = jdbcWrapper;
+        this.businessDates = businessDates;
+        this.watermarkedOnly = watermarkedOnly;
+        this.maxTransactions = Math.max(1, maxTransactions);
+        this.dirtyBatchSize = Math.max(1, dirtyBatchSize);
+        this.closeWait = closeWait;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (remainingDates == null) {
+            remainingDates = datesToFold();
+            phase = firstPhase();
+        }
+        if (remainingDates.isEmpty()) {
+            return RepeatStatus.FINISHED;
+        }
+
+        LocalDate businessDate = remainingDates.get(0);
+        switch (phase) {
+            case BEGIN_CLOSING -> beginClosing(businessDate);
+            case AWAIT_WRITERS -> awaitWriters(businessDate);
+            case FOLD -> fold(businessDate, contribution);
+            case RECOMPUTE -> recompute(businessDate, contribution);
+        }
+        return remainingDates.isEmpty() ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+
+    // ================= CLÔTURE =================
+    // Commité avant l'attente : une transaction qui n'a pas vu closing a déjà un xid inférieur au xmax lu ensuite
+    private void beginClosing(LocalDate businessDate) {
+        if (jdbcWrapper.beginAggregationClosing(businessDate)) {
+            phase = Phase.AWAIT_WRITERS;
+        } else {
+            nextDate();
+        }
+    }
+
+    // Sans écriture dans cette transaction : elle n'a pas d'xid et ne retient pas le xmin attendu
+    private void awaitWriters(LocalDate businessDate) throws InterruptedException {
+        long closingXid = jdbcWrapper.snapshotXmax();
+        long deadline = System.nanoTime() + closeWait.toNanos();
+        while (!jdbcWrapper.snapshotXminReached(closingXid)) {
+            if (System.nanoTime() - deadline >= 0) {
+                log.warn("Clôture intraday {} : transactions d'écriture encore en cours après {}, date réagrégée en entier",
+                        businessDate, closeWait);
+                jdbcWrapper.deleteAggregationWatermark(businessDate);
+                nextDate();
+                return;
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        // Watermark créé récemment : ses cumuls ne peuvent plus dépasser une modification non marquée
+        jdbcWrapper.activateAggregationWatermark(businessDate, closingXid);
+        phase = Phase.FOLD;
+    }
+
+    private void recompute(LocalDate businessDate, StepContribution contribution) {
+        JdbcClientWrapper.RecomputeResult result = jdbcWrapper.recomputeDirtyDailyTotals(businessDate, dirtyBatchSize);
+        contribution.incrementWriteCount(result.dailyCorrected());
+
+        log.info("Clôture intraday {} : {} couples marqués recalculés, {} totaux modifiés",
+                businessDate, result.dirtyProcessed(), result.dailyCorrected());
+
+        if (result.dirtyProcessed() < dirtyBatchSize) {
+            nextDate();
+        }
+    }
+
+    // ================= CUMUL =================
+    private void fold(LocalDate businessDate, StepContribution contribution) {
+        JdbcClientWrapper.FoldResult result = jdbcWrapper.foldDailyTotals(businessDate, maxTransactions);
+        contribution.incrementWriteCount(result.accountsFolded());
+
+        log.info("Cumul {} : {} transactions sur {} comptes, watermark = ({}, {})", businessDate,
+                result.transactionsFolded(), result.accountsFolded(), result.lastXid(), result.lastTransactionId());
+
+        // Lot incomplet : plus rien à cumuler pour cette date à ce stade
+        if (result.transactionsFolded() < maxTransactions) {
+            if (watermarkedOnly) {
+                phase = Phase.RECOMPUTE;
+            } else {
+                nextDate();
+            }
+        }
+    }
+
+    private void nextDate() {
+        remainingDates = remainingDates.subList(1, remainingDates.size());
+        phase = firstPhase();
+    }
+
+    private Phase firstPhase() {
+        return watermarkedOnly ? Phase.BEGIN_CLOSING : Phase.FOLD;
+    }
+
+    private List<LocalDate> datesToFold() {
+        if (!watermarkedOnly || businessDates.isEmpty()) {
+            return businessDates;
+        }
+        Set<LocalDate> watermarked = jdbcWrapper.watermarkedDates(
+                businessDates.get(0), businessDates.get(businessDates.size() - 1));
+        return businessDates.stream().filter(watermarked::contains).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.repo.EodWorkQueueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.support.AbstractPartitionHandler;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Classe DatabaseQueuePartitionHandler
+ * <p>
+ * Partitionnement distant par la base : au lieu d'exécuter les partitions dans la JVM qui a lancé
+ * le job, le step gestionnaire dépose une ligne par partition dans la table eod_work_queue. Les
+ * {@link EodWorkQueueWorker} de toutes les instances les réclament ({@code FOR UPDATE SKIP LOCKED}),
+ * les exécutent et y reportent leur statut : le débit augmente avec le nombre d'instances.
+ * <p>
+ * Le gestionnaire attend que toutes ses partitions soient terminées, puis relit leurs StepExecution
+ * dans le JobRepository (écrits par les instances qui les ont exécutées) pour l'agrégation. S'il
+ * abandonne (délai dépassé, interruption), ses partitions non terminées sont annulées : celles en
+ * attente ne sont plus réclamées, et les instances qui exécutent les autres en arrêtent le step.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class DatabaseQueuePartitionHandler extends AbstractPartitionHandler {
+
+    private final String workerStepName;
+    private final EodWorkQueueRepository workQueueRepository;
+    private final JobExplorer jobExplorer;
+    private final Duration pollInterval;
+    private final Duration timeout;
+
+    public DatabaseQueuePartitionHandler(String workerStepName, EodWorkQueueRepository workQueueRepository,
+                                         JobExplorer jobExplorer, Duration pollInterval, Duration timeout,
+                                         int gridSize) {
+        this.workerStepName = workerStepName;
+        this.workQueueRepository = workQueueRepository;
+        this.jobExplorer = jobExplorer;
+        this.pollInterval = pollInterval;
+        this.timeout = timeout;
+        setGridSize(gridSize);
+    }
+
+    @Override
+    protected Set<StepExecution> doHandle(StepExecution managerStepExecution,
+                                          Set<StepExecution> partitionStepExecutions) throws Exception {
+        long jobExecutionId = managerStepExecution.getJobExecutionId();
+
+        for (StepExecution partition : WorkQueuePartitionHandler.heaviestFirst(partitionStepExecutions)) {
+            workQueueRepository.enqueue(jobExecutionId, partition.getId(), workerStepName,
+                    partition.getExecutionContext().getLong(WorkQueuePartitionHandler.WEIGHT, 0L));
+        }
+        log.info("{} : {} partitions déposées dans eod_work_queue pour l'exécution {}",
+                managerStepExecution.getStepName(), partitionStepExecutions.size(), jobExecutionId);
+
+        try {
+            awaitCompletion(managerStepExecution, jobExecutionId);
+        } catch (Exception e) {
+            int cancelled = workQueueRepository.cancelUnfinished(jobExecutionId, workerStepName);
+            log.warn("{} : {} partitions non terminées annulées dans eod_work_queue",
+                    managerStepExecution.getStepName(), cancelled);
+            throw e;
+        }
+
+        // Statuts et compteurs écrits par les instances qui ont exécuté les partitions
+        Set<StepExecution> result = new HashSet<>(partitionStepExecutions.size());
+        for (StepExecution partition : partitionStepExecutions) {
+            StepExecution reloaded = jobExplorer.getStepExecution(jobExecutionId, partition.getId());
+            result.add(reloaded != null ? reloaded : partition);
+        }
+        return result;
+    }
+
+    private void awaitCompletion(StepExecution managerStepExecution, long jobExecutionId) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long remaining;
+        while ((remaining = workQueueRepository.countUnfinished(jobExecutionId, workerStepName)) > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException(managerStepExecution.getStepName() + " : " + remaining
+                        + " partitions non terminées après " + timeout);
+            }
+            Thread.sleep(pollInterval.toMillis());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+/**
+ * Classe DirtyAccountCorrectionTasklet
+ * <p>
+ * Correction des arrivées tardives : traite par lots de {@code batchSize} les couples (compte, date
+ * clôturée) de dirty_account_day. Seules les transactions de ces comptes et de ces dates sont relues,
+ * le coût est donc proportionnel au nombre de changements et non à la taille des tables. Chaque lot
+ * est une transaction, et le solde ne reçoit que l'écart avec le total déjà appliqué.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class DirtyAccountCorrectionTasklet implements Tasklet {
+
+    private final JdbcClientWrapper jdbcWrapper;
+    private final int batchSize;
+
+    public DirtyAccountCorrectionTasklet(JdbcClientWrapper jdbcWrapper, int batchSize) {
+        this.jdbcWrapper = jdbcWrapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        JdbcClientWrapper.CorrectionResult result = jdbcWrapper.correctDirtyAccountDays(
+                batchSize, contribution.getStepExecution().getJobExecutionId());
+        contribution.incrementWriteCount(result.accountsUpdated());
+
+        log.info("Correction : {} couples (compte, date) relus, {} totaux journaliers corrigés, {} comptes mis à jour",
+                result.dirtyProcessed(), result.dailyCorrected(), result.accountsUpdated());
+
+        // Lot incomplet : plus rien à corriger (les couples verrouillés par une autre instance sont laissés)
+        return result.dirtyProcessed() < batchSize ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+}
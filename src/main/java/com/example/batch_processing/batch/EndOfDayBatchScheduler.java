@@ -2,14 +2,17 @@ package com.example.batch_processing.batch;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.batch.core.Job;
-import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.time.ZoneId;
 
 /**
  * Classe EndOfDayBatchScheduler
@@ -23,28 +26,25 @@ import java.time.format.DateTimeFormatter;
 @Slf4j
 public class EndOfDayBatchScheduler {
 
-    private final JobLauncher jobLauncher;
-    private final Job endOfDayBalanceJobPartitioned;
+    private final EndOfDayJobService endOfDayJobService;
+
+    @Value("${batch.eod.zone:America/Toronto}")
+    private ZoneId batchZone;
 
     // ================= Scheduler =================
-    @Scheduled(cron = "0 55 14 * * *", zone = "America/Toronto")
+    @Scheduled(cron = "0 55 14 * * *", zone = "${batch.eod.zone:America/Toronto}")
     public void runEndOfDayBatch() {
+        // Date métier traitée : la veille
+        LocalDate businessDate = BusinessDates.yesterday(batchZone);
         try {
-            // Ajouter un paramètre unique pour chaque exécution
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-
-            jobLauncher.run(endOfDayBalanceJobPartitioned,
-                    new JobParametersBuilder()
-                            .addString("run.id", timestamp) // param unique pour éviter les doublons
-                            .toJobParameters()
-            );
-
-            System.out.println("Batch EndOfDay exécuté avec succès : " + timestamp);
-
+            JobExecution execution = endOfDayJobService.launchScheduled(businessDate);
+            log.info("Batch EndOfDay lancé pour le {} : exécution {}", businessDate, execution.getId());
+        } catch (JobExecutionAlreadyRunningException | JobInstanceAlreadyCompleteException
+                 | DataIntegrityViolationException | ConcurrencyFailureException e) {
+            // Plusieurs instances : le job de la date a déjà été lancé (ou est en cours de création) par une autre
+            log.info("Batch EndOfDay du {} déjà lancé par une autre instance : {}", businessDate, e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Erreur lors de l'exécution du batch EndOfDay");
+            log.error("Erreur lors de l'exécution du batch EndOfDay du {}", businessDate, e);
         }
     }
 }
-
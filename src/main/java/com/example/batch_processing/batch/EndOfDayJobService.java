@@ -0,0 +1,87 @@
+package com.example.batch_processing.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Classe EndOfDayJobService
+ * <p>
+ * Lancement du job de fin de journée pour une date métier ou un rattrapage sur une plage de dates,
+ * et du job de correction des arrivées tardives.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Service
+@RequiredArgsConstructor
+public class EndOfDayJobService {
+
+    private final JobLauncher jobLauncher;
+    private final Job endOfDayBalanceJobPartitioned;
+    private final Job lateArrivalCorrectionJob;
+
+    public JobExecution launch(LocalDate businessDate, String workerMode) throws Exception {
+        JobParametersBuilder parameters = baseParameters(workerMode)
+                .addLocalDate(BusinessDates.BUSINESS_DATE, businessDate);
+
+        return jobLauncher.run(endOfDayBalanceJobPartitioned, parameters.toJobParameters());
+    }
+
+    /**
+     * Lancement planifié : identifiant d'exécution déterministe par date métier. Quand plusieurs instances
+     * déclenchent le même cron, une seule crée l'instance de job ; les autres reçoivent
+     * JobExecutionAlreadyRunningException ou JobInstanceAlreadyCompleteException. Une exécution planifiée
+     * en échec est reprise (restart) par le déclenchement suivant pour la même date.
+     */
+    public JobExecution launchScheduled(LocalDate businessDate) throws Exception {
+        JobParametersBuilder parameters = new JobParametersBuilder()
+                .addString("run.id", "scheduled-" + businessDate)
+                .addLocalDate(BusinessDates.BUSINESS_DATE, businessDate);
+
+        return jobLauncher.run(endOfDayBalanceJobPartitioned, parameters.toJobParameters());
+    }
+
+    /**
+     * Recalcule tous les jours de [fromDate, toDate] dans une seule exécution :
+     * les partitions (date × plage d'ids) de tous les jours s'exécutent en parallèle.
+     */
+    public JobExecution backfill(LocalDate fromDate, LocalDate toDate, String workerMode) throws Exception {
+        // Validation de la plage avant lancement
+        BusinessDates.range(fromDate, toDate);
+
+        JobParametersBuilder parameters = baseParameters(workerMode)
+                .addLocalDate(BusinessDates.FROM_DATE, fromDate)
+                .addLocalDate(BusinessDates.TO_DATE, toDate);
+
+        return jobLauncher.run(endOfDayBalanceJobPartitioned, parameters.toJobParameters());
+    }
+
+    /**
+     * Correction des dates clôturées : seuls les comptes dont les transactions ont changé depuis sont recalculés.
+     */
+    public JobExecution correctLateArrivals() throws Exception {
+        return jobLauncher.run(lateArrivalCorrectionJob, baseParameters(null).toJobParameters());
+    }
+
+    private JobParametersBuilder baseParameters(String workerMode) {
+        // Ajouter un paramètre unique pour chaque exécution
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS"));
+
+        JobParametersBuilder parameters = new JobParametersBuilder()
+                .addString("run.id", timestamp); // param unique pour éviter les doublons
+        if (StringUtils.isNotBlank(workerMode)) {
+            parameters.addString(WorkerModeDecider.WORKER_MODE_PARAM, workerMode);
+        }
+        return parameters;
+    }
+}
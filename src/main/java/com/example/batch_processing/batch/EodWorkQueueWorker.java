@@ -0,0 +1,198 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.repo.EodWorkQueueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe EodWorkQueueWorker
+ * <p>
+ * Worker du partitionnement distant ({@link DatabaseQueuePartitionHandler}) : chaque instance
+ * réclame périodiquement dans eod_work_queue autant de partitions qu'elle a de places libres
+ * (même plafond de concurrence que les partitions locales), les exécute avec le step worker
+ * indiqué par la ligne, puis y reporte le statut final.
+ * <p>
+ * Les partitions en cours sont signalées à chaque passage (heartbeat) ; celles d'une instance
+ * silencieuse depuis {@code stale-after-seconds} sont remises dans la file et reprises par une
+ * autre instance à partir de leur dernier point de reprise.
+ * <p>
+ * Chaque réclamation porte un jeton (attempt) : une instance qui découvre au heartbeat qu'une de ses
+ * partitions a été réclamée ailleurs ou annulée par le gestionnaire demande l'arrêt de son step
+ * ({@code setTerminateOnly}, pris en compte au prochain chunk) et ne peut plus en reporter le statut.
+ * Une partition dont le StepExecution a été mis à jour il y a moins de {@code stale-after-seconds}
+ * est rendue à la file plutôt qu'exécutée : son ancien détenteur est peut-être encore actif.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Component
+@ConditionalOnProperty(prefix = "batch.eod.remote", name = "enabled", havingValue = "true")
+@Slf4j
+public class EodWorkQueueWorker {
+
+    private final EodWorkQueueRepository workQueueRepository;
+    private final JobExplorer jobExplorer;
+    private final JobRepository jobRepository;
+    private final BeanFactory beanFactory;
+    private final TaskExecutor partitionTaskExecutor;
+    private final PartitionConcurrencyLimiter partitionConcurrencyLimiter;
+    private final int capacity;
+    private final String node;
+    private final Duration staleAfter;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Réclamations détenues (soumises ou en cours) et StepExecution en cours d'exécution, par id de partition
+    private final Map<Long, EodWorkQueueRepository.WorkItem> claimed = new ConcurrentHashMap<>();
+    private final Map<Long, StepExecution> executing = new ConcurrentHashMap<>();
+
+    public EodWorkQueueWorker(EodWorkQueueRepository workQueueRepository,
+                              JobExplorer jobExplorer,
+                              JobRepository jobRepository,
+                              BeanFactory beanFactory,
+                              @Qualifier("partitionTaskExecutor") TaskExecutor partitionTaskExecutor,
+                              PartitionConcurrencyLimiter partitionConcurrencyLimiter,
+                              @Value("${batch.eod.remote.node-id:}") String nodeId,
+                              @Value("${batch.eod.remote.stale-after-seconds:120}") long staleAfterSeconds) {
+        this.workQueueRepository = workQueueRepository;
+        this.jobExplorer = jobExplorer;
+        this.jobRepository = jobRepository;
+        this.beanFactory = beanFactory;
+        this.partitionTaskExecutor = partitionTaskExecutor;
+        this.partitionConcurrencyLimiter = partitionConcurrencyLimiter;
+        // Mode du step inconnu avant la réclamation : une partition chunk réclamée au-delà attend ses connexions
+        this.capacity = partitionConcurrencyLimiter.getMaxConcurrency(1);
+        // Par défaut pid@hôte : unique par instance, y compris plusieurs instances sur la même machine
+        this.node = StringUtils.isNotBlank(nodeId) ? nodeId : ManagementFactory.getRuntimeMXBean().getName();
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    // ================= POLLING =================
+    @Scheduled(fixedDelayString = "${batch.eod.remote.poll-interval-ms:1000}")
+    public void poll() {
+        if (inFlight.get() > 0) {
+            fenceLostClaims(workQueueRepository.heartbeat(node));
+        }
+        int requeued = workQueueRepository.requeueStale(staleAfter);
+        if (requeued > 0) {
+            log.warn("{} partitions d'instances sans heartbeat depuis {} remises dans eod_work_queue", requeued, staleAfter);
+        }
+
+        int free = capacity - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        List<EodWorkQueueRepository.WorkItem> items = workQueueRepository.claim(node, free);
+        for (EodWorkQueueRepository.WorkItem item : items) {
+            inFlight.incrementAndGet();
+            claimed.put(item.id(), item);
+            try {
+                int connections = WorkerMode.ofWorkerStep(item.workerStepName()).getConnectionsPerPartition();
+                partitionTaskExecutor.execute(partitionConcurrencyLimiter.forConnections(connections).decorate(() -> {
+                    try {
+                        run(item);
+                    } finally {
+                        claimed.remove(item.id());
+                        inFlight.decrementAndGet();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                claimed.remove(item.id());
+                inFlight.decrementAndGet();
+                log.error("Partition {} réclamée par {} non soumise", item.stepExecutionId(), node, e);
+                workQueueRepository.finish(item, node, BatchStatus.FAILED);
+            }
+        }
+    }
+
+    // Réclamations absentes du heartbeat : remises dans la file, réclamées ailleurs ou annulées
+    void fenceLostClaims(Map<Long, Integer> held) {
+        claimed.values().removeIf(item -> {
+            if (Integer.valueOf(item.attempt()).equals(held.get(item.id()))) {
+                return false;
+            }
+            StepExecution stepExecution = executing.get(item.id());
+            if (stepExecution != null) {
+                stepExecution.setTerminateOnly();
+            }
+            log.warn("Partition {} (réclamation {}) perdue par {} : {}", item.stepExecutionId(), item.attempt(), node,
+                    stepExecution != null ? "arrêt du step demandé" : "non exécutée");
+            return true;
+        });
+    }
+
+    // ================= EXECUTION =================
+    void run(EodWorkQueueRepository.WorkItem item) {
+        StepExecution stepExecution = jobExplorer.getStepExecution(item.jobExecutionId(), item.stepExecutionId());
+        if (stepExecution == null) {
+            log.error("Partition {} de l'exécution {} introuvable dans le JobRepository",
+                    item.stepExecutionId(), item.jobExecutionId());
+            workQueueRepository.finish(item, node, BatchStatus.FAILED);
+            return;
+        }
+        if (stillRunningElsewhere(stepExecution)) {
+            log.info("Partition {} mise à jour il y a moins de {} : rendue à la file", stepExecution.getStepName(), staleAfter);
+            workQueueRepository.release(item, node);
+            return;
+        }
+
+        // Enregistrée avant de vérifier la réclamation : un heartbeat concurrent voit l'un ou l'autre
+        executing.put(item.id(), stepExecution);
+        try {
+            if (!claimed.containsKey(item.id())) {
+                log.warn("Partition {} perdue par {} avant son exécution", stepExecution.getStepName(), node);
+                return;
+            }
+            beanFactory.getBean(item.workerStepName(), Step.class).execute(stepExecution);
+        } catch (Exception e) {
+            // Erreur hors du step lui-même (ex. interruption) : la partition est enregistrée en échec
+            log.error("Partition {} en échec sur {}", stepExecution.getStepName(), node, e);
+            stepExecution.setStatus(BatchStatus.FAILED);
+            stepExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(e));
+            stepExecution.setEndTime(LocalDateTime.now());
+            jobRepository.update(stepExecution);
+        } finally {
+            executing.remove(item.id());
+        }
+
+        if (!workQueueRepository.finish(item, node, stepExecution.getStatus())) {
+            log.warn("Partition {} terminée sur {} mais réclamée ailleurs ou annulée entre-temps", stepExecution.getStepName(), node);
+            return;
+        }
+        log.info("Partition {} exécutée sur {} : {}", stepExecution.getStepName(), node, stepExecution.getStatus());
+    }
+
+    // Step démarré par une autre réclamation et dont le JobRepository a reçu une mise à jour récente
+    private boolean stillRunningElsewhere(StepExecution stepExecution) {
+        BatchStatus status = stepExecution.getStatus();
+        LocalDateTime lastUpdated = stepExecution.getLastUpdated();
+        return (status == BatchStatus.STARTED || status == BatchStatus.STOPPING)
+                && lastUpdated != null
+                && lastUpdated.isAfter(LocalDateTime.now().minus(staleAfter));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.batch_processing.batch;
+
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+
+/**
+ * Classe HighWaterMarkListener
+ * <p>
+ * Enregistre, après chaque chunk écrit, le dernier identifiant de compte traité
+ * ({@link BalanceSliceTasklet#LAST_PROCESSED_ID}) dans l'ExecutionContext du step. Le contexte est
+ * persisté dans la transaction du chunk : au redémarrage, le reader repart juste après ce compte.
+ * Instance par partition (bean {@code @StepScope}).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class HighWaterMarkListener implements StepExecutionListener, ItemWriteListener<DailyTotal> {
+
+    private StepExecution stepExecution;
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        this.stepExecution = stepExecution;
+    }
+
+    @Override
+    public void afterWrite(Chunk<? extends DailyTotal> items) {
+        if (!items.isEmpty()) {
+            // Les items arrivent triés par account_id : le dernier est le plus grand
+            long lastAccountId = items.getItems().get(items.size() - 1).accountId();
+            stepExecution.getExecutionContext().putLong(BalanceSliceTasklet.LAST_PROCESSED_ID, lastAccountId);
+        }
+    }
+}
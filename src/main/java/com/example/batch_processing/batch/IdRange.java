@@ -0,0 +1,38 @@
+package com.example.batch_processing.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe IdRange
+ * <p>
+ * Intervalle fermé [minId, maxId] d'identifiants de comptes traité par une partition.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public record IdRange(long minId, long maxId) {
+
+    public long size() {
+        return maxId - minId + 1;
+    }
+
+    /**
+     * Découpe l'intervalle en au plus {@code pieces} sous-intervalles contigus de tailles égales (à 1 près).
+     */
+    public List<IdRange> split(int pieces) {
+        int count = (int) Math.max(1, Math.min(pieces, size()));
+        long base = size() / count;
+        long extra = size() % count;
+
+        List<IdRange> ranges = new ArrayList<>(count);
+        long start = minId;
+        for (int i = 0; i < count; i++) {
+            long end = start + base - 1 + (i < extra ? 1 : 0);
+            ranges.add(new IdRange(start, end));
+            start = end + 1;
+        }
+        return ranges;
+    }
+}
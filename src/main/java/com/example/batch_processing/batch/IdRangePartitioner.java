@@ -0,0 +1,94 @@
+package com.example.batch_processing.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classe IdRangePartitioner
+ * <p>
+ * Base commune des partitionneurs par plage d'identifiants : pour chaque date métier de
+ * l'exécution, l'espace d'identifiants est découpé en plages, et chaque couple (date, plage)
+ * devient une partition portant les clés {@code businessDate}, {@code minId}, {@code maxId}
+ * et {@code weight} (coût estimé, utilisé pour ordonner la file de travail), plus {@code applyOnly}
+ * pour les dates déjà agrégées en cours de journée (seule l'application des soldes reste à faire).
+ * Un rattrapage sur plusieurs jours produit donc jours × plages partitions, exécutées en parallèle.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public abstract class IdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID = "minId";
+    public static final String MAX_ID = "maxId";
+    public static final String APPLY_ONLY = "applyOnly";
+
+    private final List<LocalDate> businessDates;
+    private Set<LocalDate> applyOnlyDates = Set.of();
+
+    protected IdRangePartitioner(List<LocalDate> businessDates) {
+        this.businessDates = businessDates;
+    }
+
+    /**
+     * Dates dont les totaux journaliers sont déjà à jour (agrégation intraday clôturée) :
+     * leurs partitions n'appliquent que les soldes, sans réagréger les transactions.
+     */
+    public void setApplyOnlyDates(Set<LocalDate> applyOnlyDates) {
+        this.applyOnlyDates = applyOnlyDates;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> result = new HashMap<>();
+        int index = 0;
+        for (LocalDate businessDate : businessDates) {
+            for (IdRange range : split(businessDate, Math.max(1, gridSize))) {
+                ExecutionContext context = new ExecutionContext();
+                context.putString(BusinessDates.BUSINESS_DATE, businessDate.toString());
+                context.putLong(MIN_ID, range.minId());
+                context.putLong(MAX_ID, range.maxId());
+                context.putLong(WorkQueuePartitionHandler.WEIGHT, weight(businessDate, range));
+                context.put(APPLY_ONLY, applyOnlyDates.contains(businessDate));
+                result.put("partition" + index++, context);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Découpe l'espace d'identifiants de la date métier en au plus {@code gridSize} plages contiguës.
+     */
+    protected abstract List<IdRange> split(LocalDate businessDate, int gridSize);
+
+    /**
+     * Coût estimé d'une plage : par défaut son nombre d'identifiants.
+     */
+    protected long weight(LocalDate businessDate, IdRange range) {
+        return range.size();
+    }
+
+    /**
+     * Rend une liste de plages triées contiguë : chaque plage commence juste après la précédente,
+     * pour qu'aucun identifiant situé dans un « trou » entre deux bornes ne soit oublié.
+     */
+    static List<IdRange> contiguous(List<IdRange> sortedRanges) {
+        List<IdRange> result = new ArrayList<>(sortedRanges.size());
+        long start = sortedRanges.isEmpty() ? 0 : sortedRanges.get(0).minId();
+        for (IdRange range : sortedRanges) {
+            if (range.maxId() < start) {
+                continue;
+            }
+            result.add(new IdRange(start, range.maxId()));
+            start = range.maxId() + 1;
+        }
+        return result;
+    }
+}
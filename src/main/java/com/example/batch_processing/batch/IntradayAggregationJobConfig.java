@@ -0,0 +1,100 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Classe IntradayAggregationJobConfig
+ * <p>
+ * Agrégation incrémentale des totaux journaliers : le job intraday cumule régulièrement les
+ * nouvelles transactions de la journée dans account_daily_balance, et le job de fin de journée
+ * n'a plus qu'à clôturer le reliquat ({@code closeIntradayStep}) puis à appliquer les soldes.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Configuration
+@RequiredArgsConstructor
+public class IntradayAggregationJobConfig {
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcClient jdbcClient;
+
+    @Value("${batch.eod.zone:America/Toronto}")
+    private ZoneId batchZone = ZoneId.of("America/Toronto");
+
+    @Value("${batch.intraday.max-transactions-per-commit:200000}")
+    private int maxTransactionsPerCommit = 200_000;
+
+    @Value("${batch.intraday.close-wait-seconds:300}")
+    private long closeWaitSeconds = 300;
+
+    @Value("${batch.correction.batch-size:5000}")
+    private int dirtyBatchSize = 5000;
+
+    // ================= JOB =================
+    @Bean
+    public Job intradayAggregationJob() {
+        return new JobBuilder("intradayAggregationJob", jobRepository)
+                .start(intradayFoldStep())
+                .build();
+    }
+
+    @Bean
+    public Step intradayFoldStep() {
+        return new StepBuilder("intradayFoldStep", jobRepository)
+                .tasklet(intradayFoldTasklet(null), transactionManager)
+                .build();
+    }
+
+    // Date du jour par défaut : les transactions arrivent au fil de la journée
+    @Bean
+    @StepScope
+    public Tasklet intradayFoldTasklet(@Value("#{jobParameters['businessDate']}") String businessDate) {
+        LocalDate date = StringUtils.isNotBlank(businessDate) ? LocalDate.parse(businessDate) : LocalDate.now(batchZone);
+        return new DailyTotalFoldTasklet(new JdbcClientWrapper(jdbcClient), List.of(date), false,
+                maxTransactionsPerCommit, dirtyBatchSize, Duration.ofSeconds(closeWaitSeconds));
+    }
+
+    // ================= CLÔTURE (job de fin de journée) =================
+    // Premier step du job de fin de journée : reliquat des seules dates alimentées en cours de journée, puis
+    // recalcul des couples (compte, date) dont une transaction a changé après son cumul
+    @Bean
+    public Step closeIntradayStep() {
+        return new StepBuilder("closeIntradayStep", jobRepository)
+                .tasklet(closeIntradayTasklet(null, null, null), transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet closeIntradayTasklet(
+            @Value("#{jobParameters['businessDate']}") String businessDate,
+            @Value("#{jobParameters['fromDate']}") String fromDate,
+            @Value("#{jobParameters['toDate']}") String toDate) {
+
+        return new DailyTotalFoldTasklet(new JdbcClientWrapper(jdbcClient),
+                BusinessDates.resolve(businessDate, fromDate, toDate, batchZone), true,
+                maxTransactionsPerCommit, dirtyBatchSize, Duration.ofSeconds(closeWaitSeconds));
+    }
+}
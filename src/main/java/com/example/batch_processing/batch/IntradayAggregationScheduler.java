@@ -0,0 +1,67 @@
+package com.example.batch_processing.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Classe IntradayAggregationScheduler
+ * <p>
+ * Lance périodiquement le job intraday pour la date du jour. Un passage n'est pas lancé tant
+ * que le précédent de cette instance est en cours ; entre instances, le verrou du watermark
+ * de la date sérialise les cumuls.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Component
+@ConditionalOnProperty(prefix = "batch.intraday", name = "enabled", havingValue = "true")
+@Slf4j
+public class IntradayAggregationScheduler {
+
+    private final JobLauncher jobLauncher;
+    private final Job intradayAggregationJob;
+    private final ZoneId batchZone;
+
+    private JobExecution lastExecution;
+
+    public IntradayAggregationScheduler(JobLauncher jobLauncher,
+                                        @Qualifier("intradayAggregationJob") Job intradayAggregationJob,
+                                        @Value("${batch.eod.zone:America/Toronto}") ZoneId batchZone) {
+        this.jobLauncher = jobLauncher;
+        this.intradayAggregationJob = intradayAggregationJob;
+        this.batchZone = batchZone;
+    }
+
+    // ================= Scheduler =================
+    @Scheduled(fixedDelayString = "${batch.intraday.interval-ms:300000}",
+            initialDelayString = "${batch.intraday.interval-ms:300000}")
+    public void runIntradayAggregation() {
+        if (lastExecution != null && lastExecution.isRunning()) {
+            log.info("Agrégation intraday précédente ({}) encore en cours : passage ignoré", lastExecution.getId());
+            return;
+        }
+        LocalDate businessDate = LocalDate.now(batchZone);
+        try {
+            lastExecution = jobLauncher.run(intradayAggregationJob, new JobParametersBuilder()
+                    .addString("run.id", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")))
+                    .addLocalDate(BusinessDates.BUSINESS_DATE, businessDate)
+                    .toJobParameters());
+        } catch (Exception e) {
+            log.error("Erreur lors du lancement de l'agrégation intraday du {}", businessDate, e);
+        }
+    }
+}
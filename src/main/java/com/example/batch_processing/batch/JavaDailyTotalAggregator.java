@@ -0,0 +1,163 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.query.BalanceQuery;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Classe JavaDailyTotalAggregator
+ * <p>
+ * Alternative à l'agrégation SQL (UPSERT_DAILY_BALANCE) : les transactions VALIDATED d'une tranche
+ * sont lues en streaming (fetch size élevé), leurs montants cumulés en centimes {@code long} dans une
+ * {@link AccountCentsMap}, puis les totaux non nuls chargés par {@code COPY} dans une table temporaire
+ * et fusionnés dans account_daily_balance. Le GROUP BY ne consomme plus de CPU sur le primaire ;
+ * l'arithmétique entière sur des numeric(18, 2) donne exactement les mêmes totaux que SUM(amount).
+ * <p>
+ * Utilise la connexion de la transaction en cours (celle de la tranche).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class JavaDailyTotalAggregator {
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final JdbcClient jdbcClient;
+    private final int fetchSize;
+    private final SQLStateSQLExceptionTranslator exceptionTranslator = new SQLStateSQLExceptionTranslator();
+
+    public JavaDailyTotalAggregator(DataSource dataSource, JdbcClient jdbcClient, int fetchSize) {
+        this.dataSource = dataSource;
+        this.jdbcClient = jdbcClient;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Équivalent de {@code JdbcClientWrapper.upsertDailyBalance} pour les mêmes paramètres
+     * (businessDate, minId, maxId) : retourne le nombre de lignes account_daily_balance écrites.
+     */
+    public int upsertDailyBalance(Map<String, Object> params) {
+        LocalDate businessDate = (LocalDate) params.get("businessDate");
+        long minId = (Long) params.get("minId");
+        long maxId = (Long) params.get("maxId");
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        String sql = BalanceQuery.SELECT_VALIDATED_CENTS;
+        try {
+            AccountCentsMap totals = aggregate(connection, businessDate, minId, maxId);
+
+            sql = BalanceQuery.COPY_DAILY_TOTAL_STAGE;
+            jdbcClient.sql(BalanceQuery.CREATE_DAILY_TOTAL_STAGE).update();
+            copy(connection, totals);
+            // Fusion même sans total : les lignes existantes de la plage doivent repasser à 0
+            return jdbcClient.sql(BalanceQuery.MERGE_DAILY_TOTAL_STAGE)
+                    .param("businessDate", businessDate)
+                    .param("minId", minId)
+                    .param("maxId", maxId)
+                    .update();
+        } catch (SQLException e) {
+            // Même traduction que JdbcTemplate : un statement_timeout reste une QueryTimeoutException
+            throw exceptionTranslator.translate("Agrégation Java [" + minId + "-" + maxId + "]", sql, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    AccountCentsMap aggregate(Connection connection, LocalDate businessDate, long minId, long maxId) throws SQLException {
+        AccountCentsMap totals = new AccountCentsMap((int) Math.min(maxId - minId + 1, 1 << 20));
+        try (PreparedStatement statement = connection.prepareStatement(BalanceQuery.SELECT_VALIDATED_CENTS)) {
+            // PostgreSQL ne respecte le fetchSize qu'en dehors de l'autocommit (transaction de la tranche)
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, businessDate);
+            statement.setLong(2, minId);
+            statement.setLong(3, maxId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    long accountId = rs.getLong(1);
+                    try {
+                        totals.add(accountId, rs.getLong(2));
+                    } catch (ArithmeticException e) {
+                        // Même exception que le dépassement numeric de SUM(amount) en mode SQL (SQLState 22003)
+                        throw new DataIntegrityViolationException("Agrégation Java [" + minId + "-" + maxId
+                                + "] : total du compte " + accountId + " hors limites (numeric field overflow)", e);
+                    }
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Charge les totaux non nuls (HAVING SUM(amount) &lt;&gt; 0) dans daily_total_stage.
+     *
+     * @return nombre de lignes chargées
+     */
+    private long copy(Connection connection, AccountCentsMap totals) throws SQLException {
+        if (totals.isEmpty()) {
+            return 0;
+        }
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(BalanceQuery.COPY_DAILY_TOTAL_STAGE);
+        try {
+            StringBuilder rows = new StringBuilder(COPY_BUFFER_BYTES + 64);
+            long[] staged = {0};
+            totals.forEach((accountId, cents) -> {
+                if (cents == 0) {
+                    return;
+                }
+                rows.append(accountId).append('\t');
+                appendCents(rows, cents).append('\n');
+                staged[0]++;
+                if (rows.length() >= COPY_BUFFER_BYTES) {
+                    flush(copyIn, rows);
+                }
+            });
+            flush(copyIn, rows);
+            copyIn.endCopy();
+            return staged[0];
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.US_ASCII);
+        rows.setLength(0);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Écrit un montant en centimes au format décimal à deux chiffres (ex. -1205 → -12.05).
+     */
+    static StringBuilder appendCents(StringBuilder target, long cents) {
+        if (cents < 0) {
+            target.append('-');
+        }
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        target.append(abs / 100).append('.');
+        if (fraction < 10) {
+            target.append('0');
+        }
+        return target.append(fraction);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.DailySummaryCache;
+import com.example.batch_processing.service.JdbcClientWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Classe LateArrivalCorrectionJobConfig
+ * <p>
+ * Job de correction des dates déjà clôturées : recalcule uniquement les comptes dont les transactions
+ * ont été ajoutées ou modifiées après la clôture (table dirty_account_day alimentée par trigger).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Configuration
+@RequiredArgsConstructor
+public class LateArrivalCorrectionJobConfig {
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcClient jdbcClient;
+
+    @Value("${batch.correction.batch-size:5000}")
+    private int batchSize = 5000;
+
+    // ================= JOB =================
+    @Bean
+    public Job lateArrivalCorrectionJob(DailySummaryCache dailySummaryCache) {
+        return new JobBuilder("lateArrivalCorrectionJob", jobRepository)
+                .listener(summaryCacheEviction(dailySummaryCache))
+                .start(correctDirtyAccountsStep())
+                .build();
+    }
+
+    // Les couples corrigés portent sur des dates quelconques : tout le cache du résumé journalier est
+    // évincé dès qu'un solde a été corrigé
+    private JobExecutionListener summaryCacheEviction(DailySummaryCache dailySummaryCache) {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                long corrected = jobExecution.getStepExecutions().stream()
+                        .mapToLong(StepExecution::getWriteCount)
+                        .sum();
+                if (corrected > 0) {
+                    dailySummaryCache.evictAll();
+                }
+            }
+        };
+    }
+
+    @Bean
+    public Step correctDirtyAccountsStep() {
+        return new StepBuilder("correctDirtyAccountsStep", jobRepository)
+                .tasklet(new DirtyAccountCorrectionTasklet(new JdbcClientWrapper(jdbcClient), batchSize), transactionManager)
+                .build();
+    }
+}
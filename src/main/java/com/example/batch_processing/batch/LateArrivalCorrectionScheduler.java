@@ -0,0 +1,37 @@
+package com.example.batch_processing.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Classe LateArrivalCorrectionScheduler
+ * <p>
+ * Lance périodiquement le job de correction des arrivées tardives.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Component
+@ConditionalOnProperty(prefix = "batch.correction", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class LateArrivalCorrectionScheduler {
+
+    private final EndOfDayJobService endOfDayJobService;
+
+    // ================= Scheduler =================
+    @Scheduled(cron = "${batch.correction.cron:0 */15 * * * *}", zone = "${batch.eod.zone:America/Toronto}")
+    public void runCorrection() {
+        try {
+            JobExecution execution = endOfDayJobService.correctLateArrivals();
+            log.info("Correction des arrivées tardives lancée : exécution {}", execution.getId());
+        } catch (Exception e) {
+            log.error("Erreur lors du lancement de la correction des arrivées tardives", e);
+        }
+    }
+}
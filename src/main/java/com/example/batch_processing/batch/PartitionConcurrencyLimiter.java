@@ -0,0 +1,101 @@
+package com.example.batch_processing.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Classe PartitionConcurrencyLimiter
+ * <p>
+ * Limite le nombre de partitions exécutées simultanément, indépendamment du nombre de partitions
+ * soumises : chaque tâche attend ses permis avant de s'exécuter et les rend à la fin. Les partitions
+ * tournant sur des threads virtuels, l'attente ne bloque aucun thread porteur.
+ * <p>
+ * Un permis correspond à une connexion du pool Hikari non réservée à l'API REST : une partition prend
+ * autant de permis que son mode de worker ouvre de connexions (2 en mode chunk : curseur + écriture),
+ * tous modes confondus sur le même budget. Un plafond optionnel du nombre de partitions s'y ajoute.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class PartitionConcurrencyLimiter {
+
+    private final Semaphore connections;
+    private final int availableConnections;
+    private final Semaphore partitions;
+    private final int maxPartitions;
+
+    /**
+     * @param availableConnections connexions du pool utilisables par les partitions (au minimum 1)
+     * @param maxPartitions        plafond du nombre de partitions simultanées (ignoré si &lt;= 0)
+     */
+    public PartitionConcurrencyLimiter(int availableConnections, int maxPartitions) {
+        this.availableConnections = Math.max(1, availableConnections);
+        this.maxPartitions = maxPartitions;
+        // Équitables : les partitions démarrent dans l'ordre de soumission
+        this.connections = new Semaphore(this.availableConnections, true);
+        this.partitions = maxPartitions > 0 ? new Semaphore(maxPartitions, true) : null;
+    }
+
+    /**
+     * Connexions du pool non réservées, au minimum 1.
+     */
+    public static int availableConnections(int poolSize, int reservedConnections) {
+        return Math.max(1, poolSize - reservedConnections);
+    }
+
+    /**
+     * Nombre de partitions simultanées d'un mode : connexions disponibles divisées par les connexions
+     * d'une partition, éventuellement plafonné par max-partitions, au minimum 1.
+     */
+    public int getMaxConcurrency(int connectionsPerPartition) {
+        int concurrency = Math.max(1, availableConnections / Math.max(1, connectionsPerPartition));
+        return maxPartitions > 0 ? Math.min(maxPartitions, concurrency) : concurrency;
+    }
+
+    public int getAvailableConnections() {
+        return connections.availablePermits();
+    }
+
+    /**
+     * Décorateur des tâches d'un mode ouvrant {@code connectionsPerPartition} connexions par partition.
+     */
+    public TaskDecorator forConnections(int connectionsPerPartition) {
+        // Pool plus petit que les besoins d'une partition : elle s'exécute seule plutôt que d'attendre indéfiniment
+        int required = Math.min(Math.max(1, connectionsPerPartition), availableConnections);
+        return task -> () -> {
+            acquire(required);
+            try {
+                task.run();
+            } finally {
+                connections.release(required);
+                if (partitions != null) {
+                    partitions.release();
+                }
+            }
+        };
+    }
+
+    private void acquire(int required) {
+        try {
+            if (partitions != null) {
+                partitions.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partition interrompue en attente d'une connexion", e);
+        }
+        try {
+            connections.acquire(required);
+        } catch (InterruptedException e) {
+            if (partitions != null) {
+                partitions.release();
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partition interrompue en attente d'une connexion", e);
+        }
+    }
+}
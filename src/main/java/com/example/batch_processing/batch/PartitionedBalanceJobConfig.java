@@ -1,27 +1,43 @@
 package com.example.batch_processing.batch;
 
+import com.example.batch_processing.query.BalanceQuery;
+import com.example.batch_processing.repo.EodWorkQueueRepository;
+import com.example.batch_processing.service.AccountDailyBalanceService;
+import com.example.batch_processing.service.DailySummaryCache;
 import com.example.batch_processing.service.JdbcClientWrapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.PartitionStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.core.step.tasklet.Tasklet;
-import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.item.support.CompositeItemWriter;
+import org.springframework.batch.item.support.builder.CompositeItemWriterBuilder;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
-import java.util.HashMap;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -33,136 +49,420 @@ public class PartitionedBalanceJobConfig {
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
     private final JdbcClient jdbcClient;
+    private final DataSource dataSource;
+    // Partitionnement distant uniquement : relecture des partitions exécutées par les autres instances
+    private final JobExplorer jobExplorer;
+    private final EodWorkQueueRepository workQueueRepository;
+
+    @Value("${batch.eod.zone:America/Toronto}")
+    private ZoneId batchZone = ZoneId.of("America/Toronto");
+
+    @Value("${batch.eod.grid-size:8}")
+    private int gridSize = 8;
+
+    @Value("${batch.eod.work-units:0}")
+    private int workUnits = 0;
+
+    @Value("${batch.eod.straggler.enabled:true}")
+    private boolean stragglerSplitting = true;
+
+    @Value("${batch.eod.straggler.slowness-factor:3.0}")
+    private double stragglerSlownessFactor = 3.0;
+
+    @Value("${batch.eod.straggler.min-completed-units:5}")
+    private int stragglerMinCompletedUnits = 5;
+
+    @Value("${batch.eod.straggler.check-interval-ms:1000}")
+    private long stragglerCheckIntervalMs = 1000;
+
+    @Value("${batch.eod.straggler.max-split-depth:2}")
+    private int stragglerMaxSplitDepth = 2;
+
+    @Value("${batch.eod.statement-timeout-ms:0}")
+    private long statementTimeoutMs = 0;
+
+    @Value("${batch.eod.remote.enabled:false}")
+    private boolean remotePartitioning = false;
+
+    @Value("${batch.eod.remote.poll-interval-ms:1000}")
+    private long remotePollIntervalMs = 1000;
+
+    @Value("${batch.eod.remote.timeout-minutes:240}")
+    private long remoteTimeoutMinutes = 240;
+
+    @Value("${batch.eod.partitioning:accounts}")
+    private PartitioningMode partitioningMode = PartitioningMode.ACCOUNTS;
+
+    @Value("${batch.eod.volume-sample-percent:1.0}")
+    private double volumeSamplePercent = 1.0;
+
+    @Value("${batch.eod.slice-size:50000}")
+    private long sliceSize = 50_000;
+
+    @Value("${batch.eod.worker-mode:tasklet}")
+    private WorkerMode defaultWorkerMode = WorkerMode.TASKLET;
+
+    @Value("${batch.eod.chunk.commit-interval:1000}")
+    private int chunkCommitInterval = 1000;
+
+    @Value("${batch.eod.chunk.fetch-size:5000}")
+    private int chunkFetchSize = 5000;
+
+    @Value("${batch.eod.java.fetch-size:10000}")
+    private int javaFetchSize = 10_000;
+
+    @Value("${batch.summary-cache.prewarm-pages:5}")
+    private int summaryPrewarmPages = 5;
+
+    @Value("${batch.summary-cache.prewarm-size:20}")
+    private int summaryPrewarmSize = 20;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int hikariMaximumPoolSize = 10;
+
+    @Value("${batch.eod.concurrency.reserved-connections:3}")
+    private int reservedConnections = 3;
+
+    @Value("${batch.eod.concurrency.max-partitions:0}")
+    private int maxConcurrentPartitions = 0;
 
     // ================= JOB =================
+    // Clôture du reliquat des dates alimentées en cours de journée, puis le paramètre workerMode
+    // choisit l'implémentation du worker pour cette exécution ; les dates sont enfin marquées clôturées
+    // (account_daily_balance complet : l'API lit alors le résumé journalier dans cette table)
     @Bean
-    public Job endOfDayBalanceJobPartitioned() {
+    public Job endOfDayBalanceJobPartitioned(Step closeIntradayStep, DailySummaryCacheListener dailySummaryCacheListener) {
         return new JobBuilder("endOfDayBalanceJobPartitioned", jobRepository)
-                .start(partitionStep())
+                .listener(dailySummaryCacheListener)
+                .start(closeIntradayStep)
+                .next(workerModeDecider())
+                    .on(WorkerMode.CHUNK.name()).to(chunkPartitionStep()).next(closeBusinessDayStep())
+                .from(workerModeDecider())
+                    .on(WorkerMode.FUSED.name()).to(fusedPartitionStep()).next(closeBusinessDayStep())
+                .from(workerModeDecider())
+                    .on(WorkerMode.JAVA.name()).to(javaPartitionStep()).next(closeBusinessDayStep())
+                .from(workerModeDecider())
+                    .on("*").to(partitionStep()).next(closeBusinessDayStep())
+                .end()
                 .build();
     }
 
+    @Bean
+    public WorkerModeDecider workerModeDecider() {
+        return new WorkerModeDecider(defaultWorkerMode);
+    }
+
     // ================= MASTER STEP =================
     @Bean
     public Step partitionStep() {
-        return new StepBuilder("partitionStep", jobRepository)
-                .partitioner("updateBalanceWorkerStep", rangePartitioner())
-                .step(updateBalanceWorkerStep())
-                .gridSize(8)
-                .taskExecutor(taskExecutor())
+        return partitionedStep("partitionStep", WorkerMode.TASKLET, updateBalanceWorkerStep());
+    }
+
+    @Bean
+    public Step chunkPartitionStep() {
+        return partitionedStep("chunkPartitionStep", WorkerMode.CHUNK, updateBalanceChunkWorkerStep());
+    }
+
+    @Bean
+    public Step fusedPartitionStep() {
+        return partitionedStep("fusedPartitionStep", WorkerMode.FUSED, updateBalanceFusedWorkerStep());
+    }
+
+    @Bean
+    public Step javaPartitionStep() {
+        return partitionedStep("javaPartitionStep", WorkerMode.JAVA, updateBalanceJavaWorkerStep());
+    }
+
+    // remote.enabled : partitions déposées dans eod_work_queue et exécutées par les workers de toutes les instances
+    // work-units > 0 : nombreuses petites unités distribuées par une file de travail à un nombre fixe de workers,
+    //                  le reste de la plage d'une unité retardataire étant redécoupé pour les workers libres
+    // sinon : gridSize partitions, chacune sur son propre thread virtuel
+    private Step partitionedStep(String name, WorkerMode mode, Step workerStep) {
+        PartitionStepBuilder builder = new StepBuilder(name, jobRepository)
+                .partitioner(mode.getWorkerStepName(), rangePartitioner(null, null, null));
+        if (remotePartitioning) {
+            return builder.partitionHandler(new DatabaseQueuePartitionHandler(mode.getWorkerStepName(), workQueueRepository,
+                    jobExplorer, Duration.ofMillis(remotePollIntervalMs), Duration.ofMinutes(remoteTimeoutMinutes),
+                    workUnits > 0 ? workUnits : gridSize)).build();
+        }
+        if (workUnits > 0) {
+            WorkQueuePartitionHandler handler = new WorkQueuePartitionHandler(workerStep, partitionTaskExecutor(mode),
+                    partitionConcurrencyLimiter().getMaxConcurrency(mode.getConnectionsPerPartition()), workUnits);
+            // Mode chunk : le curseur ne consulte pas le bail, sa plage ne peut pas être redécoupée
+            if (stragglerSplitting && mode.isRangeLeaseAware()) {
+                handler.enableStragglerSplitting(jobRepository, rangeLeaseRegistry(), new StragglerPolicy(
+                        stragglerSlownessFactor, stragglerMinCompletedUnits,
+                        Duration.ofMillis(stragglerCheckIntervalMs), stragglerMaxSplitDepth));
+            }
+            return builder.partitionHandler(handler).build();
+        }
+        return builder
+                .step(workerStep)
+                .gridSize(gridSize)
+                .taskExecutor(partitionTaskExecutor(mode))
                 .build();
     }
 
     // ================= WORKER STEP =================
     @Bean
     public Step updateBalanceWorkerStep() {
-        return new StepBuilder("updateBalanceWorkerStep", jobRepository)
-                .tasklet(updateBalanceTasklet(null, null), transactionManager)
+        return new StepBuilder(WorkerMode.TASKLET.getWorkerStepName(), jobRepository)
+                .tasklet(updateBalanceTasklet(null, null, null, null), transactionManager)
+                .build();
+    }
+
+    // ================= WORKER STEP (FUSED) =================
+    @Bean
+    public Step updateBalanceFusedWorkerStep() {
+        return new StepBuilder(WorkerMode.FUSED.getWorkerStepName(), jobRepository)
+                .tasklet(fusedBalanceTasklet(null, null, null, null), transactionManager)
+                .build();
+    }
+
+    // ================= WORKER STEP (JAVA) =================
+    @Bean
+    public Step updateBalanceJavaWorkerStep() {
+        return new StepBuilder(WorkerMode.JAVA.getWorkerStepName(), jobRepository)
+                .tasklet(javaBalanceTasklet(null, null, null, null), transactionManager)
+                .build();
+    }
+
+    // ================= WORKER STEP (CHUNK) =================
+    // Curseur sur les totaux agrégés + écriture JDBC batch : un commit tous les commit-interval comptes
+    @Bean
+    public Step updateBalanceChunkWorkerStep() {
+        return new StepBuilder(WorkerMode.CHUNK.getWorkerStepName(), jobRepository)
+                .<DailyTotal, DailyTotal>chunk(chunkCommitInterval, transactionManager)
+                .reader(dailyTotalReader(null, null, null, null, null))
+                .writer(dailyBalanceWriter())
+                .listener((ItemWriteListener<DailyTotal>) highWaterMarkListener())
+                .listener((StepExecutionListener) highWaterMarkListener())
                 .build();
     }
 
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<DailyTotal> dailyTotalReader(
+            @Value("#{stepExecutionContext['businessDate']}") String businessDate,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId,
+            @Value("#{stepExecutionContext['lastProcessedId']}") Long lastProcessedId,
+            @Value("#{stepExecutionContext['applyOnly']}") Boolean applyOnly) {
+
+        // Reprise après le dernier compte commité plutôt que rejouer le curseur depuis le début
+        long fromId = (lastProcessedId != null) ? lastProcessedId + 1 : minId;
+        LocalDate balanceDate = LocalDate.parse(businessDate);
+
+        return new JdbcCursorItemReaderBuilder<DailyTotal>()
+                .name("dailyTotalReader")
+                .dataSource(dataSource)
+                // Date agrégée en cours de journée : seuls les totaux non encore appliqués sont relus
+                .sql(Boolean.TRUE.equals(applyOnly) ? BalanceQuery.SELECT_UNAPPLIED_DAILY_TOTALS : BalanceQuery.SELECT_DAILY_TOTALS)
+                .preparedStatementSetter(ps -> {
+                    ps.setObject(1, balanceDate);
+                    ps.setLong(2, fromId);
+                    ps.setLong(3, maxId);
+                    if (!Boolean.TRUE.equals(applyOnly)) {
+                        // Lignes account_daily_balance existantes de la même plage (total revenu à 0)
+                        ps.setObject(4, balanceDate);
+                        ps.setLong(5, fromId);
+                        ps.setLong(6, maxId);
+                    }
+                })
+                .saveState(false)
+                // PostgreSQL ne respecte le fetchSize qu'en dehors de l'autocommit
+                .connectionAutoCommit(false)
+                .fetchSize(chunkFetchSize)
+                .rowMapper((rs, rowNum) -> new DailyTotal(rs.getLong("account_id"), balanceDate, rs.getBigDecimal("daily_total")))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public HighWaterMarkListener highWaterMarkListener() {
+        return new HighWaterMarkListener();
+    }
+
+    @Bean
+    public CompositeItemWriter<DailyTotal> dailyBalanceWriter() {
+        return new CompositeItemWriterBuilder<DailyTotal>()
+                .delegates(upsertDailyBalanceWriter(null), updateAccountBalanceWriter(null))
+                .build();
+    }
+
+    // Step scope : l'exécution courante est enregistrée dans le registre applied_job_execution_id
+    @Bean
+    @StepScope
+    public JdbcBatchItemWriter<DailyTotal> upsertDailyBalanceWriter(
+            @Value("#{stepExecution.jobExecutionId}") Long jobExecutionId) {
+        return new JdbcBatchItemWriterBuilder<DailyTotal>()
+                .dataSource(dataSource)
+                .sql(BalanceQuery.UPSERT_DAILY_BALANCE_ITEM)
+                .itemSqlParameterSourceProvider(item -> dailyTotalParams(item, jobExecutionId))
+                // Total inchangé depuis la dernière exécution : la ligne n'est pas réécrite
+                .assertUpdates(false)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public JdbcBatchItemWriter<DailyTotal> updateAccountBalanceWriter(
+            @Value("#{stepExecution.jobExecutionId}") Long jobExecutionId) {
+        return new JdbcBatchItemWriterBuilder<DailyTotal>()
+                .dataSource(dataSource)
+                .sql(BalanceQuery.UPDATE_ACCOUNT_BALANCE_ITEM)
+                .itemSqlParameterSourceProvider(item -> dailyTotalParams(item, jobExecutionId))
+                // Ligne déjà appliquée : aucun compte mis à jour
+                .assertUpdates(false)
+                .build();
+    }
+
+    private static MapSqlParameterSource dailyTotalParams(DailyTotal item, Long jobExecutionId) {
+        return new MapSqlParameterSource()
+                .addValue("accountId", item.accountId())
+                .addValue("balanceDate", item.balanceDate())
+                .addValue("dailyTotal", item.dailyTotal())
+                .addValue("jobExecutionId", jobExecutionId);
+    }
+
     // ================= PARTITIONER =================
+    // Une partition par (date métier × plage d'ids) : businessDate pour un jour, fromDate/toDate pour un rattrapage
+    // ACCOUNTS : bornes calculées à partir des identifiants réellement présents dans accounts
+    // VOLUME   : bornes pondérées par le nombre de transactions de la date par compte
     @Bean
-    public Partitioner rangePartitioner() {
-        return gridSize -> {
-            Map<String, ExecutionContext> result = new HashMap<>();
-            long minId = 1;
-            long maxId = 10_000_000;
-            int gridSizeInt = 8;
-            long targetSize = (maxId - minId) / gridSizeInt;
-
-            long start = minId;
-            long end;
-
-            for (int i = 0; i < gridSizeInt; i++) {
-                end = (i == gridSizeInt - 1) ? maxId : start + targetSize - 1;
-                ExecutionContext context = new ExecutionContext();
-                context.putLong("minId", start);
-                context.putLong("maxId", end);
-                result.put("partition" + i, context);
-                start = end + 1;
-            }
+    @StepScope
+    public Partitioner rangePartitioner(
+            @Value("#{jobParameters['businessDate']}") String businessDate,
+            @Value("#{jobParameters['fromDate']}") String fromDate,
+            @Value("#{jobParameters['toDate']}") String toDate) {
 
-            return result;
-        };
+        List<LocalDate> businessDates = BusinessDates.resolve(businessDate, fromDate, toDate, batchZone);
+
+        AccountRangePartitioner accountRangePartitioner = new AccountRangePartitioner(jdbcClient, businessDates);
+        IdRangePartitioner partitioner = partitioningMode == PartitioningMode.VOLUME
+                ? new TransactionVolumePartitioner(jdbcClient, accountRangePartitioner, volumeSamplePercent, businessDates)
+                : accountRangePartitioner;
+        // Dates clôturées par closeIntradayStep : totaux déjà à jour
+        partitioner.setApplyOnlyDates(new JdbcClientWrapper(jdbcClient)
+                .watermarkedDates(businessDates.get(0), businessDates.get(businessDates.size() - 1)));
+        return partitioner;
     }
 
     // ================= TASKLET =================
+    // Plage traitée par tranches commitées une à une, avec point de reprise dans l'ExecutionContext
     @Bean
     @StepScope
     public Tasklet updateBalanceTasklet(
+            @Value("#{stepExecutionContext['businessDate']}") String businessDate,
             @Value("#{stepExecutionContext['minId']}") Long minId,
-            @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+            @Value("#{stepExecutionContext['maxId']}") Long maxId,
+            @Value("#{stepExecutionContext['applyOnly']}") Boolean applyOnly) {
 
-        return (contribution, chunkContext) -> {
+        return new BalanceSliceTasklet(new JdbcClientWrapper(jdbcClient), LocalDate.parse(businessDate),
+                minId, maxId, sliceSize, false, rangeLeaseRegistry(), Duration.ofMillis(statementTimeoutMs),
+                Boolean.TRUE.equals(applyOnly));
+    }
 
-            Map<String, Object> params = new HashMap<>();
-            params.put("minId", minId);
-            params.put("maxId", maxId);
-
-            // ===============================
-            // 1️⃣ Insert ou update account_daily_balance uniquement si total des transactions > 0
-            // ===============================
-            String sqlUpsertDailyBalance = """
-                    INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed)
-                    SELECT t.account_id, CURRENT_DATE - INTERVAL '1 day', SUM(t.amount), TRUE
-                    FROM transactions t
-                    WHERE t.transaction_date >= CURRENT_DATE - INTERVAL '1 day'
-                          AND t.transaction_date < CURRENT_DATE
-                          AND t.status = 'VALIDATED'
-                          AND t.account_id BETWEEN :minId AND :maxId
-                    GROUP BY t.account_id
-                    HAVING SUM(t.amount) <> 0
-                    ON CONFLICT (account_id, balance_date)
-                    DO UPDATE SET daily_total = EXCLUDED.daily_total,
-                                  processed = TRUE
-                    """;
-
-            int dailyUpdated = jdbcClient.sql(sqlUpsertDailyBalance)
-                    .paramSource(params)
-                    .update();
-
-            System.out.println("Partition [" + minId + "-" + maxId + "] : account_daily_balance mis à jour = " + dailyUpdated);
-
-            // ===============================
-            // 2️⃣ Mettre à jour la balance du compte uniquement si daily_total > 0
-            // ===============================
-            String sqlUpdateAccountBalance = """
-                UPDATE accounts a
-                SET balance = a.balance + adb.daily_total
-                FROM account_daily_balance adb
-                WHERE a.id = adb.account_id
-                  AND adb.balance_date = CURRENT_DATE - INTERVAL '1 day'
-                  AND adb.daily_total <> 0
-                  AND a.id BETWEEN :minId AND :maxId
-                """;
-
-            int accountsUpdated = jdbcClient.sql(sqlUpdateAccountBalance)
-                    .paramSource(params)
-                    .update();
-
-            System.out.println("Partition [" + minId + "-" + maxId + "] : comptes mis à jour = " + accountsUpdated);
+    // Même découpage en tranches, mais une seule requête (agrégation + upsert + update) par tranche
+    @Bean
+    @StepScope
+    public Tasklet fusedBalanceTasklet(
+            @Value("#{stepExecutionContext['businessDate']}") String businessDate,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId,
+            @Value("#{stepExecutionContext['applyOnly']}") Boolean applyOnly) {
 
-            return RepeatStatus.FINISHED;
-        };
+        return new BalanceSliceTasklet(new JdbcClientWrapper(jdbcClient), LocalDate.parse(businessDate),
+                minId, maxId, sliceSize, true, rangeLeaseRegistry(), Duration.ofMillis(statementTimeoutMs),
+                Boolean.TRUE.equals(applyOnly));
+    }
+
+    // Mêmes tranches que updateBalanceTasklet, totaux calculés en Java à partir d'une lecture en streaming
+    @Bean
+    @StepScope
+    public Tasklet javaBalanceTasklet(
+            @Value("#{stepExecutionContext['businessDate']}") String businessDate,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId,
+            @Value("#{stepExecutionContext['applyOnly']}") Boolean applyOnly) {
+
+        BalanceSliceTasklet tasklet = new BalanceSliceTasklet(new JdbcClientWrapper(jdbcClient), LocalDate.parse(businessDate),
+                minId, maxId, sliceSize, false, rangeLeaseRegistry(), Duration.ofMillis(statementTimeoutMs),
+                Boolean.TRUE.equals(applyOnly));
+        tasklet.enableJavaAggregation(new JavaDailyTotalAggregator(dataSource, jdbcClient, javaFetchSize));
+        return tasklet;
+    }
+
+    // ================= CLÔTURE =================
+    @Bean
+    public Step closeBusinessDayStep() {
+        return new StepBuilder("closeBusinessDayStep", jobRepository)
+                .tasklet(closeBusinessDayTasklet(null, null, null), transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet closeBusinessDayTasklet(
+            @Value("#{jobParameters['businessDate']}") String businessDate,
+            @Value("#{jobParameters['fromDate']}") String fromDate,
+            @Value("#{jobParameters['toDate']}") String toDate) {
+
+        return new CloseBusinessDayTasklet(new JdbcClientWrapper(jdbcClient),
+                BusinessDates.resolve(businessDate, fromDate, toDate, batchZone));
+    }
+
+    // Pages en cache des dates traitées évincées, puis premières pages rechargées
+    @Bean
+    public DailySummaryCacheListener dailySummaryCacheListener(DailySummaryCache dailySummaryCache,
+                                                               AccountDailyBalanceService accountDailyBalanceService) {
+        return new DailySummaryCacheListener(dailySummaryCache, accountDailyBalanceService, batchZone,
+                summaryPrewarmPages, summaryPrewarmSize);
+    }
+
+    // Bornes hautes partagées entre la file de travail et les tasklets des unités en cours
+    @Bean
+    public RangeLeaseRegistry rangeLeaseRegistry() {
+        return new RangeLeaseRegistry();
     }
 
     // ================= THREAD POOL =================
+    // Lancement asynchrone des jobs (JobLauncher de @EnableBatchProcessing) : le scheduler et l'API rendent la main
     @Bean
     public TaskExecutor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(8);
-        executor.setMaxPoolSize(8);
-        executor.setThreadNamePrefix("batch-thread-");
-        executor.initialize();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-launcher-");
+        executor.setVirtualThreads(true);
         return executor;
     }
 
+    // Un thread virtuel par partition (partitions de eod_work_queue, limitées par EodWorkQueueWorker)
+    @Bean
+    public TaskExecutor partitionTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-partition-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    // Même exécuteur, le nombre de partitions actives étant plafonné par les connexions que le mode y consomme
+    TaskExecutor partitionTaskExecutor(WorkerMode mode) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-partition-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(partitionConcurrencyLimiter().forConnections(mode.getConnectionsPerPartition()));
+        return executor;
+    }
+
+    @Bean
+    public PartitionConcurrencyLimiter partitionConcurrencyLimiter() {
+        return new PartitionConcurrencyLimiter(PartitionConcurrencyLimiter.availableConnections(
+                hikariMaximumPoolSize, reservedConnections), maxConcurrentPartitions);
+    }
+
     // ================= TASKLET pour tests =================
     //@Bean
     public Tasklet updateBalanceTaskletForTest(Long minId, Long maxId, JdbcClientWrapper jdbcWrapper) {
         return (contribution, chunkContext) -> {
             Map<String, Object> params = Map.of(
+                    "businessDate", BusinessDates.yesterday(batchZone),
                     "minId", minId != null ? minId : 1L,
                     "maxId", maxId != null ? maxId : 10_000_000L
             );
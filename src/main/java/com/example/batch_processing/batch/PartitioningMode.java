@@ -0,0 +1,19 @@
+package com.example.batch_processing.batch;
+
+/**
+ * Enum PartitioningMode
+ * <p>
+ * Stratégie de calcul des bornes des partitions du job de fin de journée.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public enum PartitioningMode {
+
+    /** Même nombre de comptes par partition */
+    ACCOUNTS,
+
+    /** Même nombre de transactions VALIDATED à agréger par partition */
+    VOLUME
+}
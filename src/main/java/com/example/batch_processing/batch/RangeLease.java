@@ -0,0 +1,60 @@
+package com.example.batch_processing.batch;
+
+import java.util.Optional;
+
+/**
+ * Classe RangeLease
+ * <p>
+ * Borne haute partagée entre une partition en cours d'exécution et le gestionnaire de la file de
+ * travail. Le tasklet réserve chaque tranche via {@link #nextSliceEnd(long, long)} ; le gestionnaire
+ * peut à tout moment reprendre la fin de la plage non encore commencée ({@link #splitOffRemainder()}),
+ * ou, après l'échec d'une tranche, tout ce qui reste à partir d'un identifiant ({@link #releaseFrom(long)}).
+ * La tranche en cours n'est jamais retirée à la partition.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class RangeLease {
+
+    private long maxId;
+    private long inFlightEnd;
+
+    public RangeLease(long fromId, long maxId) {
+        this.maxId = maxId;
+        this.inFlightEnd = fromId - 1;
+    }
+
+    public synchronized long maxId() {
+        return maxId;
+    }
+
+    /**
+     * Réserve la tranche commençant à {@code sliceStart} et retourne sa borne haute
+     * (inférieure à {@code sliceStart} s'il ne reste plus rien à traiter).
+     */
+    public synchronized long nextSliceEnd(long sliceStart, long sliceSize) {
+        long sliceEnd = Math.min(maxId, sliceStart + sliceSize - 1);
+        inFlightEnd = Math.max(inFlightEnd, sliceEnd);
+        return sliceEnd;
+    }
+
+    /**
+     * Retire à la partition la partie de sa plage située après la tranche en cours.
+     */
+    public synchronized Optional<IdRange> splitOffRemainder() {
+        return releaseFrom(inFlightEnd + 1);
+    }
+
+    /**
+     * Retire à la partition tout ce qui reste à partir de {@code fromId}.
+     */
+    public synchronized Optional<IdRange> releaseFrom(long fromId) {
+        if (fromId > maxId) {
+            return Optional.empty();
+        }
+        IdRange released = new IdRange(fromId, maxId);
+        maxId = fromId - 1;
+        return Optional.of(released);
+    }
+}
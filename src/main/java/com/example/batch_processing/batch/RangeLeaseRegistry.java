@@ -0,0 +1,33 @@
+package com.example.batch_processing.batch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classe RangeLeaseRegistry
+ * <p>
+ * Baux de plage des partitions en cours, indexés par identifiant de StepExecution. Ouverts et
+ * fermés par le gestionnaire de la file de travail, consultés par le tasklet de la partition.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class RangeLeaseRegistry {
+
+    private final Map<Long, RangeLease> leases = new ConcurrentHashMap<>();
+
+    public RangeLease open(long stepExecutionId, long fromId, long maxId) {
+        return leases.computeIfAbsent(stepExecutionId, id -> new RangeLease(fromId, maxId));
+    }
+
+    public RangeLease get(Long stepExecutionId) {
+        return stepExecutionId == null ? null : leases.get(stepExecutionId);
+    }
+
+    public void close(Long stepExecutionId) {
+        if (stepExecutionId != null) {
+            leases.remove(stepExecutionId);
+        }
+    }
+}
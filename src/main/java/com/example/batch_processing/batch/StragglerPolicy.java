@@ -0,0 +1,23 @@
+package com.example.batch_processing.batch;
+
+import java.time.Duration;
+
+/**
+ * Classe StragglerPolicy
+ * <p>
+ * Critères de détection d'une partition retardataire : elle tourne depuis plus de
+ * {@code slownessFactor} fois la durée médiane des unités terminées (au moins
+ * {@code minCompletedUnits} pour que la médiane ait un sens). Le reste de sa plage est alors
+ * redécoupé, au plus {@code maxSplitDepth} fois à partir d'une même unité d'origine.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public record StragglerPolicy(double slownessFactor, int minCompletedUnits, Duration checkInterval, int maxSplitDepth) {
+
+    public boolean isStraggler(long elapsedMillis, long medianMillis, int completedUnits) {
+        return completedUnits >= minCompletedUnits
+                && elapsedMillis > Math.max(1, (long) (medianMillis * slownessFactor));
+    }
+}
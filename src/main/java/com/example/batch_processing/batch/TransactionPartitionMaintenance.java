@@ -0,0 +1,109 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.repo.TransactionPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Classe TransactionPartitionMaintenance
+ * <p>
+ * Maintenance des partitions journalières de transactions : au démarrage puis chaque nuit, crée les
+ * partitions des {@code days-ahead} prochains jours, puis celles des jours rangés entre-temps dans la
+ * partition par défaut (arrivées tardives, rattrapages), et détache celles plus anciennes que
+ * {@code retention-days}. Les partitions détachées restent des tables autonomes (archivage ou suppression
+ * à la main) ; le batch ne les lit plus.
+ * <p>
+ * Une seule instance effectue la maintenance (verrou consultatif PostgreSQL) : les autres passent leur tour.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Component
+@ConditionalOnProperty(prefix = "batch.partitioning", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TransactionPartitionMaintenance {
+
+    private final TransactionPartitionRepository partitionRepository;
+    private final ZoneId batchZone;
+    private final int daysAhead;
+    private final int retentionDays;
+
+    public TransactionPartitionMaintenance(TransactionPartitionRepository partitionRepository,
+                                           @Value("${batch.eod.zone:America/Toronto}") ZoneId batchZone,
+                                           @Value("${batch.partitioning.days-ahead:14}") int daysAhead,
+                                           @Value("${batch.partitioning.retention-days:0}") int retentionDays) {
+        this.partitionRepository = partitionRepository;
+        this.batchZone = batchZone;
+        this.daysAhead = Math.max(1, daysAhead);
+        this.retentionDays = retentionDays;
+    }
+
+    // ================= Scheduler =================
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${batch.partitioning.cron:0 30 0 * * *}", zone = "${batch.eod.zone:America/Toronto}")
+    public void maintain() {
+        LocalDate today = LocalDate.now(batchZone);
+        try {
+            boolean done = partitionRepository.runExclusively(() -> {
+                createUpcoming(today);
+                moveDefaultPartitionRows();
+                detachExpired(today);
+            });
+            if (!done) {
+                log.info("Maintenance des partitions de transactions en cours sur une autre instance");
+            }
+        } catch (Exception e) {
+            log.error("Erreur lors de la maintenance des partitions de transactions", e);
+        }
+    }
+
+    // ================= Partitions =================
+    void createUpcoming(LocalDate today) {
+        int created = partitionRepository.createPartitions(today, today.plusDays(daysAhead));
+        if (created > 0) {
+            log.info("{} partitions de transactions créées jusqu'au {}", created, today.plusDays(daysAhead));
+        }
+    }
+
+    // Une partition par jour présent dans la partition par défaut, ses lignes y sont déplacées
+    void moveDefaultPartitionRows() {
+        for (LocalDate date : partitionRepository.defaultPartitionDates()) {
+            try {
+                partitionRepository.createPartitions(date, date);
+                log.info("Partition de transactions du {} créée à partir de la partition par défaut", date);
+            } catch (Exception e) {
+                log.error("Transactions du {} non déplacées de la partition par défaut", date, e);
+            }
+        }
+    }
+
+    // retention-days <= 0 : aucune partition détachée
+    void detachExpired(LocalDate today) {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDate cutoff = today.minusDays(retentionDays);
+        for (String partition : partitionRepository.expiredPartitions(cutoff)) {
+            try {
+                partitionRepository.detach(partition);
+                log.info("Partition {} détachée de transactions (rétention {} jours)", partition, retentionDays);
+            } catch (Exception e) {
+                // Ex. détachement concurrent interrompu : à finaliser (DETACH PARTITION ... FINALIZE)
+                log.error("Partition {} non détachée", partition, e);
+            }
+        }
+    }
+}
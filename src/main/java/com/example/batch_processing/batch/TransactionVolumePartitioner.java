@@ -0,0 +1,214 @@
+package com.example.batch_processing.batch;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe TransactionVolumePartitioner
+ * <p>
+ * Partitionnement tenant compte du déséquilibre : les bornes sont calculées à partir du nombre
+ * de transactions VALIDATED de la date métier par compte, de sorte que chaque partition ait à peu près
+ * le même nombre de lignes à agréger, et non le même nombre d'ids.
+ * <p>
+ * L'histogramme est compté par tranches d'au plus {@value #MAX_BUCKETS} paquets de comptes contigus :
+ * sa taille ne dépend pas du nombre de comptes. Il est échantillonné (TABLESAMPLE SYSTEM) dans la seule
+ * partition journalière de la date (élagage sur transaction_date) ; un échantillon trop maigre, par exemple
+ * pour une date rangée dans la partition par défaut parmi d'autres jours, est remplacé par un comptage exact
+ * sur l'index couvrant.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TransactionVolumePartitioner extends IdRangePartitioner {
+
+    static final String SELECT_ACCOUNT_BOUNDS = """
+            SELECT MIN(a.id) AS min_id, MAX(a.id) AS max_id
+            FROM accounts a
+            """;
+
+    // Comptes regroupés par paquets de :bucketWidth ids à partir de :minId, chaque paquet borné par son plus grand compte ;
+    // le comptage par compte suit l'ordre de l'index couvrant, seuls les paquets sont regroupés en mémoire
+    static final String SELECT_VOLUME_HISTOGRAM = """
+            SELECT MAX(v.account_id) AS account_id, SUM(v.tx_count) AS tx_count
+            FROM (
+                SELECT t.account_id, COUNT(*) AS tx_count
+                FROM transactions t
+                WHERE t.transaction_date = :businessDate
+                      AND t.status = 'VALIDATED'
+                GROUP BY t.account_id
+                ORDER BY t.account_id
+            ) v
+            GROUP BY (v.account_id - :minId) / :bucketWidth
+            ORDER BY 1
+            """;
+
+    static final String SELECT_SAMPLED_VOLUME_HISTOGRAM = """
+            SELECT MAX(v.account_id) AS account_id, SUM(v.tx_count) AS tx_count
+            FROM (
+                SELECT t.account_id, COUNT(*) AS tx_count
+                FROM transactions t TABLESAMPLE SYSTEM (:samplePercent)
+                WHERE t.transaction_date = :businessDate
+                      AND t.status = 'VALIDATED'
+                GROUP BY t.account_id
+                ORDER BY t.account_id
+            ) v
+            GROUP BY (v.account_id - :minId) / :bucketWidth
+            ORDER BY 1
+            """;
+
+    static final int MAX_BUCKETS = 10_000;
+
+    // En deçà, l'échantillon est trop maigre pour des bornes fiables : comptage exact
+    static final long MIN_SAMPLED_TRANSACTIONS = 10_000;
+
+    /**
+     * Poids (nombre de transactions, éventuellement échantillonnées) d'un paquet de comptes, borné par son
+     * plus grand compte {@code accountId}.
+     */
+    record AccountVolume(long accountId, long weight) {
+    }
+
+    /**
+     * Histogramme trié par accountId avec ses sommes cumulées : poids d'une plage en O(log n).
+     */
+    static final class VolumeHistogram {
+
+        private final long[] accountIds;
+        // cumulative[i] = poids des comptes d'indice < i
+        private final long[] cumulative;
+
+        VolumeHistogram(List<AccountVolume> histogram) {
+            accountIds = new long[histogram.size()];
+            cumulative = new long[histogram.size() + 1];
+            for (int i = 0; i < histogram.size(); i++) {
+                accountIds[i] = histogram.get(i).accountId();
+                cumulative[i + 1] = cumulative[i] + histogram.get(i).weight();
+            }
+        }
+
+        long weight(long minId, long maxId) {
+            return cumulative[firstIndexAbove(maxId)] - cumulative[firstIndexAbove(minId - 1)];
+        }
+
+        // Indice du premier compte strictement supérieur à accountId
+        private int firstIndexAbove(long accountId) {
+            int index = Arrays.binarySearch(accountIds, accountId);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+    }
+
+    private final JdbcClient jdbcClient;
+    private final IdRangePartitioner fallback;
+    private final double samplePercent;
+
+    // Histogrammes conservés pour estimer le poids de chaque plage produite
+    private final Map<LocalDate, VolumeHistogram> histograms = new HashMap<>();
+
+    public TransactionVolumePartitioner(JdbcClient jdbcClient, IdRangePartitioner fallback, double samplePercent,
+                                        List<LocalDate> businessDates) {
+        super(businessDates);
+        if (!(samplePercent > 0 && samplePercent <= 100)) {
+            throw new IllegalArgumentException("batch.eod.volume-sample-percent doit être dans ]0, 100] : " + samplePercent);
+        }
+        this.jdbcClient = jdbcClient;
+        this.fallback = fallback;
+        this.samplePercent = samplePercent;
+    }
+
+    @Override
+    protected List<IdRange> split(LocalDate businessDate, int gridSize) {
+        IdRange bounds = loadAccountBounds();
+        List<AccountVolume> histogram = bounds == null ? List.of() : loadHistogram(businessDate, bounds);
+
+        // Aucune transaction échantillonnée : on retombe sur le découpage par comptes
+        if (histogram.isEmpty()) {
+            return fallback.split(businessDate, gridSize);
+        }
+        histograms.put(businessDate, new VolumeHistogram(histogram));
+        return weightedRanges(histogram, gridSize, bounds.minId(), bounds.maxId());
+    }
+
+    @Override
+    protected long weight(LocalDate businessDate, IdRange range) {
+        VolumeHistogram histogram = histograms.get(businessDate);
+        if (histogram == null) {
+            return super.weight(businessDate, range);
+        }
+        return histogram.weight(range.minId(), range.maxId());
+    }
+
+    protected IdRange loadAccountBounds() {
+        return jdbcClient.sql(SELECT_ACCOUNT_BOUNDS)
+                .query((rs, rowNum) -> {
+                    long maxId = rs.getLong("max_id");
+                    return rs.wasNull() ? null : new IdRange(rs.getLong("min_id"), maxId);
+                })
+                .optional()
+                .orElse(null);
+    }
+
+    protected List<AccountVolume> loadHistogram(LocalDate businessDate, IdRange bounds) {
+        long bucketWidth = bucketWidth(bounds);
+        if (samplePercent < 100) {
+            List<AccountVolume> sampled = queryHistogram(SELECT_SAMPLED_VOLUME_HISTOGRAM, businessDate, bounds, bucketWidth);
+            if (sampled.stream().mapToLong(AccountVolume::weight).sum() >= MIN_SAMPLED_TRANSACTIONS) {
+                return sampled;
+            }
+        }
+        return queryHistogram(SELECT_VOLUME_HISTOGRAM, businessDate, bounds, bucketWidth);
+    }
+
+    private List<AccountVolume> queryHistogram(String sql, LocalDate businessDate, IdRange bounds, long bucketWidth) {
+        return jdbcClient.sql(sql)
+                .param("businessDate", businessDate)
+                .param("minId", bounds.minId())
+                .param("bucketWidth", bucketWidth)
+                .param("samplePercent", samplePercent)
+                .query((rs, rowNum) -> new AccountVolume(rs.getLong("account_id"), rs.getLong("tx_count")))
+                .list();
+    }
+
+    // Largeur d'un paquet de comptes : au plus MAX_BUCKETS paquets sur [minId, maxId]
+    static long bucketWidth(IdRange bounds) {
+        return Math.max(1, (bounds.size() + MAX_BUCKETS - 1) / MAX_BUCKETS);
+    }
+
+    /**
+     * Découpe [minId, maxId] en au plus {@code gridSize} plages contiguës de poids comparable.
+     * La cible est recalculée après chaque coupe (poids restant / partitions restantes), ce qui
+     * évite qu'un compte très lourd ne déséquilibre toutes les partitions suivantes.
+     *
+     * @param histogram volumes triés par accountId croissant
+     */
+    static List<IdRange> weightedRanges(List<AccountVolume> histogram, int gridSize, long minId, long maxId) {
+        List<IdRange> ranges = new ArrayList<>(gridSize);
+
+        long remainingWeight = histogram.stream().mapToLong(AccountVolume::weight).sum();
+        int remainingParts = gridSize;
+        long accumulated = 0;
+        long start = minId;
+
+        for (AccountVolume volume : histogram) {
+            if (remainingParts == 1) {
+                break;
+            }
+            accumulated += volume.weight();
+            if (accumulated * remainingParts >= remainingWeight && volume.accountId() < maxId) {
+                ranges.add(new IdRange(start, volume.accountId()));
+                start = volume.accountId() + 1;
+                remainingWeight -= accumulated;
+                accumulated = 0;
+                remainingParts--;
+            }
+        }
+        ranges.add(new IdRange(start, maxId));
+        return ranges;
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.batch_processing.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobInterruptedException;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.partition.support.AbstractPartitionHandler;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepHolder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe WorkQueuePartitionHandler
+ * <p>
+ * Exécution des partitions par file de travail : le partitionneur découpe l'espace d'identifiants
+ * en nombreuses petites unités ({@code batch.eod.work-units}), placées dans une file partagée
+ * (les plus lourdes d'abord, selon la clé {@code weight} de leur ExecutionContext). Un nombre fixe
+ * de workers prend l'unité suivante dès qu'il est libre : une plage lente n'immobilise plus qu'un
+ * worker, les autres continuent à vider la file. La durée de chaque unité est journalisée, ainsi
+ * qu'une synthèse (min / médiane / max) à la fin du step.
+ * <p>
+ * Avec une {@link StragglerPolicy}, le gestionnaire surveille aussi les unités en cours : quand la
+ * file est vide, qu'un worker est libre et qu'une unité dépasse nettement la durée médiane, la
+ * partie de sa plage non commencée lui est retirée (via son {@link RangeLease}) et redécoupée en
+ * nouvelles unités pour les workers libres. Une unité dont une requête est annulée par
+ * {@code statement_timeout} rend de même tout ce qui lui reste. Les nouvelles unités sont
+ * enregistrées dans le JobRepository ; l'unité d'origine n'est considérée terminée que si toutes
+ * ses sous-unités le sont, sinon elle reste en échec et un redémarrage reprend sa plage complète
+ * après son dernier point de reprise (sans double comptage grâce au registre applied_*).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Slf4j
+public class WorkQueuePartitionHandler extends AbstractPartitionHandler implements StepHolder {
+
+    public static final String WEIGHT = "weight";
+    public static final String SPLIT_DEPTH = "splitDepth";
+    public static final String SPLIT_FROM = "splitFrom";
+
+    private static final long POLL_MILLIS = 100;
+
+    // Requête annulée par statement_timeout (57014) ou verrou non obtenu (55P03)
+    private static final Set<String> TAKE_BACK_SQL_STATES = Set.of("57014", "55P03");
+
+    private final Step step;
+    private final TaskExecutor taskExecutor;
+    private final int workers;
+
+    private JobRepository jobRepository;
+    private RangeLeaseRegistry leases;
+    private StragglerPolicy stragglerPolicy;
+
+    public WorkQueuePartitionHandler(Step step, TaskExecutor taskExecutor, int workers, int workUnits) {
+        this.step = step;
+        this.taskExecutor = taskExecutor;
+        this.workers = Math.max(1, workers);
+        setGridSize(workUnits);
+    }
+
+    /**
+     * Active la détection des retardataires et le redécoupage du reste de leur plage. Sans effet pour le
+     * step du mode chunk : son curseur ne consulte pas le bail, la plage retirée serait lue deux fois.
+     */
+    public void enableStragglerSplitting(JobRepository jobRepository, RangeLeaseRegistry leases,
+                                         StragglerPolicy stragglerPolicy) {
+        if (!WorkerMode.ofWorkerStep(step.getName()).isRangeLeaseAware()) {
+            log.info("Step {} : plages non bornées par un bail, redécoupage des retardataires désactivé", step.getName());
+            return;
+        }
+        this.jobRepository = jobRepository;
+        this.leases = leases;
+        this.stragglerPolicy = stragglerPolicy;
+    }
+
+    private boolean splittingEnabled() {
+        return stragglerPolicy != null;
+    }
+
+    @Override
+    public Step getStep() {
+        return step;
+    }
+
+    @Override
+    protected Set<StepExecution> doHandle(StepExecution managerStepExecution,
+                                          Set<StepExecution> partitionStepExecutions) throws Exception {
+        WorkQueue work = new WorkQueue(partitionStepExecutions);
+        int workerCount = Math.min(workers, partitionStepExecutions.size());
+
+        List<FutureTask<Void>> tasks = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            FutureTask<Void> task = new FutureTask<>(() -> drain(work), null);
+            tasks.add(task);
+            taskExecutor.execute(task);
+        }
+        if (splittingEnabled()) {
+            monitor(work, workerCount);
+        }
+        for (FutureTask<Void> task : tasks) {
+            task.get();
+        }
+        if (splittingEnabled()) {
+            settleSplitUnits(work);
+        }
+
+        logSummary(managerStepExecution, work.units, workerCount);
+        return work.units;
+    }
+
+    static List<StepExecution> heaviestFirst(Set<StepExecution> stepExecutions) {
+        return stepExecutions.stream()
+                .sorted(Comparator.comparingLong(WorkQueuePartitionHandler::weight).reversed()
+                        .thenComparing(StepExecution::getStepName))
+                .toList();
+    }
+
+    private static long weight(StepExecution stepExecution) {
+        return stepExecution.getExecutionContext().getLong(WEIGHT, 0L);
+    }
+
+    // ================= WORKERS =================
+    private void drain(WorkQueue work) {
+        while (true) {
+            StepExecution unit;
+            try {
+                unit = work.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (unit == null) {
+                // Sans redécoupage, la file ne se remplit plus : inutile d'attendre les autres unités
+                if (work.pending.get() == 0 || !splittingEnabled()) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                execute(work, unit);
+            } finally {
+                work.pending.decrementAndGet();
+            }
+        }
+    }
+
+    private void execute(WorkQueue work, StepExecution unit) {
+        if (splittingEnabled()) {
+            ExecutionContext context = unit.getExecutionContext();
+            long fromId = context.containsKey(BalanceSliceTasklet.LAST_PROCESSED_ID)
+                    ? context.getLong(BalanceSliceTasklet.LAST_PROCESSED_ID) + 1
+                    : context.getLong(IdRangePartitioner.MIN_ID);
+            leases.open(unit.getId(), fromId, context.getLong(IdRangePartitioner.MAX_ID));
+        }
+        work.running.add(unit);
+        try {
+            step.execute(unit);
+        } catch (JobInterruptedException e) {
+            unit.setStatus(BatchStatus.STOPPED);
+            unit.addFailureException(e);
+        } catch (Exception e) {
+            unit.setStatus(BatchStatus.FAILED);
+            unit.addFailureException(e);
+        } finally {
+            work.running.remove(unit);
+        }
+
+        if (splittingEnabled()) {
+            if (unit.getStatus() == BatchStatus.FAILED && isTakeBackFailure(unit)) {
+                takeBack(work, unit);
+            }
+            leases.close(unit.getId());
+        }
+        if (unit.getStatus() == BatchStatus.COMPLETED) {
+            work.completedDurations.add(durationMillis(unit));
+        }
+
+        log.info("Unité {} [{}-{}] ({}) : {} en {} ms",
+                unit.getStepName(),
+                unit.getExecutionContext().get(IdRangePartitioner.MIN_ID),
+                unit.getExecutionContext().get(IdRangePartitioner.MAX_ID),
+                unit.getExecutionContext().get(BusinessDates.BUSINESS_DATE),
+                unit.getStatus(), durationMillis(unit));
+    }
+
+    // ================= RETARDATAIRES =================
+    private void monitor(WorkQueue work, int workerCount) throws InterruptedException {
+        while (work.pending.get() > 0) {
+            Thread.sleep(stragglerPolicy.checkInterval().toMillis());
+
+            int idleWorkers = workerCount - work.running.size();
+            if (!work.queue.isEmpty() || idleWorkers <= 0) {
+                continue;
+            }
+            long median = work.medianCompletedMillis();
+            int completed = work.completedDurations.size();
+
+            work.running.stream()
+                    .filter(unit -> splitDepth(unit) < stragglerPolicy.maxSplitDepth())
+                    .filter(unit -> stragglerPolicy.isStraggler(elapsedMillis(unit), median, completed))
+                    .max(Comparator.comparingLong(WorkQueuePartitionHandler::elapsedMillis))
+                    .ifPresent(straggler -> {
+                        RangeLease lease = leases.get(straggler.getId());
+                        Optional<IdRange> remainder = lease == null ? Optional.empty() : lease.splitOffRemainder();
+                        remainder.ifPresent(range -> {
+                            log.warn("Unité {} retardataire ({} ms, médiane {} ms) : reste [{}-{}] redécoupé pour {} workers libres",
+                                    straggler.getStepName(), elapsedMillis(straggler), median,
+                                    range.minId(), range.maxId(), idleWorkers);
+                            enqueueSplit(work, straggler, range, idleWorkers);
+                        });
+                    });
+        }
+    }
+
+    private void takeBack(WorkQueue work, StepExecution unit) {
+        if (splitDepth(unit) >= stragglerPolicy.maxSplitDepth()) {
+            return;
+        }
+        ExecutionContext context = unit.getExecutionContext();
+        long fromId = context.containsKey(BalanceSliceTasklet.LAST_PROCESSED_ID)
+                ? context.getLong(BalanceSliceTasklet.LAST_PROCESSED_ID) + 1
+                : context.getLong(IdRangePartitioner.MIN_ID);
+        RangeLease lease = leases.get(unit.getId());
+        if (lease == null) {
+            return;
+        }
+        lease.releaseFrom(fromId).ifPresent(range -> {
+            log.warn("Unité {} interrompue par timeout : reste [{}-{}] remis dans la file",
+                    unit.getStepName(), range.minId(), range.maxId());
+            work.takenBack.add(unit);
+            enqueueSplit(work, unit, range, Math.max(2, workers - work.running.size()));
+        });
+    }
+
+    private void enqueueSplit(WorkQueue work, StepExecution donor, IdRange remainder, int pieces) {
+        ExecutionContext donorContext = donor.getExecutionContext();
+        long donorSize = donorContext.getLong(IdRangePartitioner.MAX_ID) - donorContext.getLong(IdRangePartitioner.MIN_ID) + 1;
+        List<StepExecution> children = work.children.computeIfAbsent(donor, d -> new ArrayList<>());
+
+        for (IdRange range : remainder.split(pieces)) {
+            StepExecution child;
+            synchronized (children) {
+                child = donor.getJobExecution().createStepExecution(donor.getStepName() + "." + (children.size() + 1));
+                children.add(child);
+            }
+            ExecutionContext context = child.getExecutionContext();
+            context.put(BusinessDates.BUSINESS_DATE, donorContext.get(BusinessDates.BUSINESS_DATE));
+            context.putLong(IdRangePartitioner.MIN_ID, range.minId());
+            context.putLong(IdRangePartitioner.MAX_ID, range.maxId());
+            if (donorContext.containsKey(IdRangePartitioner.APPLY_ONLY)) {
+                context.put(IdRangePartitioner.APPLY_ONLY, donorContext.get(IdRangePartitioner.APPLY_ONLY));
+            }
+            context.putLong(WEIGHT, weight(donor) * range.size() / Math.max(1, donorSize));
+            context.putInt(SPLIT_DEPTH, splitDepth(donor) + 1);
+            context.putString(SPLIT_FROM, donor.getStepName());
+            jobRepository.add(child);
+
+            work.units.add(child);
+            work.pending.incrementAndGet();
+            work.queue.add(child);
+        }
+    }
+
+    /**
+     * Statut final des unités dont la plage a été redécoupée : terminée si elle-même (ou son
+     * reste, rendu après timeout) et toutes ses sous-unités le sont, en échec sinon.
+     */
+    private void settleSplitUnits(WorkQueue work) {
+        work.units.stream()
+                .filter(unit -> !unit.getExecutionContext().containsKey(SPLIT_FROM))
+                .filter(work.children::containsKey)
+                .forEach(unit -> settle(work, unit));
+    }
+
+    private boolean settle(WorkQueue work, StepExecution unit) {
+        List<StepExecution> children = work.children.get(unit);
+        if (children == null) {
+            return unit.getStatus() == BatchStatus.COMPLETED;
+        }
+        boolean childrenCompleted = true;
+        for (StepExecution child : children) {
+            childrenCompleted &= settle(work, child);
+        }
+        boolean ownPartDone = unit.getStatus() == BatchStatus.COMPLETED || work.takenBack.contains(unit);
+
+        if (childrenCompleted && ownPartDone) {
+            if (unit.getStatus() != BatchStatus.COMPLETED) {
+                unit.setStatus(BatchStatus.COMPLETED);
+                unit.setExitStatus(ExitStatus.COMPLETED.addExitDescription(
+                        "Reste de la plage rendu après timeout et traité par " + children.size() + " sous-unités"));
+                // Le timeout est absorbé : il ne doit pas remonter comme échec du job
+                unit.getFailureExceptions().clear();
+                jobRepository.update(unit);
+            }
+            return true;
+        }
+        if (unit.getStatus() == BatchStatus.COMPLETED) {
+            unit.setStatus(BatchStatus.FAILED);
+            unit.setExitStatus(ExitStatus.FAILED.addExitDescription(
+                    "Sous-unité en échec : la plage sera reprise au redémarrage"));
+            jobRepository.update(unit);
+        }
+        return false;
+    }
+
+    static boolean isTakeBackFailure(StepExecution unit) {
+        for (Throwable failure : unit.getFailureExceptions()) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof QueryTimeoutException || cause instanceof PessimisticLockingFailureException) {
+                    return true;
+                }
+                if (cause instanceof SQLException sqlException && TAKE_BACK_SQL_STATES.contains(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int splitDepth(StepExecution unit) {
+        return unit.getExecutionContext().getInt(SPLIT_DEPTH, 0);
+    }
+
+    // ================= DUREES =================
+    private void logSummary(StepExecution managerStepExecution, Set<StepExecution> units, int workerCount) {
+        if (units.isEmpty()) {
+            return;
+        }
+        List<Long> durations = units.stream().map(WorkQueuePartitionHandler::durationMillis).sorted().toList();
+        StepExecution slowest = units.stream()
+                .max(Comparator.comparingLong(WorkQueuePartitionHandler::durationMillis))
+                .orElseThrow();
+
+        log.info("{} : {} unités sur {} workers, durée min / médiane / max = {} / {} / {} ms, unité la plus lente = {}",
+                managerStepExecution.getStepName(), units.size(), workerCount,
+                durations.get(0), durations.get(durations.size() / 2), durations.get(durations.size() - 1),
+                slowest.getStepName());
+    }
+
+    static long durationMillis(StepExecution stepExecution) {
+        if (stepExecution.getStartTime() == null || stepExecution.getEndTime() == null) {
+            return 0;
+        }
+        return Duration.between(stepExecution.getStartTime(), stepExecution.getEndTime()).toMillis();
+    }
+
+    private static long elapsedMillis(StepExecution stepExecution) {
+        LocalDateTime startTime = stepExecution.getStartTime();
+        return startTime == null ? 0 : Duration.between(startTime, LocalDateTime.now()).toMillis();
+    }
+
+    /**
+     * État partagé d'une exécution : file, unités en cours et terminées, sous-unités par unité d'origine.
+     */
+    private static final class WorkQueue {
+
+        private final BlockingQueue<StepExecution> queue;
+        private final Set<StepExecution> units = ConcurrentHashMap.newKeySet();
+        private final Set<StepExecution> running = ConcurrentHashMap.newKeySet();
+        private final Set<StepExecution> takenBack = ConcurrentHashMap.newKeySet();
+        private final Map<StepExecution, List<StepExecution>> children = new ConcurrentHashMap<>();
+        private final List<Long> completedDurations = new CopyOnWriteArrayList<>();
+        private final AtomicInteger pending;
+
+        private WorkQueue(Set<StepExecution> partitionStepExecutions) {
+            this.queue = new LinkedBlockingQueue<>(heaviestFirst(partitionStepExecutions));
+            this.units.addAll(partitionStepExecutions);
+            this.pending = new AtomicInteger(partitionStepExecutions.size());
+        }
+
+        private long medianCompletedMillis() {
+            List<Long> sorted = completedDurations.stream().sorted().toList();
+            return sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2);
+        }
+    }
+}
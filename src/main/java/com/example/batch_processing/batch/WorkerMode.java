@@ -0,0 +1,65 @@
+package com.example.batch_processing.batch;
+
+/**
+ * Enum WorkerMode
+ * <p>
+ * Implémentation du worker de partition, sélectionnée à chaque exécution
+ * via le paramètre de job {@code workerMode}.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public enum WorkerMode {
+
+    /** INSERT…SELECT puis UPDATE ensemblistes par partition */
+    TASKLET("updateBalanceWorkerStep", 1, true),
+
+    /** Lecture par curseur des totaux agrégés et écriture JDBC batch par commit-interval */
+    CHUNK("updateBalanceChunkWorkerStep", 2, false),
+
+    /** Une seule requête par tranche : agrégation unique alimentant account_daily_balance et accounts */
+    FUSED("updateBalanceFusedWorkerStep", 1, true),
+
+    /** Mêmes tranches que TASKLET, mais totaux calculés en Java (centimes long) et chargés par COPY */
+    JAVA("updateBalanceJavaWorkerStep", 1, true);
+
+    private final String workerStepName;
+
+    // Connexions ouvertes simultanément par une partition (le curseur du mode chunk a la sienne)
+    private final int connectionsPerPartition;
+
+    // Tranches bornées par le RangeLease de l'unité (BalanceSliceTasklet) : le curseur du mode chunk lit
+    // toute sa plage d'un coup, sa fin ne peut pas lui être retirée
+    private final boolean rangeLeaseAware;
+
+    WorkerMode(String workerStepName, int connectionsPerPartition, boolean rangeLeaseAware) {
+        this.workerStepName = workerStepName;
+        this.connectionsPerPartition = connectionsPerPartition;
+        this.rangeLeaseAware = rangeLeaseAware;
+    }
+
+    public String getWorkerStepName() {
+        return workerStepName;
+    }
+
+    public int getConnectionsPerPartition() {
+        return connectionsPerPartition;
+    }
+
+    public boolean isRangeLeaseAware() {
+        return rangeLeaseAware;
+    }
+
+    /**
+     * Mode dont le step worker porte ce nom (partitions de eod_work_queue), TASKLET par défaut.
+     */
+    public static WorkerMode ofWorkerStep(String workerStepName) {
+        for (WorkerMode mode : values()) {
+            if (mode.workerStepName.equals(workerStepName)) {
+                return mode;
+            }
+        }
+        return TASKLET;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.batch_processing.batch;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+
+/**
+ * Classe WorkerModeDecider
+ * <p>
+ * Oriente le job vers le step partitionné correspondant au paramètre {@code workerMode}
+ * (valeur par défaut issue de la configuration).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class WorkerModeDecider implements JobExecutionDecider {
+
+    public static final String WORKER_MODE_PARAM = "workerMode";
+
+    private final WorkerMode defaultMode;
+
+    public WorkerModeDecider(WorkerMode defaultMode) {
+        this.defaultMode = defaultMode;
+    }
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        return new FlowExecutionStatus(resolve(jobExecution.getJobParameters().getString(WORKER_MODE_PARAM)).name());
+    }
+
+    WorkerMode resolve(String requested) {
+        return (requested == null || requested.isBlank())
+                ? defaultMode
+                : WorkerMode.valueOf(requested.trim().toUpperCase());
+    }
+}
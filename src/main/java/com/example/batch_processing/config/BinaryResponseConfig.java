@@ -0,0 +1,47 @@
+package com.example.batch_processing.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Classe BinaryResponseConfig
+ * <p>
+ * Formats binaires des réponses de l'API pour les services internes, choisis par l'en-tête Accept :
+ * {@code application/cbor} ou {@code application/x-jackson-smile}, JSON restant le format par défaut.
+ * Les convertisseurs ajoutés d'office par Spring MVC utilisent un ObjectMapper non configuré (dates en
+ * tableaux, sans AccountDailySummarySerializer) : ils sont remplacés par des mappers construits comme
+ * celui du JSON, pour que les trois formats portent le même contenu.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Configuration
+public class BinaryResponseConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> jacksonBuilder;
+
+    public BinaryResponseConfig(ObjectProvider<Jackson2ObjectMapperBuilder> jacksonBuilder) {
+        this.jacksonBuilder = jacksonBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        // En fin de liste : Accept */* (ou absent) reste servi en JSON
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                jacksonBuilder.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                jacksonBuilder.getObject().factory(new SmileFactory()).build()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.batch_processing.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Classe AccountDailySummarySerializer
+ * <p>
+ * Écriture JSON d'un compte du résumé journalier, champ par champ : ni introspection du bean ni
+ * accesseur appelé par réflexion à chaque ligne. Les lignes peuvent aussi être écrites directement
+ * depuis le ResultSet (export), sans AccountDailySummaryDTO intermédiaire ; les champs et leur ordre
+ * sont les mêmes dans les deux cas.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@JsonComponent
+public class AccountDailySummarySerializer extends StdSerializer<AccountDailySummaryDTO> {
+
+    public AccountDailySummarySerializer() {
+        super(AccountDailySummaryDTO.class);
+    }
+
+    @Override
+    public void serialize(AccountDailySummaryDTO summary, JsonGenerator json, SerializerProvider provider) throws IOException {
+        json.writeStartObject();
+        if (summary.getAccountId() != null) {
+            json.writeNumberField("accountId", summary.getAccountId());
+        } else {
+            json.writeNullField("accountId");
+        }
+        json.writeStringField("customerName", summary.getCustomerName());
+        json.writeNumberField("currentBalance", summary.getCurrentBalance());
+        json.writeStringField("balanceDate", summary.getBalanceDate() != null ? summary.getBalanceDate().toString() : null);
+        json.writeNumberField("totalTransactions", summary.getTotalTransactions());
+        json.writeNumberField("dailyTotal", summary.getDailyTotal());
+        if (summary.getDailyProcessed() != null) {
+            json.writeBooleanField("dailyProcessed", summary.getDailyProcessed());
+        } else {
+            json.writeNullField("dailyProcessed");
+        }
+        json.writeEndObject();
+    }
+
+    /**
+     * Écrit la ligne courante d'une requête du résumé journalier (colonnes de AccountQuery, dans leur ordre).
+     */
+    public static void write(JsonGenerator json, ResultSet rs) throws SQLException, IOException {
+        write(json, rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getString(4),
+                rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getBoolean(7));
+    }
+
+    public static void write(JsonGenerator json, long accountId, String customerName, BigDecimal currentBalance,
+                             String balanceDate, BigDecimal totalTransactions, BigDecimal dailyTotal,
+                             boolean dailyProcessed) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("accountId", accountId);
+        json.writeStringField("customerName", customerName);
+        json.writeNumberField("currentBalance", currentBalance);
+        json.writeStringField("balanceDate", balanceDate);
+        json.writeNumberField("totalTransactions", totalTransactions);
+        json.writeNumberField("dailyTotal", dailyTotal);
+        json.writeBooleanField("dailyProcessed", dailyProcessed);
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.batch_processing.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Classe BusinessDayVersion
+ * <p>
+ * Version du résumé d'une date clôturée, lue dans business_day_close : version de la date (incrémentée
+ * à chaque clôture, rafraîchissement ou correction), dernière exécution de clôture et date de la dernière
+ * écriture d'un job sur une date clôturée. Cette dernière compte aussi : le solde courant des comptes,
+ * présent dans le résumé de chaque date, change à chaque fin de journée ou correction.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public record BusinessDayVersion(LocalDate balanceDate, long version, Long jobExecutionId, Instant lastModified) {
+
+    /**
+     * ETag faible d'une page du résumé de la date ({@code page} : paramètres qui identifient la page).
+     * Faible : le même contenu est servi en JSON, CBOR ou Smile.
+     */
+    public String etag(String page) {
+        return "W/\"" + balanceDate + "." + version + "." + jobExecutionId + "." + lastModified.toEpochMilli()
+                + "." + page + "\"";
+    }
+}
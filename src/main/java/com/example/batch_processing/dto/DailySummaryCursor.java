@@ -0,0 +1,43 @@
+package com.example.batch_processing.dto;
+
+import com.example.batch_processing.exception.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Classe DailySummaryCursor
+ * <p>
+ * Jeton opaque de pagination du résumé journalier : date consultée et dernier compte renvoyé.
+ * La date est portée par le jeton pour qu'un parcours complet reste sur le même jour, même s'il
+ * franchit minuit (la date par défaut est la veille).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public record DailySummaryCursor(LocalDate balanceDate, long afterAccountId) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        return ENCODER.encodeToString((balanceDate + ":" + afterAccountId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static DailySummaryCursor decode(String token) {
+        try {
+            String value = new String(DECODER.decode(token), StandardCharsets.US_ASCII);
+            int separator = value.indexOf(':');
+            long afterAccountId = Long.parseLong(value.substring(separator + 1));
+            if (separator < 0 || afterAccountId < 0) {
+                throw new IllegalArgumentException(value);
+            }
+            return new DailySummaryCursor(LocalDate.parse(value.substring(0, separator)), afterAccountId);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ApiException("Curseur de pagination invalide : " + token);
+        }
+    }
+}
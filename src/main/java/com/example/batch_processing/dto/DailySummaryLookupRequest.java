@@ -0,0 +1,15 @@
+package com.example.batch_processing.dto;
+
+import java.util.List;
+
+/**
+ * Classe DailySummaryLookupRequest
+ * <p>
+ * Corps de POST /api/accounts/daily-summary/lookup : comptes recherchés et date (par défaut la veille).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public record DailySummaryLookupRequest(String date, List<Long> accountIds) {
+}
@@ -1,6 +1,7 @@
 package com.example.batch_processing.exception;
 
 import com.example.batch_processing.domain.Response;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -36,4 +37,38 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.badRequest().body(response);
     }
-}
\ No newline at end of file
+
+    // Erreurs fonctionnelles levées par les services / contrôleurs
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<Response> handleApiException(ApiException ex) {
+
+        Response response = Response.builder()
+                .time(LocalDateTime.now().toString())
+                .code(HttpStatus.BAD_REQUEST.value())
+                .status(HttpStatus.BAD_REQUEST)
+                .message(ex.getMessage())
+                .exception(ex.getClass().getSimpleName())
+                .data(Map.of())
+                .build();
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    // Ressource saturée : le client réessaie après le délai indiqué
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Response> handleServiceBusy(ServiceBusyException ex) {
+
+        Response response = Response.builder()
+                .time(LocalDateTime.now().toString())
+                .code(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .message(ex.getMessage())
+                .exception(ex.getClass().getSimpleName())
+                .data(Map.of())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+}
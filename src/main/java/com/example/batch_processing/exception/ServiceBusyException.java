@@ -0,0 +1,23 @@
+package com.example.batch_processing.exception;
+
+import lombok.Getter;
+
+/**
+ * Classe ServiceBusyException
+ * <p>
+ * Ressource momentanément saturée (exports simultanés) : réponse 503 avec l'en-tête Retry-After.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Getter
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
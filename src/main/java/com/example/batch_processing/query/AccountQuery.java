@@ -13,6 +13,10 @@ public class AccountQuery {
         // classe utilitaire
     }
 
+    // Les requêtes du résumé journalier renvoient toutes les mêmes colonnes, dans le même ordre
+    // (account_id, customer_name, current_balance, balance_date, total_transactions, daily_total,
+    // daily_processed) : AccountDailyBalanceRepository.SUMMARY_ROW_MAPPER et l'export les lisent par position
+
     public static final String SELECT_DAILY_SUMMARY =
             """
             SELECT
@@ -36,5 +40,139 @@ public class AccountQuery {
             ORDER BY a.id
             LIMIT :size OFFSET :offset
             """;
-}
 
+    // Pagination par clé (keyset) : la clause WHERE contient a.id > :afterAccountId. Les jointures sont
+    // bornées de même pour que chaque index reprenne après le dernier compte de la page précédente :
+    // le coût d'une page ne dépend pas de sa profondeur
+    public static final String SELECT_DAILY_SUMMARY_AFTER =
+            """
+            SELECT
+                a.id AS account_id,
+                a.customer_name,
+                a.balance AS current_balance,
+                COALESCE(adb.balance_date, :balanceDate) AS balance_date,
+                COALESCE(SUM(t.amount), 0) AS total_transactions,
+                COALESCE(adb.daily_total, 0) AS daily_total,
+                COALESCE(adb.processed, FALSE) AS daily_processed
+            FROM public.accounts a
+            LEFT JOIN public.account_daily_balance adb
+                ON adb.account_id = a.id
+               AND adb.balance_date = :balanceDate
+               AND adb.account_id > :afterAccountId
+            LEFT JOIN public.transactions t
+                ON t.account_id = a.id
+               AND t.transaction_date = :balanceDate
+               AND t.status = 'VALIDATED'
+               AND t.account_id > :afterAccountId
+            /**WHERE_CLAUSE**/
+            GROUP BY a.id, a.customer_name, a.balance, adb.balance_date, adb.daily_total, adb.processed
+            ORDER BY a.id
+            LIMIT :size
+            """;
+
+    // Date clôturée par le job de fin de journée : le résumé est lu dans le modèle de lecture
+    public static final String SELECT_BUSINESS_DAY_CLOSED =
+            """
+            SELECT EXISTS (SELECT 1 FROM public.business_day_close c WHERE c.balance_date = :balanceDate)
+            """;
+
+    // Version d'une date clôturée (ETag / Last-Modified du résumé). last_modified : dernière écriture d'un
+    // job sur une date clôturée, qui peut avoir modifié les soldes courants affichés pour toutes les dates
+    public static final String SELECT_BUSINESS_DAY_VERSION =
+            """
+            SELECT
+                c.balance_date,
+                c.version,
+                c.job_execution_id,
+                (SELECT MAX(l.updated_at) FROM public.business_day_close l)::timestamptz AS last_modified
+            FROM public.business_day_close c
+            WHERE c.balance_date = :balanceDate
+            """;
+
+    // Résumé d'une date clôturée : une ligne indexée par compte dans account_daily_balance, sans agrégation
+    // des transactions. Son daily_total est le total des transactions VALIDATED de la date, écrit par le job
+    // de fin de journée avant la clôture et tenu à jour par la correction des arrivées tardives
+    public static final String SELECT_CLOSED_DAILY_SUMMARY =
+            """
+            SELECT
+                a.id AS account_id,
+                a.customer_name,
+                a.balance AS current_balance,
+                COALESCE(adb.balance_date, :balanceDate) AS balance_date,
+                COALESCE(adb.daily_total, 0) AS total_transactions,
+                COALESCE(adb.daily_total, 0) AS daily_total,
+                COALESCE(adb.processed, FALSE) AS daily_processed
+            FROM public.accounts a
+            LEFT JOIN public.account_daily_balance adb
+                ON adb.account_id = a.id
+               AND adb.balance_date = :balanceDate
+            /**WHERE_CLAUSE**/
+            ORDER BY a.id
+            LIMIT :size OFFSET :offset
+            """;
+
+    public static final String SELECT_CLOSED_DAILY_SUMMARY_AFTER =
+            """
+            SELECT
+                a.id AS account_id,
+                a.customer_name,
+                a.balance AS current_balance,
+                COALESCE(adb.balance_date, :balanceDate) AS balance_date,
+                COALESCE(adb.daily_total, 0) AS total_transactions,
+                COALESCE(adb.daily_total, 0) AS daily_total,
+                COALESCE(adb.processed, FALSE) AS daily_processed
+            FROM public.accounts a
+            LEFT JOIN public.account_daily_balance adb
+                ON adb.account_id = a.id
+               AND adb.balance_date = :balanceDate
+               AND adb.account_id > :afterAccountId
+            /**WHERE_CLAUSE**/
+            ORDER BY a.id
+            LIMIT :size
+            """;
+
+    // Recherche groupée : un seul aller-retour pour une liste de comptes (tableau bigint[]). Les
+    // jointures sont bornées aux mêmes comptes pour que les transactions soient lues par leur index
+    // plutôt que parcourues en entier pour la date. L'ordre de la demande est rétabli par le service
+    public static final String SELECT_DAILY_SUMMARY_BY_IDS =
+            """
+            SELECT
+                a.id AS account_id,
+                a.customer_name,
+                a.balance AS current_balance,
+                COALESCE(adb.balance_date, :balanceDate) AS balance_date,
+                COALESCE(SUM(t.amount), 0) AS total_transactions,
+                COALESCE(adb.daily_total, 0) AS daily_total,
+                COALESCE(adb.processed, FALSE) AS daily_processed
+            FROM public.accounts a
+            LEFT JOIN public.account_daily_balance adb
+                ON adb.account_id = a.id
+               AND adb.balance_date = :balanceDate
+               AND adb.account_id = ANY(:accountIds)
+            LEFT JOIN public.transactions t
+                ON t.account_id = a.id
+               AND t.transaction_date = :balanceDate
+               AND t.status = 'VALIDATED'
+               AND t.account_id = ANY(:accountIds)
+            WHERE a.id = ANY(:accountIds)
+            GROUP BY a.id, a.customer_name, a.balance, adb.balance_date, adb.daily_total, adb.processed
+            """;
+
+    public static final String SELECT_CLOSED_DAILY_SUMMARY_BY_IDS =
+            """
+            SELECT
+                a.id AS account_id,
+                a.customer_name,
+                a.balance AS current_balance,
+                COALESCE(adb.balance_date, :balanceDate) AS balance_date,
+                COALESCE(adb.daily_total, 0) AS total_transactions,
+                COALESCE(adb.daily_total, 0) AS daily_total,
+                COALESCE(adb.processed, FALSE) AS daily_processed
+            FROM public.accounts a
+            LEFT JOIN public.account_daily_balance adb
+                ON adb.account_id = a.id
+               AND adb.balance_date = :balanceDate
+               AND adb.account_id = ANY(:accountIds)
+            WHERE a.id = ANY(:accountIds)
+            """;
+}
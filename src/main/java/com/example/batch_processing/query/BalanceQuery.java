@@ -0,0 +1,553 @@
+package com.example.batch_processing.query;
+
+/**
+ * Classe BalanceQuery
+ * <p>
+ * Requêtes SQL du batch de fin de journée.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class BalanceQuery {
+
+    private BalanceQuery() {
+        // classe utilitaire
+    }
+
+    /**
+     * Insert ou update account_daily_balance : nouvelle ligne si total des transactions <> 0, et total
+     * ramené à 0 pour une ligne existante dont les transactions s'annulent ou ont disparu (l'écart déjà
+     * appliqué est alors annulé par UPDATE_ACCOUNT_BALANCE).
+     * Une ligne dont le total n'a pas changé n'est pas réécrite (relance sans effet).
+     */
+    public static final String UPSERT_DAILY_BALANCE =
+            """
+            INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed)
+            SELECT COALESCE(tot.account_id, e.account_id), :businessDate, COALESCE(tot.daily_total, 0), TRUE
+            FROM (
+                SELECT t.account_id, SUM(t.amount) AS daily_total
+                FROM transactions t
+                WHERE t.transaction_date = :businessDate
+                      AND t.status = 'VALIDATED'
+                      AND t.account_id BETWEEN :minId AND :maxId
+                GROUP BY t.account_id
+            ) tot
+            FULL JOIN (
+                SELECT adb.account_id
+                FROM account_daily_balance adb
+                WHERE adb.balance_date = :businessDate
+                      AND adb.account_id BETWEEN :minId AND :maxId
+            ) e ON e.account_id = tot.account_id
+            WHERE e.account_id IS NOT NULL OR tot.daily_total <> 0
+            ON CONFLICT (account_id, balance_date)
+            DO UPDATE SET daily_total = EXCLUDED.daily_total,
+                          processed = TRUE
+            WHERE account_daily_balance.daily_total IS DISTINCT FROM EXCLUDED.daily_total
+            """;
+
+    /**
+     * Report dans accounts.balance des lignes d'une plage pas encore appliquées (registre applied_*) :
+     * seul l'écart daily_total - applied_total est ajouté, puis la ligne est marquée appliquée
+     * par l'exécution courante. Une relance ne touche donc que les lignes nouvelles ou modifiées.
+     */
+    public static final String UPDATE_ACCOUNT_BALANCE =
+            """
+            WITH pending AS (
+                SELECT adb.account_id, adb.daily_total - COALESCE(adb.applied_total, 0) AS delta
+                FROM account_daily_balance adb
+                WHERE adb.balance_date = :businessDate
+                      AND adb.account_id BETWEEN :minId AND :maxId
+                      AND adb.applied_total IS DISTINCT FROM adb.daily_total
+                FOR UPDATE
+            ),
+            marked AS (
+                UPDATE account_daily_balance adb
+                SET applied_total = adb.daily_total,
+                    applied_job_execution_id = :jobExecutionId,
+                    applied_at = now()
+                FROM pending p
+                WHERE adb.account_id = p.account_id
+                  AND adb.balance_date = :businessDate
+            )
+            UPDATE accounts a
+            SET balance = a.balance + p.delta
+            FROM pending p
+            WHERE a.id = p.account_id
+              AND p.delta <> 0
+            """;
+
+    /**
+     * Version fusionnée des deux requêtes précédentes : les transactions de la plage sont agrégées
+     * une seule fois, comparées au total déjà appliqué (registre applied_*), et seuls les écarts
+     * alimentent account_daily_balance et la mise à jour des comptes.
+     * <p>
+     * Les lignes existantes de la plage sont verrouillées (FOR UPDATE) avant de calculer l'écart : une
+     * exécution concurrente de la même date attend, puis relit leur applied_total à jour et n'applique pas
+     * deux fois le même écart. Une ligne créée entre-temps par l'autre exécution n'est pas réécrite
+     * (ON CONFLICT DO NOTHING) et son écart n'est pas reporté. Un compte dont le total est revenu à 0
+     * voit l'écart déjà appliqué annulé.
+     * Retourne le nombre de lignes account_daily_balance écrites et de comptes mis à jour.
+     */
+    public static final String APPLY_DAILY_BALANCE_FUSED =
+            """
+            WITH totals AS (
+                SELECT t.account_id, SUM(t.amount) AS daily_total
+                FROM transactions t
+                WHERE t.transaction_date = :businessDate
+                      AND t.status = 'VALIDATED'
+                      AND t.account_id BETWEEN :minId AND :maxId
+                GROUP BY t.account_id
+            ),
+            existing AS (
+                SELECT adb.account_id, adb.applied_total
+                FROM account_daily_balance adb
+                WHERE adb.balance_date = :businessDate
+                      AND adb.account_id BETWEEN :minId AND :maxId
+                FOR UPDATE
+            ),
+            changes AS (
+                SELECT COALESCE(tot.account_id, e.account_id) AS account_id,
+                       COALESCE(tot.daily_total, 0) AS daily_total,
+                       COALESCE(tot.daily_total, 0) - COALESCE(e.applied_total, 0) AS delta,
+                       e.account_id IS NOT NULL AS existing
+                FROM totals tot
+                FULL JOIN existing e ON e.account_id = tot.account_id
+                WHERE e.applied_total IS DISTINCT FROM COALESCE(tot.daily_total, 0)
+                  AND (e.account_id IS NOT NULL OR tot.daily_total <> 0)
+            ),
+            inserted AS (
+                INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed,
+                                                   applied_total, applied_job_execution_id, applied_at)
+                SELECT c.account_id, :businessDate, c.daily_total, TRUE, c.daily_total, :jobExecutionId, now()
+                FROM changes c
+                WHERE NOT c.existing
+                ON CONFLICT (account_id, balance_date) DO NOTHING
+                RETURNING account_id
+            ),
+            rewritten AS (
+                UPDATE account_daily_balance adb
+                SET daily_total = c.daily_total,
+                    processed = TRUE,
+                    applied_total = c.daily_total,
+                    applied_job_execution_id = :jobExecutionId,
+                    applied_at = now()
+                FROM changes c
+                WHERE c.existing
+                  AND adb.account_id = c.account_id
+                  AND adb.balance_date = :businessDate
+                RETURNING adb.account_id
+            ),
+            updated AS (
+                UPDATE accounts a
+                SET balance = a.balance + c.delta
+                FROM changes c
+                WHERE a.id = c.account_id
+                  AND c.delta <> 0
+                  AND (c.existing OR c.account_id IN (SELECT i.account_id FROM inserted i))
+                RETURNING a.id
+            )
+            SELECT (SELECT COUNT(*) FROM inserted) + (SELECT COUNT(*) FROM rewritten) AS daily_upserted,
+                   (SELECT COUNT(*) FROM updated) AS accounts_updated
+            """;
+
+    /**
+     * Total journalier par compte d'une plage, trié par compte (lecture en streaming par curseur) :
+     * comptes ayant un total non nul, et comptes déjà présents dans account_daily_balance (total éventuellement
+     * revenu à 0, pour annuler l'écart déjà appliqué).
+     */
+    public static final String SELECT_DAILY_TOTALS =
+            """
+            SELECT COALESCE(tot.account_id, e.account_id) AS account_id, COALESCE(tot.daily_total, 0) AS daily_total
+            FROM (
+                SELECT t.account_id, SUM(t.amount) AS daily_total
+                FROM transactions t
+                WHERE t.transaction_date = ?
+                      AND t.status = 'VALIDATED'
+                      AND t.account_id BETWEEN ? AND ?
+                GROUP BY t.account_id
+            ) tot
+            FULL JOIN (
+                SELECT adb.account_id
+                FROM account_daily_balance adb
+                WHERE adb.balance_date = ?
+                      AND adb.account_id BETWEEN ? AND ?
+            ) e ON e.account_id = tot.account_id
+            WHERE e.account_id IS NOT NULL OR tot.daily_total <> 0
+            ORDER BY 1
+            """;
+
+    /**
+     * Upsert unitaire (exécuté en batch JDBC) d'un total journalier.
+     */
+    public static final String UPSERT_DAILY_BALANCE_ITEM =
+            """
+            INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed)
+            VALUES (:accountId, :balanceDate, :dailyTotal, TRUE)
+            ON CONFLICT (account_id, balance_date)
+            DO UPDATE SET daily_total = EXCLUDED.daily_total,
+                          processed = TRUE
+            WHERE account_daily_balance.daily_total IS DISTINCT FROM EXCLUDED.daily_total
+            """;
+
+    /**
+     * Application unitaire (exécutée en batch JDBC) d'un total journalier au solde du compte :
+     * seul l'écart avec le total déjà appliqué est reporté, puis la ligne est marquée appliquée.
+     */
+    public static final String UPDATE_ACCOUNT_BALANCE_ITEM =
+            """
+            WITH pending AS (
+                SELECT adb.account_id, adb.daily_total - COALESCE(adb.applied_total, 0) AS delta
+                FROM account_daily_balance adb
+                WHERE adb.account_id = :accountId
+                      AND adb.balance_date = :balanceDate
+                      AND adb.applied_total IS DISTINCT FROM adb.daily_total
+                FOR UPDATE
+            ),
+            marked AS (
+                UPDATE account_daily_balance adb
+                SET applied_total = adb.daily_total,
+                    applied_job_execution_id = :jobExecutionId,
+                    applied_at = now()
+                FROM pending p
+                WHERE adb.account_id = p.account_id
+                  AND adb.balance_date = :balanceDate
+            )
+            UPDATE accounts a
+            SET balance = a.balance + p.delta
+            FROM pending p
+            WHERE a.id = p.account_id
+              AND p.delta <> 0
+            """;
+
+    /**
+     * Totaux journaliers déjà cumulés (agrégation intraday) mais pas encore appliqués aux comptes,
+     * triés par compte : lecture du mode chunk quand la date est clôturée de façon incrémentale.
+     */
+    public static final String SELECT_UNAPPLIED_DAILY_TOTALS =
+            """
+            SELECT adb.account_id, adb.daily_total
+            FROM account_daily_balance adb
+            WHERE adb.balance_date = ?
+                  AND adb.account_id BETWEEN ? AND ?
+                  AND adb.applied_total IS DISTINCT FROM adb.daily_total
+            ORDER BY adb.account_id
+            """;
+
+    // ================= AGRÉGATION CÔTÉ JAVA =================
+
+    /**
+     * Transactions VALIDATED d'une plage, montant converti en centimes entiers par PostgreSQL
+     * (conversion exacte pour un numeric(18, 2)) : aucun GROUP BY côté base, aucun BigDecimal côté Java.
+     */
+    public static final String SELECT_VALIDATED_CENTS =
+            """
+            SELECT t.account_id, (t.amount * 100)::int8 AS cents
+            FROM transactions t
+            WHERE t.transaction_date = ?
+                  AND t.status = 'VALIDATED'
+                  AND t.account_id BETWEEN ? AND ?
+            """;
+
+    // Table de travail propre à la connexion, vidée à chaque commit
+    public static final String CREATE_DAILY_TOTAL_STAGE =
+            """
+            CREATE TEMP TABLE IF NOT EXISTS daily_total_stage (
+                account_id int8 NOT NULL,
+                daily_total numeric(18, 2) NOT NULL
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    public static final String COPY_DAILY_TOTAL_STAGE =
+            "COPY daily_total_stage (account_id, daily_total) FROM STDIN";
+
+    /**
+     * Même sémantique que UPSERT_DAILY_BALANCE, à partir des totaux non nuls calculés en Java et chargés
+     * par COPY : les lignes existantes de la plage absentes de la table de travail sont ramenées à 0.
+     */
+    public static final String MERGE_DAILY_TOTAL_STAGE =
+            """
+            INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed)
+            SELECT COALESCE(s.account_id, e.account_id), :businessDate, COALESCE(s.daily_total, 0), TRUE
+            FROM daily_total_stage s
+            FULL JOIN (
+                SELECT adb.account_id
+                FROM account_daily_balance adb
+                WHERE adb.balance_date = :businessDate
+                      AND adb.account_id BETWEEN :minId AND :maxId
+            ) e ON e.account_id = s.account_id
+            ON CONFLICT (account_id, balance_date)
+            DO UPDATE SET daily_total = EXCLUDED.daily_total,
+                          processed = TRUE
+            WHERE account_daily_balance.daily_total IS DISTINCT FROM EXCLUDED.daily_total
+            """;
+
+    // ================= AGRÉGATION INTRADAY =================
+
+    // Une date déjà clôturée n'est plus alimentée par l'agrégation intraday (job de correction)
+    public static final String INIT_AGGREGATION_WATERMARK =
+            """
+            INSERT INTO daily_aggregation_watermark (balance_date, last_transaction_id)
+            SELECT :businessDate, 0
+            WHERE NOT EXISTS (SELECT 1 FROM business_day_close c WHERE c.balance_date = :businessDate)
+            ON CONFLICT (balance_date) DO NOTHING
+            """;
+
+    // Verrou de la date : deux cumuls de la même date (intraday, clôture) s'exécutent l'un après l'autre
+    public static final String LOCK_AGGREGATION_WATERMARK =
+            """
+            SELECT w.last_xid, w.last_transaction_id, w.active_from_xid
+            FROM daily_aggregation_watermark w
+            WHERE w.balance_date = :businessDate
+            FOR UPDATE
+            """;
+
+    /**
+     * Premier cumul après la création du watermark (dans une transaction postérieure à son commit) : le xmax
+     * du snapshot courant dépasse l'xid de toute modification dont le trigger n'a pas vu le watermark.
+     */
+    public static final String ACTIVATE_AGGREGATION_WATERMARK =
+            """
+            UPDATE daily_aggregation_watermark w
+            SET active_from_xid = COALESCE(w.active_from_xid, :activeFromXid),
+                updated_at = now()
+            WHERE w.balance_date = :businessDate
+            RETURNING w.active_from_xid
+            """;
+
+    public static final String SELECT_WATERMARKED_DATES =
+            """
+            SELECT w.balance_date
+            FROM daily_aggregation_watermark w
+            WHERE w.balance_date BETWEEN :fromDate AND :toDate
+            """;
+
+    // Clôture commencée : le trigger de transactions marque désormais aussi les insertions de la date
+    public static final String BEGIN_AGGREGATION_CLOSING =
+            """
+            UPDATE daily_aggregation_watermark w
+            SET closing = TRUE,
+                updated_at = now()
+            WHERE w.balance_date = :businessDate
+            """;
+
+    // xmax du snapshot courant : xid attribué à la prochaine transaction d'écriture
+    public static final String SELECT_SNAPSHOT_XMAX =
+            "SELECT pg_snapshot_xmax(pg_current_snapshot())::text::int8";
+
+    // Toute transaction d'xid inférieur à :xid est terminée (commitée ou annulée)
+    public static final String SELECT_SNAPSHOT_XMIN_REACHED =
+            "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::int8 >= :xid";
+
+    /**
+     * Cumule dans account_daily_balance.daily_total les transactions VALIDATED de la date au-delà du
+     * watermark (created_xid, id), dans cet ordre et au plus :maxTransactions, puis avance le watermark.
+     * Seules les lignes insérées par une transaction d'xid inférieur au xmin du snapshot sont lues : toutes
+     * les transactions d'xid inférieur sont terminées, une ligne dépassée par le watermark ne peut plus
+     * apparaître, quelle que soit la durée de la transaction qui l'a insérée. Rien n'est cumulé tant que le
+     * xmin n'a pas atteint :activeFromXid. Retourne le nombre de transactions et de comptes cumulés et le
+     * nouveau watermark.
+     */
+    public static final String FOLD_DAILY_TOTALS =
+            """
+            WITH horizon AS (
+                SELECT CASE WHEN s.xmin >= :activeFromXid THEN s.xmin ELSE 0 END AS xid
+                FROM (SELECT pg_snapshot_xmin(pg_current_snapshot())::text::int8 AS xmin) s
+            ),
+            batch AS (
+                SELECT t.created_xid, t.id, t.account_id, t.amount
+                FROM transactions t
+                WHERE t.transaction_date = :businessDate
+                      AND t.status = 'VALIDATED'
+                      AND (t.created_xid, t.id) > (:lastXid, :lastTransactionId)
+                      AND t.created_xid < (SELECT h.xid FROM horizon h)
+                ORDER BY t.created_xid, t.id
+                LIMIT :maxTransactions
+            ),
+            folded AS (
+                INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed)
+                SELECT b.account_id, :businessDate, SUM(b.amount), TRUE
+                FROM batch b
+                GROUP BY b.account_id
+                ON CONFLICT (account_id, balance_date)
+                DO UPDATE SET daily_total = account_daily_balance.daily_total + EXCLUDED.daily_total,
+                              processed = TRUE
+                RETURNING account_id
+            ),
+            advanced AS (
+                UPDATE daily_aggregation_watermark w
+                SET last_xid = l.created_xid,
+                    last_transaction_id = l.id,
+                    updated_at = now()
+                FROM (
+                    SELECT b.created_xid, b.id
+                    FROM batch b
+                    ORDER BY b.created_xid DESC, b.id DESC
+                    LIMIT 1
+                ) l
+                WHERE w.balance_date = :businessDate
+                RETURNING w.last_xid, w.last_transaction_id
+            )
+            SELECT (SELECT COUNT(*) FROM batch)  AS transactions_folded,
+                   (SELECT COUNT(*) FROM folded) AS accounts_folded,
+                   COALESCE((SELECT a.last_xid FROM advanced a), :lastXid) AS last_xid,
+                   COALESCE((SELECT a.last_transaction_id FROM advanced a), :lastTransactionId) AS last_transaction_id
+            """;
+
+    /**
+     * Clôture d'une date alimentée en cours de journée, après le dernier cumul : recalcule le total journalier
+     * d'un lot de couples (compte, date) marqués par le trigger de transactions (transactions modifiées ou
+     * supprimées, insertions pendant la clôture) à partir des seules transactions de ce compte et de cette
+     * date. Le total n'est pas appliqué ici : les partitions de fin de journée reportent ensuite l'écart
+     * avec applied_total. Une marque posée pendant le recalcul (marked_at différent) est conservée.
+     */
+    public static final String RECOMPUTE_DIRTY_DAILY_TOTALS =
+            """
+            WITH dirty AS (
+                SELECT d.account_id, d.marked_at
+                FROM dirty_account_day d
+                WHERE d.balance_date = :businessDate
+                ORDER BY d.account_id
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            ),
+            totals AS (
+                SELECT d.account_id,
+                       COALESCE((SELECT SUM(t.amount)
+                                 FROM transactions t
+                                 WHERE t.transaction_date = :businessDate
+                                       AND t.account_id = d.account_id
+                                       AND t.status = 'VALIDATED'), 0) AS daily_total
+                FROM dirty d
+            ),
+            recomputed AS (
+                INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed)
+                SELECT tt.account_id, :businessDate, tt.daily_total, TRUE
+                FROM totals tt
+                WHERE tt.daily_total <> 0
+                      OR EXISTS (SELECT 1
+                                 FROM account_daily_balance adb
+                                 WHERE adb.account_id = tt.account_id
+                                       AND adb.balance_date = :businessDate)
+                ON CONFLICT (account_id, balance_date)
+                DO UPDATE SET daily_total = EXCLUDED.daily_total,
+                              processed = TRUE
+                WHERE account_daily_balance.daily_total IS DISTINCT FROM EXCLUDED.daily_total
+                RETURNING account_id
+            ),
+            cleared AS (
+                DELETE FROM dirty_account_day x
+                USING dirty d
+                WHERE x.balance_date = :businessDate
+                      AND x.account_id = d.account_id
+                      AND x.marked_at = d.marked_at
+                RETURNING x.account_id
+            )
+            SELECT (SELECT COUNT(*) FROM dirty)      AS dirty_processed,
+                   (SELECT COUNT(*) FROM recomputed) AS daily_corrected
+            """;
+
+    // ================= CLÔTURE / CORRECTION =================
+
+    /**
+     * Marque la date clôturée (version incrémentée si elle l'était déjà). Son watermark intraday est
+     * supprimé par DELETE_AGGREGATION_WATERMARK : les changements ultérieurs passent par la correction.
+     */
+    public static final String CLOSE_BUSINESS_DAY =
+            """
+            INSERT INTO business_day_close (balance_date, closed_at, job_execution_id)
+            VALUES (:businessDate, now(), :jobExecutionId)
+            ON CONFLICT (balance_date)
+            DO UPDATE SET closed_at = EXCLUDED.closed_at,
+                          job_execution_id = EXCLUDED.job_execution_id,
+                          version = business_day_close.version + 1,
+                          updated_at = now()
+            """;
+
+    public static final String DELETE_AGGREGATION_WATERMARK =
+            """
+            DELETE FROM daily_aggregation_watermark
+            WHERE balance_date = :businessDate
+            """;
+
+    /**
+     * Corrige un lot de couples (compte, date clôturée) marqués par le trigger de transactions :
+     * leur total journalier est recalculé à partir des seules transactions de ce compte et de cette date,
+     * seul l'écart avec le total déjà appliqué est reporté sur le solde, et la version des dates
+     * modifiées est incrémentée (le résumé des dates clôturées lit ce même daily_total). Une marque posée pendant
+     * la correction (marked_at différent) est conservée pour le passage suivant ; SKIP LOCKED permet
+     * plusieurs corrections simultanées.
+     * Retourne le nombre de couples traités, de lignes account_daily_balance modifiées et de comptes mis à jour.
+     */
+    public static final String CORRECT_DIRTY_ACCOUNT_DAYS =
+            """
+            WITH dirty AS (
+                SELECT d.account_id, d.balance_date, d.marked_at
+                FROM dirty_account_day d
+                JOIN business_day_close c ON c.balance_date = d.balance_date
+                ORDER BY d.balance_date, d.account_id
+                LIMIT :batchSize
+                FOR UPDATE OF d SKIP LOCKED
+            ),
+            totals AS (
+                SELECT d.account_id, d.balance_date,
+                       COALESCE(SUM(t.amount) FILTER (WHERE t.status = 'VALIDATED'), 0) AS daily_total
+                FROM dirty d
+                LEFT JOIN transactions t
+                       ON t.account_id = d.account_id
+                      AND t.transaction_date = d.balance_date
+                GROUP BY d.account_id, d.balance_date
+            ),
+            changes AS (
+                SELECT tot.account_id, tot.balance_date, tot.daily_total,
+                       tot.daily_total - COALESCE(adb.applied_total, 0) AS delta
+                FROM totals tot
+                LEFT JOIN account_daily_balance adb
+                       ON adb.account_id = tot.account_id
+                      AND adb.balance_date = tot.balance_date
+                WHERE adb.applied_total IS DISTINCT FROM tot.daily_total
+                  AND (adb.account_id IS NOT NULL OR tot.daily_total <> 0)
+            ),
+            upserted AS (
+                INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed,
+                                                   applied_total, applied_job_execution_id, applied_at)
+                SELECT c.account_id, c.balance_date, c.daily_total, TRUE, c.daily_total, :jobExecutionId, now()
+                FROM changes c
+                ON CONFLICT (account_id, balance_date)
+                DO UPDATE SET daily_total = EXCLUDED.daily_total,
+                              processed = TRUE,
+                              applied_total = EXCLUDED.applied_total,
+                              applied_job_execution_id = EXCLUDED.applied_job_execution_id,
+                              applied_at = EXCLUDED.applied_at
+                RETURNING account_id
+            ),
+            updated AS (
+                UPDATE accounts a
+                SET balance = a.balance + c.delta
+                FROM (SELECT account_id, SUM(delta) AS delta FROM changes GROUP BY account_id) c
+                WHERE a.id = c.account_id
+                  AND c.delta <> 0
+                RETURNING a.id
+            ),
+            versioned AS (
+                UPDATE business_day_close bdc
+                SET version = bdc.version + 1,
+                    updated_at = now()
+                WHERE bdc.balance_date IN (SELECT DISTINCT c.balance_date FROM changes c)
+                RETURNING bdc.balance_date
+            ),
+            cleared AS (
+                DELETE FROM dirty_account_day x
+                USING dirty d
+                WHERE x.account_id = d.account_id
+                  AND x.balance_date = d.balance_date
+                  AND x.marked_at = d.marked_at
+                RETURNING x.account_id
+            )
+            SELECT (SELECT COUNT(*) FROM dirty)    AS dirty_processed,
+                   (SELECT COUNT(*) FROM upserted) AS daily_corrected,
+                   (SELECT COUNT(*) FROM updated)  AS accounts_updated,
+                   (SELECT COUNT(*) FROM versioned) AS dates_versioned,
+                   (SELECT COUNT(*) FROM cleared)  AS dirty_cleared
+            """;
+}
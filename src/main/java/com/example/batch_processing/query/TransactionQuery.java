@@ -0,0 +1,73 @@
+package com.example.batch_processing.query;
+
+/**
+ * Classe TransactionQuery
+ * <p>
+ * Requêtes d'alimentation et de maintenance (partitions journalières) de la table transactions.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TransactionQuery {
+
+    private TransactionQuery() {
+        // classe utilitaire
+    }
+
+    // ================= CHARGEMENT EN MASSE =================
+
+    // Format texte (tabulations) : id et created_at prennent leur valeur par défaut
+    public static final String COPY_TRANSACTIONS =
+            "COPY transactions (account_id, amount, status, transaction_date) FROM STDIN";
+
+    // ================= PARTITIONS =================
+
+    // Crée les partitions journalières manquantes de [:fromDate, :toDate] (fonction des migrations V1_5 et V6)
+    public static final String CREATE_TRANSACTION_PARTITIONS =
+            "SELECT public.create_transaction_partitions(:fromDate, :toDate)";
+
+    // Jours rangés dans la partition par défaut faute de partition au moment de l'insertion
+    public static final String SELECT_DEFAULT_PARTITION_DATES =
+            """
+            SELECT DISTINCT t.transaction_date
+            FROM public.transactions_default t
+            ORDER BY t.transaction_date
+            """;
+
+    /**
+     * Partitions attachées dont le jour (nom transactions_AAAAMMJJ) est antérieur à :cutoff, les plus anciennes d'abord.
+     */
+    public static final String SELECT_EXPIRED_TRANSACTION_PARTITIONS =
+            """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'public.transactions'::regclass
+                  AND c.relname ~ '^transactions_[0-9]{8}$'
+                  AND to_date(substr(c.relname, 14), 'YYYYMMDD') < :cutoff
+            ORDER BY c.relname
+            """;
+
+    /**
+     * Détache une partition ; le nom vient de SELECT_EXPIRED_TRANSACTION_PARTITIONS. CONCURRENTLY est interdit
+     * avec une partition par défaut : le verrou exclusif sur transactions n'est attendu que 5 s (bloc DO, une
+     * transaction), au-delà le détachement échoue et sera retenté à la prochaine maintenance.
+     */
+    public static final String DETACH_TRANSACTION_PARTITION =
+            """
+            DO $$
+            BEGIN
+                PERFORM set_config('lock_timeout', '5s', true);
+                ALTER TABLE public.transactions DETACH PARTITION public."%s";
+            END
+            $$
+            """;
+
+    // Verrou consultatif de session : une seule instance effectue la maintenance des partitions
+    public static final String TRY_LOCK_PARTITION_MAINTENANCE =
+            "SELECT pg_try_advisory_lock(hashtext('transaction_partition_maintenance'))";
+
+    public static final String UNLOCK_PARTITION_MAINTENANCE =
+            "SELECT pg_advisory_unlock(hashtext('transaction_partition_maintenance'))";
+}
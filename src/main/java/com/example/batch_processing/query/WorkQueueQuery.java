@@ -0,0 +1,113 @@
+package com.example.batch_processing.query;
+
+/**
+ * Classe WorkQueueQuery
+ * <p>
+ * Requêtes de la file de partitions partagée entre les instances (table eod_work_queue).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class WorkQueueQuery {
+
+    private WorkQueueQuery() {
+        // classe utilitaire
+    }
+
+    public static final String INSERT_WORK_ITEM =
+            """
+            INSERT INTO eod_work_queue (job_execution_id, step_execution_id, worker_step_name, weight)
+            VALUES (:jobExecutionId, :stepExecutionId, :workerStepName, :weight)
+            """;
+
+    // SKIP LOCKED : deux instances qui réclament en même temps obtiennent des partitions différentes, sans attente.
+    // attempt sert de jeton : seule la réclamation courante peut ensuite modifier la ligne
+    public static final String CLAIM_WORK_ITEMS =
+            """
+            UPDATE eod_work_queue q
+            SET status = 'CLAIMED',
+                claimed_by = :node,
+                claimed_at = now(),
+                heartbeat_at = now(),
+                attempt = q.attempt + 1
+            WHERE q.id IN (
+                SELECT p.id
+                FROM eod_work_queue p
+                WHERE p.status = 'PENDING'
+                ORDER BY p.weight DESC, p.id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING q.id, q.job_execution_id, q.step_execution_id, q.worker_step_name, q.attempt
+            """;
+
+    // Une ligne rendue entre-temps à la file (instance jugée morte), réclamée à nouveau ou annulée
+    // n'est plus modifiable par son ancien détenteur
+    public static final String FINISH_WORK_ITEM =
+            """
+            UPDATE eod_work_queue
+            SET status = :status,
+                finished_at = now()
+            WHERE id = :id
+                  AND status = 'CLAIMED'
+                  AND claimed_by = :node
+                  AND attempt = :attempt
+            """;
+
+    // Rend la partition à la file sans l'exécuter (StepExecution peut-être encore en cours ailleurs)
+    public static final String RELEASE_WORK_ITEM =
+            """
+            UPDATE eod_work_queue
+            SET status = 'PENDING',
+                claimed_by = NULL,
+                claimed_at = NULL,
+                heartbeat_at = NULL
+            WHERE id = :id
+                  AND status = 'CLAIMED'
+                  AND claimed_by = :node
+                  AND attempt = :attempt
+            """;
+
+    // Retourne les réclamations toujours détenues : les autres ont été perdues (remises dans la file ou annulées)
+    public static final String HEARTBEAT_WORK_ITEMS =
+            """
+            UPDATE eod_work_queue
+            SET heartbeat_at = now()
+            WHERE status = 'CLAIMED'
+                  AND claimed_by = :node
+            RETURNING id, attempt
+            """;
+
+    // Partitions d'une instance qui ne donne plus signe de vie : remises dans la file
+    public static final String REQUEUE_STALE_WORK_ITEMS =
+            """
+            UPDATE eod_work_queue
+            SET status = 'PENDING',
+                claimed_by = NULL,
+                claimed_at = NULL,
+                heartbeat_at = NULL
+            WHERE status = 'CLAIMED'
+                  AND heartbeat_at < now() - make_interval(secs => :staleSeconds)
+            """;
+
+    // Gestionnaire arrivé à son délai : les partitions non terminées ne doivent plus être exécutées
+    public static final String CANCEL_UNFINISHED_WORK_ITEMS =
+            """
+            UPDATE eod_work_queue
+            SET status = 'CANCELLED',
+                finished_at = now()
+            WHERE job_execution_id = :jobExecutionId
+                  AND worker_step_name = :workerStepName
+                  AND status IN ('PENDING', 'CLAIMED')
+            """;
+
+    public static final String COUNT_UNFINISHED_WORK_ITEMS =
+            """
+            SELECT COUNT(*)
+            FROM eod_work_queue
+            WHERE job_execution_id = :jobExecutionId
+                  AND worker_step_name = :workerStepName
+                  AND status IN ('PENDING', 'CLAIMED')
+            """;
+}
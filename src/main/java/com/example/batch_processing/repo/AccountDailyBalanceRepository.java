@@ -1,14 +1,19 @@
 package com.example.batch_processing.repo;
 
 import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.BusinessDayVersion;
 import com.example.batch_processing.query.AccountQuery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Classe AccountDailyBalanceRepository
@@ -21,6 +26,21 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AccountDailyBalanceRepository {
 
+    /**
+     * Mapping précompilé des requêtes du résumé journalier (AccountQuery), colonnes lues par position :
+     * contrairement à {@code query(AccountDailySummaryDTO.class)}, ni recherche des colonnes par nom ni
+     * conversion par réflexion à chaque ligne.
+     */
+    public static final RowMapper<AccountDailySummaryDTO> SUMMARY_ROW_MAPPER = (rs, rowNum) ->
+            new AccountDailySummaryDTO(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    rs.getBigDecimal(3),
+                    rs.getObject(4, LocalDate.class),
+                    rs.getBigDecimal(5),
+                    rs.getBigDecimal(6),
+                    rs.getBoolean(7));
+
     private final JdbcClient jdbc;
 
     /**
@@ -30,13 +50,15 @@ public class AccountDailyBalanceRepository {
      * @param accountId   Optionnel : filtrer sur un compte spécifique
      * @param page        Numéro de page (1-based)
      * @param size        Taille de la page
+     * @param closed      Date clôturée : total lu dans account_daily_balance plutôt qu'agrégé à partir des transactions
      * @return Liste de AccountDailySummaryDTO
      */
     public List<AccountDailySummaryDTO> getDailySummary(
             LocalDate balanceDate,
             Long accountId,
             int page,
-            int size
+            int size,
+            boolean closed
     ) {
         int offset = (page - 1) * size;
 
@@ -44,7 +66,8 @@ public class AccountDailyBalanceRepository {
         String whereClause = (accountId != null) ? "WHERE a.id = :accountId" : "";
 
         // Construire la requête finale
-        String sql = AccountQuery.SELECT_DAILY_SUMMARY.replace("/**WHERE_CLAUSE**/", whereClause);
+        String sql = (closed ? AccountQuery.SELECT_CLOSED_DAILY_SUMMARY : AccountQuery.SELECT_DAILY_SUMMARY)
+                .replace("/**WHERE_CLAUSE**/", whereClause);
 
         // Construire le Map des paramètres
         Map<String, Object> params = (accountId != null)
@@ -63,7 +86,92 @@ public class AccountDailyBalanceRepository {
         // Exécution et mapping automatique vers DTO
         return jdbc.sql(sql)
                 .params(params)
-                .query(AccountDailySummaryDTO.class)
+                .query(SUMMARY_ROW_MAPPER)
+                .list();
+    }
+
+    /**
+     * Retourne la page des comptes qui suit {@code afterAccountId} (pagination par clé) : contrairement
+     * à l'OFFSET, le coût d'une page ne dépend pas de sa profondeur.
+     *
+     * @param balanceDate    Date du jour à vérifier
+     * @param accountId      Optionnel : filtrer sur un compte spécifique
+     * @param afterAccountId Dernier compte de la page précédente (0 pour la première page)
+     * @param size           Taille de la page
+     * @param closed         Date clôturée : total lu dans account_daily_balance plutôt qu'agrégé à partir des transactions
+     * @return Liste de AccountDailySummaryDTO, triée par compte
+     */
+    public List<AccountDailySummaryDTO> getDailySummaryAfter(
+            LocalDate balanceDate,
+            Long accountId,
+            long afterAccountId,
+            int size,
+            boolean closed
+    ) {
+        String whereClause = (accountId != null)
+                ? "WHERE a.id > :afterAccountId AND a.id = :accountId"
+                : "WHERE a.id > :afterAccountId";
+
+        String sql = (closed ? AccountQuery.SELECT_CLOSED_DAILY_SUMMARY_AFTER : AccountQuery.SELECT_DAILY_SUMMARY_AFTER)
+                .replace("/**WHERE_CLAUSE**/", whereClause);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("balanceDate", balanceDate);
+        params.put("afterAccountId", afterAccountId);
+        params.put("size", size);
+        if (accountId != null) {
+            params.put("accountId", accountId);
+        }
+
+        return jdbc.sql(sql)
+                .params(params)
+                .query(SUMMARY_ROW_MAPPER)
                 .list();
     }
+
+    /**
+     * Retourne le résumé des comptes demandés en une seule requête ({@code = ANY(:accountIds)}).
+     *
+     * @param balanceDate Date du jour à vérifier
+     * @param accountIds  Comptes recherchés, sans doublon
+     * @param closed      Date clôturée : total lu dans account_daily_balance plutôt qu'agrégé à partir des transactions
+     * @return Liste de AccountDailySummaryDTO des comptes existants, sans ordre garanti
+     */
+    public List<AccountDailySummaryDTO> getDailySummaryByIds(
+            LocalDate balanceDate,
+            long[] accountIds,
+            boolean closed
+    ) {
+        // Le tableau est lié tel quel (bigint[]) : un seul paramètre quel que soit le nombre de comptes,
+        // donc une seule requête préparée réutilisable
+        return jdbc.sql(closed ? AccountQuery.SELECT_CLOSED_DAILY_SUMMARY_BY_IDS : AccountQuery.SELECT_DAILY_SUMMARY_BY_IDS)
+                .param("balanceDate", balanceDate)
+                .param("accountIds", accountIds)
+                .query(SUMMARY_ROW_MAPPER)
+                .list();
+    }
+
+    /**
+     * Indique si la date a été clôturée par le job de fin de journée (account_daily_balance complet pour la date).
+     */
+    public boolean isBusinessDayClosed(LocalDate balanceDate) {
+        return jdbc.sql(AccountQuery.SELECT_BUSINESS_DAY_CLOSED)
+                .param("balanceDate", balanceDate)
+                .query(Boolean.class)
+                .single();
+    }
+
+    /**
+     * Version du résumé de la date si elle a été clôturée, vide sinon.
+     */
+    public Optional<BusinessDayVersion> findBusinessDayVersion(LocalDate balanceDate) {
+        return jdbc.sql(AccountQuery.SELECT_BUSINESS_DAY_VERSION)
+                .param("balanceDate", balanceDate)
+                .query((rs, rowNum) -> new BusinessDayVersion(
+                        rs.getObject("balance_date", LocalDate.class),
+                        rs.getLong("version"),
+                        rs.getObject("job_execution_id", Long.class),
+                        rs.getObject("last_modified", OffsetDateTime.class).toInstant()))
+                .optional();
+    }
 }
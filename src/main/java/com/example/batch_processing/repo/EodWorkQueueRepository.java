@@ -0,0 +1,114 @@
+package com.example.batch_processing.repo;
+
+import com.example.batch_processing.query.WorkQueueQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe EodWorkQueueRepository
+ * <p>
+ * Accès à la file de partitions eod_work_queue, partagée par toutes les instances de l'application.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Repository
+@RequiredArgsConstructor
+public class EodWorkQueueRepository {
+
+    private final JdbcClient jdbc;
+
+    /**
+     * Partition réclamée par une instance : le StepExecution à exécuter, le step worker à utiliser
+     * et le numéro de réclamation (jeton exigé pour modifier ensuite la ligne).
+     */
+    public record WorkItem(long id, long jobExecutionId, long stepExecutionId, String workerStepName, int attempt) {
+    }
+
+    public void enqueue(long jobExecutionId, long stepExecutionId, String workerStepName, long weight) {
+        jdbc.sql(WorkQueueQuery.INSERT_WORK_ITEM)
+                .param("jobExecutionId", jobExecutionId)
+                .param("stepExecutionId", stepExecutionId)
+                .param("workerStepName", workerStepName)
+                .param("weight", weight)
+                .update();
+    }
+
+    /**
+     * Réclame au plus {@code limit} partitions en attente (les plus lourdes d'abord) pour l'instance {@code node}.
+     */
+    public List<WorkItem> claim(String node, int limit) {
+        return jdbc.sql(WorkQueueQuery.CLAIM_WORK_ITEMS)
+                .param("node", node)
+                .param("limit", limit)
+                .query((rs, rowNum) -> new WorkItem(
+                        rs.getLong("id"),
+                        rs.getLong("job_execution_id"),
+                        rs.getLong("step_execution_id"),
+                        rs.getString("worker_step_name"),
+                        rs.getInt("attempt")))
+                .list();
+    }
+
+    /**
+     * @return false si la partition n'appartient plus à cette réclamation (remise dans la file ou annulée entre-temps)
+     */
+    public boolean finish(WorkItem item, String node, BatchStatus status) {
+        return jdbc.sql(WorkQueueQuery.FINISH_WORK_ITEM)
+                .param("id", item.id())
+                .param("node", node)
+                .param("attempt", item.attempt())
+                .param("status", status.name())
+                .update() > 0;
+    }
+
+    public boolean release(WorkItem item, String node) {
+        return jdbc.sql(WorkQueueQuery.RELEASE_WORK_ITEM)
+                .param("id", item.id())
+                .param("node", node)
+                .param("attempt", item.attempt())
+                .update() > 0;
+    }
+
+    /**
+     * @return id de partition → numéro de réclamation, pour les partitions toujours détenues par l'instance
+     */
+    public Map<Long, Integer> heartbeat(String node) {
+        Map<Long, Integer> held = new HashMap<>();
+        jdbc.sql(WorkQueueQuery.HEARTBEAT_WORK_ITEMS)
+                .param("node", node)
+                .query(rs -> {
+                    held.put(rs.getLong("id"), rs.getInt("attempt"));
+                });
+        return held;
+    }
+
+    public int requeueStale(Duration staleAfter) {
+        return jdbc.sql(WorkQueueQuery.REQUEUE_STALE_WORK_ITEMS)
+                .param("staleSeconds", staleAfter.toSeconds())
+                .update();
+    }
+
+    public int cancelUnfinished(long jobExecutionId, String workerStepName) {
+        return jdbc.sql(WorkQueueQuery.CANCEL_UNFINISHED_WORK_ITEMS)
+                .param("jobExecutionId", jobExecutionId)
+                .param("workerStepName", workerStepName)
+                .update();
+    }
+
+    public long countUnfinished(long jobExecutionId, String workerStepName) {
+        return jdbc.sql(WorkQueueQuery.COUNT_UNFINISHED_WORK_ITEMS)
+                .param("jobExecutionId", jobExecutionId)
+                .param("workerStepName", workerStepName)
+                .query(Long.class)
+                .single();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.batch_processing.repo;
+
+import com.example.batch_processing.query.TransactionQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Classe TransactionPartitionRepository
+ * <p>
+ * Création et détachement des partitions journalières de la table transactions.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionPartitionRepository {
+
+    private final JdbcClient jdbc;
+    private final DataSource dataSource;
+    private final SQLStateSQLExceptionTranslator exceptionTranslator = new SQLStateSQLExceptionTranslator();
+
+    /**
+     * Exécute {@code maintenance} si aucune autre instance n'effectue déjà la maintenance des partitions.
+     * Le verrou consultatif est tenu par une connexion dédiée jusqu'à la fin, et libéré par PostgreSQL
+     * si l'instance disparaît ; {@code maintenance} utilise les autres connexions du pool.
+     *
+     * @return false si le verrou est détenu par une autre instance (maintenance non exécutée)
+     */
+    public boolean runExclusively(Runnable maintenance) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        String sql = TransactionQuery.TRY_LOCK_PARTITION_MAINTENANCE;
+        try (Statement statement = connection.createStatement()) {
+            if (!queryBoolean(statement, sql)) {
+                return false;
+            }
+            try {
+                maintenance.run();
+                return true;
+            } finally {
+                sql = TransactionQuery.UNLOCK_PARTITION_MAINTENANCE;
+                queryBoolean(statement, sql);
+            }
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("Verrou de maintenance des partitions", sql, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static boolean queryBoolean(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /**
+     * @return nombre de partitions créées (les jours déjà couverts sont ignorés)
+     */
+    public int createPartitions(LocalDate fromDate, LocalDate toDate) {
+        return jdbc.sql(TransactionQuery.CREATE_TRANSACTION_PARTITIONS)
+                .param("fromDate", fromDate)
+                .param("toDate", toDate)
+                .query(Integer.class)
+                .single();
+    }
+
+    public List<LocalDate> defaultPartitionDates() {
+        return jdbc.sql(TransactionQuery.SELECT_DEFAULT_PARTITION_DATES)
+                .query(LocalDate.class)
+                .list();
+    }
+
+    public List<String> expiredPartitions(LocalDate cutoff) {
+        return jdbc.sql(TransactionQuery.SELECT_EXPIRED_TRANSACTION_PARTITIONS)
+                .param("cutoff", cutoff)
+                .query(String.class)
+                .list();
+    }
+
+    public void detach(String partitionName) {
+        jdbc.sql(TransactionQuery.DETACH_TRANSACTION_PARTITION.formatted(partitionName)).update();
+    }
+}
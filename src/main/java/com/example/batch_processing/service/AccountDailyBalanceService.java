@@ -1,12 +1,19 @@
 package com.example.batch_processing.service;
 
 import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.BusinessDayVersion;
 import com.example.batch_processing.repo.AccountDailyBalanceRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 /**
@@ -21,9 +28,65 @@ import java.util.List;
 public class AccountDailyBalanceService {
 
     private final AccountDailyBalanceRepository repository;
+    private final DailySummaryCache cache;
 
     public List<AccountDailySummaryDTO> getDailySummary(LocalDate date, Long accountId, int page, int size) {
-        return repository.getDailySummary(date, accountId, page, size);
+        return cached(DailySummaryCache.Key.page(date, accountId, page, size),
+                closed -> repository.getDailySummary(date, accountId, page, size, closed));
+    }
+
+    public List<AccountDailySummaryDTO> getDailySummaryAfter(LocalDate date, Long accountId, long afterAccountId, int size) {
+        return cached(DailySummaryCache.Key.after(date, accountId, afterAccountId, size),
+                closed -> repository.getDailySummaryAfter(date, accountId, afterAccountId, size, closed));
+    }
+
+    /**
+     * Résumé d'une liste de comptes en une requête, dans l'ordre de la demande (doublons ignorés,
+     * comptes inexistants absents). Non mis en cache : les combinaisons de comptes ne se répètent pas.
+     */
+    public List<AccountDailySummaryDTO> getDailySummaries(LocalDate date, List<Long> accountIds) {
+        long[] ids = accountIds.stream().mapToLong(Long::longValue).distinct().toArray();
+        boolean closed = getBusinessDayVersion(date).isPresent();
+        Map<Long, AccountDailySummaryDTO> byId = repository.getDailySummaryByIds(date, ids, closed).stream()
+                .collect(Collectors.toMap(AccountDailySummaryDTO::getAccountId, Function.identity()));
+        return Arrays.stream(ids)
+                .mapToObj(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
-}
 
+    /**
+     * Version du résumé de la date si elle est clôturée (en mémoire jusqu'à la prochaine éviction, au plus
+     * {@code version-ttl} : un job exécuté par une autre instance n'évince pas ce cache), vide pour la date
+     * du jour ou une date non clôturée, dont le résumé change à chaque transaction.
+     */
+    public Optional<BusinessDayVersion> getBusinessDayVersion(LocalDate date) {
+        BusinessDayVersion cached = cache.getVersion(date);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = cache.generation();
+        Optional<BusinessDayVersion> version = repository.findBusinessDayVersion(date);
+        version.ifPresent(v -> cache.putVersion(v, generation));
+        return version;
+    }
+
+    // Dates clôturées : totaux lus dans account_daily_balance, pages mises en cache sous la version de la
+    // date (lue avant la page : une page plus récente que sa version est seulement relue une fois de trop) ;
+    // date du jour (ou non clôturée) : transactions, jamais en cache
+    private List<AccountDailySummaryDTO> cached(DailySummaryCache.Key key,
+                                                Function<Boolean, List<AccountDailySummaryDTO>> query) {
+        long generation = cache.generation();
+        Optional<BusinessDayVersion> version = getBusinessDayVersion(key.balanceDate());
+        if (version.isEmpty()) {
+            return query.apply(false);
+        }
+        List<AccountDailySummaryDTO> cached = cache.get(key, version.get());
+        if (cached != null) {
+            return cached;
+        }
+        List<AccountDailySummaryDTO> result = query.apply(true);
+        cache.put(key, version.get(), result, generation);
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.BusinessDayVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classe DailySummaryCache
+ * <p>
+ * Cache en mémoire des pages du résumé journalier des dates clôturées, qui ne changent plus qu'au
+ * passage d'un job (fin de journée, correction) : celui-ci évince ensuite les dates concernées.
+ * Borné en nombre de lignes (une page pèse son nombre de comptes) et en durée de vie ; les
+ * statistiques sont publiées sous {@code cache.*{cache=dailySummary}} (/actuator/metrics).
+ * <p>
+ * Une page lue avant une éviction mais rangée après est ignorée ({@link #generation()}) : elle
+ * pourrait précéder le commit du job.
+ * <p>
+ * Chaque page est rangée avec la version de sa date ({@link BusinessDayVersion}, relue au plus tard après
+ * {@code version-ttl}) et n'est servie que pour cette version : après une fin de journée ou une correction
+ * exécutée par une autre instance, les pages qui portent l'ancien solde courant ({@code a.balance}) sont
+ * relues dès que la nouvelle version est connue, sans attendre {@code ttl}.
+ * <p>
+ * La version des dates clôturées (ETag de l'API) est gardée de même, évincée avec leurs pages : une
+ * requête conditionnelle dont l'ETag correspond est servie sans accès à la base. Seule l'instance qui a
+ * exécuté le job évince : la version n'est gardée que {@code version-ttl}, puis relue dans
+ * business_day_close, pour que les autres instances ne répondent pas 304 à un ETag périmé.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Component
+public class DailySummaryCache {
+
+    static final String CACHE_NAME = "dailySummary";
+
+    /**
+     * Page demandée : page / size en pagination par OFFSET (afterAccountId = -1), afterAccountId / size
+     * en pagination par curseur (page = 0).
+     */
+    public record Key(LocalDate balanceDate, Long accountId, int page, long afterAccountId, int size) {
+
+        public static Key page(LocalDate balanceDate, Long accountId, int page, int size) {
+            return new Key(balanceDate, accountId, page, -1, size);
+        }
+
+        public static Key after(LocalDate balanceDate, Long accountId, long afterAccountId, int size) {
+            return new Key(balanceDate, accountId, 0, afterAccountId, size);
+        }
+    }
+
+    // Page et version de la date sous laquelle elle a été lue
+    private record Entry(BusinessDayVersion version, List<AccountDailySummaryDTO> rows) {
+    }
+
+    // Une entrée par date clôturée consultée
+    private static final long MAX_VERSIONS = 10_000;
+
+    private final Cache<Key, Entry> cache;
+    private final Cache<LocalDate, BusinessDayVersion> versions;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public DailySummaryCache(MeterRegistry meterRegistry,
+                             @Value("${batch.summary-cache.max-rows:500000}") long maxRows,
+                             @Value("${batch.summary-cache.ttl:PT6H}") Duration ttl,
+                             @Value("${batch.summary-cache.version-ttl:PT5S}") Duration versionTtl) {
+        this(meterRegistry, maxRows, ttl, versionTtl, Ticker.systemTicker());
+    }
+
+    DailySummaryCache(MeterRegistry meterRegistry, long maxRows, Duration ttl, Duration versionTtl, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Key key, Entry entry) -> Math.max(1, entry.rows().size()))
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(MAX_VERSIONS)
+                .expireAfterWrite(versionTtl)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Page rangée pour {@code version}, null si absente ou lue sous une autre version (elle est alors évincée).
+     */
+    public List<AccountDailySummaryDTO> get(Key key, BusinessDayVersion version) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.version().equals(version)) {
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        return entry.rows();
+    }
+
+    /**
+     * Génération courante, à relever avant de lire la page en base.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Range la page, lue sous {@code version}, si aucune éviction n'a eu lieu depuis {@code readGeneration}.
+     */
+    public void put(Key key, BusinessDayVersion version, List<AccountDailySummaryDTO> rows, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        cache.put(key, new Entry(version, List.copyOf(rows)));
+        // Éviction concurrente de la vérification ci-dessus
+        if (generation.get() != readGeneration) {
+            cache.invalidate(key);
+        }
+    }
+
+    public BusinessDayVersion getVersion(LocalDate balanceDate) {
+        return versions.getIfPresent(balanceDate);
+    }
+
+    /**
+     * Range la version si aucune éviction n'a eu lieu depuis {@code readGeneration}.
+     */
+    public void putVersion(BusinessDayVersion version, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        versions.put(version.balanceDate(), version);
+        if (generation.get() != readGeneration) {
+            versions.invalidate(version.balanceDate());
+        }
+    }
+
+    public void evict(LocalDate balanceDate) {
+        generation.incrementAndGet();
+        versions.invalidate(balanceDate);
+        cache.asMap().keySet().removeIf(key -> key.balanceDate().equals(balanceDate));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        versions.invalidateAll();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.query.AccountQuery;
+import com.example.batch_processing.repo.AccountDailyBalanceRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Classe DailySummaryExportService
+ * <p>
+ * Export du résumé journalier de tous les comptes d'une date : les lignes sont lues par un curseur
+ * côté serveur ({@code fetch-size} lignes par aller-retour, dans une transaction en lecture seule)
+ * et écrites au fil de l'eau dans la réponse, vidée toutes les {@code flush-rows} lignes. La mémoire
+ * utilisée ne dépend pas du nombre de comptes.
+ * <p>
+ * Un export garde une connexion du pool tant que le client lit : au plus {@code max-concurrent} exports
+ * simultanés par instance (permis pris par le contrôleur), pour laisser le reste du pool à l'API et aux
+ * jobs, et chaque export est borné par {@code timeout}.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Service
+@Slf4j
+public class DailySummaryExportService {
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private final AccountDailyBalanceRepository repository;
+    private final JdbcClient cursorClient;
+    private final long flushRows;
+    private final Semaphore permits;
+    @Getter
+    private final Duration timeout;
+
+    public DailySummaryExportService(AccountDailyBalanceRepository repository,
+                                     DataSource dataSource,
+                                     @Value("${batch.export.fetch-size:5000}") int fetchSize,
+                                     @Value("${batch.export.flush-rows:10000}") long flushRows,
+                                     @Value("${batch.export.max-concurrent:2}") int maxConcurrent,
+                                     @Value("${batch.export.timeout:PT1H}") Duration timeout) {
+        this.repository = repository;
+        // PostgreSQL ne respecte le fetchSize qu'en dehors de l'autocommit (transaction de l'export)
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.cursorClient = JdbcClient.create(jdbcTemplate);
+        this.flushRows = Math.max(1, flushRows);
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.timeout = timeout;
+    }
+
+    /**
+     * Réserve une place d'export sans attendre.
+     *
+     * @return false si {@code max-concurrent} exports sont déjà en cours sur cette instance
+     */
+    public boolean tryAcquirePermit() {
+        return permits.tryAcquire();
+    }
+
+    public void releasePermit() {
+        permits.release();
+    }
+
+    /**
+     * Écrit le résumé de tous les comptes de la date dans {@code out}, dans l'ordre des comptes.
+     *
+     * @return nombre de comptes exportés
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDate balanceDate, SummaryExportFormat format, OutputStream out) {
+        long start = System.nanoTime();
+        boolean closed = repository.isBusinessDayClosed(balanceDate);
+        // Requêtes de la pagination par curseur, depuis le premier compte et sans limite (LIMIT NULL)
+        String sql = (closed ? AccountQuery.SELECT_CLOSED_DAILY_SUMMARY_AFTER : AccountQuery.SELECT_DAILY_SUMMARY_AFTER)
+                .replace("/**WHERE_CLAUSE**/", "WHERE a.id > :afterAccountId");
+        Map<String, Object> params = new HashMap<>();
+        params.put("balanceDate", balanceDate);
+        params.put("afterAccountId", 0L);
+        params.put("size", null);
+
+        try {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+            DailySummaryRowWriter rowWriter = new DailySummaryRowWriter(format, writer);
+            long[] rows = {0};
+            cursorClient.sql(sql)
+                    .params(params)
+                    .query(rs -> {
+                        try {
+                            rowWriter.write(rs);
+                            if (++rows[0] % flushRows == 0) {
+                                rowWriter.flush();
+                            }
+                        } catch (IOException e) {
+                            // Client déconnecté : la lecture du curseur est abandonnée
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            rowWriter.flush();
+            writer.flush();
+
+            log.info("Export {} du {} : {} comptes en {} ms", format, balanceDate, rows[0],
+                    (System.nanoTime() - start) / 1_000_000);
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export du résumé journalier du " + balanceDate + " interrompu", e);
+        }
+    }
+}
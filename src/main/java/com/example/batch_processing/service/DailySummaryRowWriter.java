@@ -0,0 +1,99 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.dto.AccountDailySummarySerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Classe DailySummaryRowWriter
+ * <p>
+ * Écrit les lignes du résumé journalier (colonnes de AccountQuery.SELECT_DAILY_SUMMARY) au fil du
+ * curseur, sans passer par AccountDailySummaryDTO : NDJSON (AccountDailySummarySerializer, mêmes champs
+ * que l'API) ou CSV.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class DailySummaryRowWriter {
+
+    static final String CSV_HEADER =
+            "account_id,customer_name,current_balance,balance_date,total_transactions,daily_total,daily_processed\n";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Writer out;
+    private final JsonGenerator json;
+
+    public DailySummaryRowWriter(SummaryExportFormat format, Writer out) throws IOException {
+        this.out = out;
+        if (format == SummaryExportFormat.NDJSON) {
+            // Séparateur entre objets racine écrit explicitement (\n) ; le flux reste celui de out
+            json = JSON_FACTORY.createGenerator(out);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        } else {
+            json = null;
+            out.write(CSV_HEADER);
+        }
+    }
+
+    public void write(ResultSet rs) throws SQLException, IOException {
+        if (json != null) {
+            AccountDailySummarySerializer.write(json, rs);
+            json.writeRaw('\n');
+            return;
+        }
+        // Colonnes lues par position, dans l'ordre des requêtes du résumé
+        write(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getString(4),
+                rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getBoolean(7));
+    }
+
+    void write(long accountId, String customerName, BigDecimal currentBalance, String balanceDate,
+               BigDecimal totalTransactions, BigDecimal dailyTotal, boolean dailyProcessed) throws IOException {
+        if (json != null) {
+            AccountDailySummarySerializer.write(json, accountId, customerName, currentBalance, balanceDate,
+                    totalTransactions, dailyTotal, dailyProcessed);
+            json.writeRaw('\n');
+            return;
+        }
+        out.append(Long.toString(accountId)).append(',');
+        appendCsv(customerName).append(',');
+        out.append(plain(currentBalance)).append(',')
+                .append(balanceDate).append(',')
+                .append(plain(totalTransactions)).append(',')
+                .append(plain(dailyTotal)).append(',')
+                .append(Boolean.toString(dailyProcessed)).append('\n');
+    }
+
+    /**
+     * Vide le tampon du générateur JSON et {@code out} vers la réponse.
+     */
+    public void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        } else {
+            out.flush();
+        }
+    }
+
+    private Writer appendCsv(String value) throws IOException {
+        if (value == null) {
+            return out;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return out.append(value);
+        }
+        return out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.batch_processing.service;
+
+/**
+ * Classe IngestionFormat
+ * <p>
+ * Formats acceptés par le chargement en masse des transactions (une transaction par ligne).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public enum IngestionFormat {
+
+    /** account_id,amount,status,transaction_date ; ligne d'en-tête facultative */
+    CSV,
+
+    /** Un objet JSON par ligne : {"account_id":1,"amount":12.50,"status":"VALIDATED","transaction_date":"2026-10-17"} */
+    NDJSON
+}
@@ -1,8 +1,13 @@
 package com.example.batch_processing.service;
 
+import com.example.batch_processing.query.BalanceQuery;
 import org.springframework.jdbc.core.simple.JdbcClient;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Classe JdbcClientWrapper
@@ -12,6 +17,36 @@ import java.util.Map;
  * @since 2026-02-17
  */
 public class JdbcClientWrapper {
+
+    /**
+     * Compteurs d'une application fusionnée : lignes account_daily_balance écrites et comptes mis à jour.
+     */
+    public record ApplyResult(int dailyUpserted, int accountsUpdated) {
+    }
+
+    /**
+     * Résultat d'un cumul intraday : transactions et comptes cumulés, watermark (created_xid, id) après le cumul.
+     */
+    public record FoldResult(int transactionsFolded, int accountsFolded, long lastXid, long lastTransactionId) {
+    }
+
+    /**
+     * Résultat d'un lot de recalculs à la clôture intraday : couples (compte, date) traités, totaux journaliers
+     * modifiés.
+     */
+    public record RecomputeResult(int dirtyProcessed, int dailyCorrected) {
+    }
+
+    private record Watermark(long lastXid, long lastTransactionId, Long activeFromXid) {
+    }
+
+    /**
+     * Résultat d'un lot de corrections : couples (compte, date) traités, totaux journaliers corrigés,
+     * comptes mis à jour.
+     */
+    public record CorrectionResult(int dirtyProcessed, int dailyCorrected, int accountsUpdated) {
+    }
+
     private final JdbcClient jdbcClient;
 
     public JdbcClientWrapper(JdbcClient jdbcClient) {
@@ -19,36 +54,154 @@ public class JdbcClientWrapper {
     }
 
     public int upsertDailyBalance(Map<String, Object> params) {
-        return jdbcClient.sql("""
-            INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed)
-            SELECT t.account_id, CURRENT_DATE - INTERVAL '1 day', SUM(t.amount), TRUE
-            FROM transactions t
-            WHERE t.transaction_date >= CURRENT_DATE - INTERVAL '1 day'
-                  AND t.transaction_date < CURRENT_DATE
-                  AND t.status = 'VALIDATED'
-                  AND t.account_id BETWEEN :minId AND :maxId
-            GROUP BY t.account_id
-            HAVING SUM(t.amount) <> 0
-            ON CONFLICT (account_id, balance_date)
-            DO UPDATE SET daily_total = EXCLUDED.daily_total,
-                          processed = TRUE
-            """)
+        return jdbcClient.sql(BalanceQuery.UPSERT_DAILY_BALANCE)
                 .paramSource(params)
                 .update();
     }
 
     public int updateAccountBalance(Map<String, Object> params) {
-        return jdbcClient.sql("""
-            UPDATE accounts a
-            SET balance = a.balance + adb.daily_total
-            FROM account_daily_balance adb
-            WHERE a.id = adb.account_id
-              AND adb.balance_date = CURRENT_DATE - INTERVAL '1 day'
-              AND adb.daily_total <> 0
-              AND a.id BETWEEN :minId AND :maxId
-            """)
+        return jdbcClient.sql(BalanceQuery.UPDATE_ACCOUNT_BALANCE)
                 .paramSource(params)
                 .update();
     }
-}
 
+    public ApplyResult applyDailyBalanceFused(Map<String, Object> params) {
+        return jdbcClient.sql(BalanceQuery.APPLY_DAILY_BALANCE_FUSED)
+                .paramSource(params)
+                .query((rs, rowNum) -> new ApplyResult(rs.getInt("daily_upserted"), rs.getInt("accounts_updated")))
+                .single();
+    }
+
+    /**
+     * Cumule le prochain lot de transactions de la date au-delà de son watermark (créé au besoin).
+     * À exécuter dans une transaction : le watermark reste verrouillé jusqu'au commit du cumul.
+     */
+    public FoldResult foldDailyTotals(LocalDate businessDate, int maxTransactions) {
+        int created = jdbcClient.sql(BalanceQuery.INIT_AGGREGATION_WATERMARK)
+                .param("businessDate", businessDate)
+                .update();
+        // Watermark créé par cette transaction : invisible du trigger jusqu'au commit, cumul au passage suivant
+        if (created > 0) {
+            return new FoldResult(0, 0, 0, 0);
+        }
+        Watermark watermark = jdbcClient.sql(BalanceQuery.LOCK_AGGREGATION_WATERMARK)
+                .param("businessDate", businessDate)
+                .query((rs, rowNum) -> new Watermark(rs.getLong("last_xid"), rs.getLong("last_transaction_id"),
+                        rs.getObject("active_from_xid", Long.class)))
+                .optional()
+                .orElse(null);
+        // Date déjà clôturée : plus de cumul intraday
+        if (watermark == null) {
+            return new FoldResult(0, 0, 0, 0);
+        }
+        long activeFromXid = watermark.activeFromXid() != null
+                ? watermark.activeFromXid()
+                : activateAggregationWatermark(businessDate, snapshotXmax());
+        return jdbcClient.sql(BalanceQuery.FOLD_DAILY_TOTALS)
+                .param("businessDate", businessDate)
+                .param("activeFromXid", activeFromXid)
+                .param("lastXid", watermark.lastXid())
+                .param("lastTransactionId", watermark.lastTransactionId())
+                .param("maxTransactions", maxTransactions)
+                .query((rs, rowNum) -> new FoldResult(rs.getInt("transactions_folded"), rs.getInt("accounts_folded"),
+                        rs.getLong("last_xid"), rs.getLong("last_transaction_id")))
+                .single();
+    }
+
+    /**
+     * Fixe (s'il ne l'est pas déjà) l'xid à partir duquel le watermark de la date est cumulé ; retourne l'xid retenu.
+     */
+    public long activateAggregationWatermark(LocalDate businessDate, long activeFromXid) {
+        return jdbcClient.sql(BalanceQuery.ACTIVATE_AGGREGATION_WATERMARK)
+                .param("businessDate", businessDate)
+                .param("activeFromXid", activeFromXid)
+                .query(Long.class)
+                .single();
+    }
+
+    /**
+     * Commence la clôture intraday de la date ; false si elle n'a pas (ou plus) de watermark.
+     */
+    public boolean beginAggregationClosing(LocalDate businessDate) {
+        return jdbcClient.sql(BalanceQuery.BEGIN_AGGREGATION_CLOSING)
+                .param("businessDate", businessDate)
+                .update() > 0;
+    }
+
+    /**
+     * xmax du snapshot courant : tout xid inférieur appartient à une transaction déjà commencée.
+     */
+    public long snapshotXmax() {
+        return jdbcClient.sql(BalanceQuery.SELECT_SNAPSHOT_XMAX)
+                .query(Long.class)
+                .single();
+    }
+
+    /**
+     * Vrai quand toutes les transactions d'xid inférieur à {@code xid} sont terminées.
+     */
+    public boolean snapshotXminReached(long xid) {
+        return Boolean.TRUE.equals(jdbcClient.sql(BalanceQuery.SELECT_SNAPSHOT_XMIN_REACHED)
+                .param("xid", xid)
+                .query(Boolean.class)
+                .single());
+    }
+
+    public RecomputeResult recomputeDirtyDailyTotals(LocalDate businessDate, int batchSize) {
+        return jdbcClient.sql(BalanceQuery.RECOMPUTE_DIRTY_DAILY_TOTALS)
+                .param("businessDate", businessDate)
+                .param("batchSize", batchSize)
+                .query((rs, rowNum) -> new RecomputeResult(rs.getInt("dirty_processed"), rs.getInt("daily_corrected")))
+                .single();
+    }
+
+    /**
+     * Supprime le watermark intraday de la date : elle est de nouveau agrégée en entier par les partitions.
+     */
+    public void deleteAggregationWatermark(LocalDate businessDate) {
+        jdbcClient.sql(BalanceQuery.DELETE_AGGREGATION_WATERMARK)
+                .param("businessDate", businessDate)
+                .update();
+    }
+
+    /**
+     * Dates de [fromDate, toDate] alimentées par l'agrégation intraday (watermark existant).
+     */
+    public Set<LocalDate> watermarkedDates(LocalDate fromDate, LocalDate toDate) {
+        return new HashSet<>(jdbcClient.sql(BalanceQuery.SELECT_WATERMARKED_DATES)
+                .param("fromDate", fromDate)
+                .param("toDate", toDate)
+                .query(LocalDate.class)
+                .list());
+    }
+
+    /**
+     * Marque la date clôturée et supprime son watermark intraday.
+     */
+    public void closeBusinessDay(LocalDate businessDate, long jobExecutionId) {
+        jdbcClient.sql(BalanceQuery.CLOSE_BUSINESS_DAY)
+                .param("businessDate", businessDate)
+                .param("jobExecutionId", jobExecutionId)
+                .update();
+        deleteAggregationWatermark(businessDate);
+    }
+
+    public CorrectionResult correctDirtyAccountDays(int batchSize, long jobExecutionId) {
+        return jdbcClient.sql(BalanceQuery.CORRECT_DIRTY_ACCOUNT_DAYS)
+                .param("batchSize", batchSize)
+                .param("jobExecutionId", jobExecutionId)
+                .query((rs, rowNum) -> new CorrectionResult(rs.getInt("dirty_processed"),
+                        rs.getInt("daily_corrected"), rs.getInt("accounts_updated")))
+                .single();
+    }
+
+    /**
+     * statement_timeout limité à la transaction courante : une requête qui le dépasse est annulée.
+     */
+    public void setLocalStatementTimeout(Duration timeout) {
+        jdbcClient.sql("SELECT set_config('statement_timeout', :timeout, true)")
+                .param("timeout", String.valueOf(timeout.toMillis()))
+                .query(String.class)
+                .single();
+    }
+}
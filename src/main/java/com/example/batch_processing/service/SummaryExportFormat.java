@@ -0,0 +1,35 @@
+package com.example.batch_processing.service;
+
+/**
+ * Classe SummaryExportFormat
+ * <p>
+ * Formats de l'export du résumé journalier (un compte par ligne).
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public enum SummaryExportFormat {
+
+    /** Un objet JSON par ligne, mêmes champs que GET /api/accounts/daily-summary */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** account_id,customer_name,current_balance,balance_date,total_transactions,daily_total,daily_processed */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    SummaryExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
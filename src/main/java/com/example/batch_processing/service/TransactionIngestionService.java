@@ -0,0 +1,264 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.exception.ApiException;
+import com.example.batch_processing.query.TransactionQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Classe TransactionIngestionService
+ * <p>
+ * Chargement en masse de la table transactions : le flux CSV ou NDJSON est lu ligne par ligne
+ * (lignes bornées à {@code max-line-length} caractères), chaque ligne validée puis transmise à
+ * PostgreSQL par {@code COPY ... FROM STDIN} (CopyManager) par blocs de 64 Ko. La mémoire utilisée
+ * ne dépend pas de la taille du fichier.
+ * <p>
+ * Le chargement est commité toutes les {@code rows-per-commit} transactions (un COPY par lot) : les
+ * lignes d'un gros fichier deviennent visibles au fil du chargement, sans une transaction d'écriture
+ * ouverte pendant tout l'envoi. Une ligne invalide (ou un compte inexistant) annule son lot ; la
+ * réponse indique les lignes déjà chargées et la ligne à partir de laquelle renvoyer le fichier corrigé.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Service
+@Slf4j
+public class TransactionIngestionService {
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final TransactionRowEncoder encoder;
+    private final long progressLogRows;
+    private final long rowsPerCommit;
+    private final int maxLineLength;
+
+    public TransactionIngestionService(DataSource dataSource,
+                                       @Value("${batch.ingestion.allowed-statuses:PENDING,VALIDATED,REJECTED}") Set<String> allowedStatuses,
+                                       @Value("${batch.ingestion.progress-log-rows:1000000}") long progressLogRows,
+                                       @Value("${batch.ingestion.rows-per-commit:100000}") long rowsPerCommit,
+                                       @Value("${batch.ingestion.max-line-length:4096}") int maxLineLength) {
+        this.dataSource = dataSource;
+        this.encoder = new TransactionRowEncoder(allowedStatuses);
+        this.progressLogRows = Math.max(1, progressLogRows);
+        this.rowsPerCommit = Math.max(1, rowsPerCommit);
+        this.maxLineLength = Math.max(1, maxLineLength);
+    }
+
+    /**
+     * Résultat d'un chargement : lignes insérées et débit obtenu.
+     */
+    public record IngestionResult(long rows, Duration elapsed) {
+
+        public long rowsPerSecond() {
+            long millis = Math.max(1, elapsed.toMillis());
+            return rows * 1000 / millis;
+        }
+    }
+
+    public IngestionResult ingest(InputStream body, IngestionFormat format) {
+        long start = System.nanoTime();
+        Upload upload = new Upload(new LineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength));
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                boolean more = true;
+                while (more) {
+                    more = copyBatch(copyManager, format, upload, start);
+                    connection.commit();
+                    upload.commit();
+                }
+            } catch (SQLException | RuntimeException | IOException e) {
+                rollbackQuietly(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (ApiException e) {
+            // Ligne invalide : numéro de ligne déjà dans le message
+            throw new ApiException(e.getMessage() + upload.resumeHint());
+        } catch (SQLException e) {
+            // Ex. compte inexistant (fk_account) : PostgreSQL indique la ligne du COPY en cause (dans le lot)
+            throw new ApiException("Chargement refusé : " + e.getMessage() + upload.resumeHint());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du flux de transactions interrompue" + upload.resumeHint(), e);
+        }
+
+        IngestionResult result = new IngestionResult(upload.committedRows, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Chargement {} : {} transactions en {} ms ({} lignes/s)",
+                format, result.rows(), result.elapsed().toMillis(), result.rowsPerSecond());
+        return result;
+    }
+
+    /**
+     * Un lot : au plus rowsPerCommit transactions dans un COPY. Retourne false une fois le flux épuisé.
+     */
+    private boolean copyBatch(CopyManager copyManager, IngestionFormat format, Upload upload, long start)
+            throws IOException, SQLException {
+        CopyIn copyIn = copyManager.copyIn(TransactionQuery.COPY_TRANSACTIONS);
+        try {
+            StringBuilder rows = new StringBuilder(COPY_BUFFER_BYTES + maxLineLength);
+            long batchRows = 0;
+            String line;
+            while (batchRows < rowsPerCommit && (line = upload.reader.readLine(upload.lineNumber + 1)) != null) {
+                if (!encoder.encode(format, line, ++upload.lineNumber, rows)) {
+                    continue;
+                }
+                batchRows++;
+                if ((upload.committedRows + batchRows) % progressLogRows == 0) {
+                    long encoded = upload.committedRows + batchRows;
+                    long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                    log.info("Chargement {} : {} transactions ({} lignes/s)", format, encoded, encoded * 1000 / millis);
+                }
+                if (rows.length() >= COPY_BUFFER_BYTES) {
+                    flush(copyIn, rows);
+                }
+            }
+            flush(copyIn, rows);
+            upload.batchRows = copyIn.endCopy();
+            return batchRows == rowsPerCommit;
+        } finally {
+            cancelQuietly(copyIn);
+        }
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        rows.setLength(0);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+    }
+
+    private static void cancelQuietly(CopyIn copyIn) {
+        if (copyIn == null || !copyIn.isActive()) {
+            return;
+        }
+        try {
+            copyIn.cancelCopy();
+        } catch (SQLException e) {
+            log.warn("Annulation du COPY transactions impossible", e);
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.warn("Annulation du lot de transactions impossible", e);
+        }
+    }
+
+    // ================= ÉTAT DU CHARGEMENT =================
+    private static final class Upload {
+
+        private final LineReader reader;
+        private long lineNumber;
+        private long batchRows;
+        private long committedRows;
+        private long committedLines;
+
+        private Upload(LineReader reader) {
+            this.reader = reader;
+        }
+
+        private void commit() {
+            committedRows += batchRows;
+            committedLines = lineNumber;
+            batchRows = 0;
+        }
+
+        private String resumeHint() {
+            if (committedRows == 0) {
+                return "";
+            }
+            return " ; " + committedRows + " transactions déjà chargées (lignes 1 à " + committedLines
+                    + "), renvoyer le fichier à partir de la ligne " + (committedLines + 1);
+        }
+    }
+
+    // ================= LECTURE DES LIGNES =================
+
+    /**
+     * Lecture ligne par ligne (séparateur \n, \r final retiré) d'au plus maxLength caractères :
+     * contrairement à BufferedReader.readLine, une ligne sans fin ne peut pas épuiser la mémoire.
+     */
+    static final class LineReader {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return la ligne suivante, null en fin de flux
+         */
+        String readLine(long lineNumber) throws IOException {
+            line.setLength(0);
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(0, reader.read(buffer, 0, buffer.length));
+                    position = 0;
+                    if (limit == 0) {
+                        return line.isEmpty() ? null : endLine(lineNumber);
+                    }
+                }
+                for (int i = position; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        append(i, lineNumber);
+                        position = i + 1;
+                        return endLine(lineNumber);
+                    }
+                }
+                append(limit, lineNumber);
+                position = limit;
+            }
+        }
+
+        private void append(int end, long lineNumber) {
+            // + 1 : \r d'une fin de ligne Windows
+            if (line.length() + (end - position) > maxLength + 1) {
+                throw new ApiException("Ligne " + lineNumber + " : plus de " + maxLength + " caractères");
+            }
+            line.append(buffer, position, end - position);
+        }
+
+        private String endLine(long lineNumber) {
+            if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            if (line.length() > maxLength) {
+                throw new ApiException("Ligne " + lineNumber + " : plus de " + maxLength + " caractères");
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.exception.ApiException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Classe TransactionRowEncoder
+ * <p>
+ * Valide une ligne CSV ou NDJSON et l'écrit au format texte de {@code COPY} (champs séparés par
+ * des tabulations) : account_id, amount, status, transaction_date. Les valeurs validées sont
+ * recopiées telles quelles (aucun BigDecimal par ligne) ; une ligne invalide lève une
+ * {@link ApiException} indiquant son numéro.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TransactionRowEncoder {
+
+    // numeric(18, 2) : au plus 16 chiffres avant la virgule et 2 après
+    private static final Pattern AMOUNT = Pattern.compile("-?\\d{1,16}(\\.\\d{1,2})?");
+    private static final String CSV_HEADER = "account_id";
+
+    private final Set<String> allowedStatuses;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public TransactionRowEncoder(Set<String> allowedStatuses) {
+        this.allowedStatuses = allowedStatuses;
+    }
+
+    /**
+     * @return false si la ligne est ignorée (ligne vide, en-tête CSV)
+     */
+    public boolean encode(IngestionFormat format, String line, long lineNumber, StringBuilder target) {
+        if (line.isBlank()) {
+            return false;
+        }
+        return switch (format) {
+            case CSV -> encodeCsv(line, lineNumber, target);
+            case NDJSON -> encodeJson(line, lineNumber, target);
+        };
+    }
+
+    // ================= CSV =================
+    private boolean encodeCsv(String line, long lineNumber, StringBuilder target) {
+        String[] fields = line.split(",", -1);
+        if (lineNumber == 1 && unquote(fields[0]).equalsIgnoreCase(CSV_HEADER)) {
+            return false;
+        }
+        if (fields.length != 4) {
+            throw invalid(lineNumber, "4 colonnes attendues (account_id,amount,status,transaction_date), " + fields.length + " reçues");
+        }
+        append(target, lineNumber, unquote(fields[0]), unquote(fields[1]), unquote(fields[2]), unquote(fields[3]));
+        return true;
+    }
+
+    private static String unquote(String field) {
+        String value = field.strip();
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            return value.substring(1, value.length() - 1).strip();
+        }
+        return value;
+    }
+
+    // ================= NDJSON =================
+    private boolean encodeJson(String line, long lineNumber, StringBuilder target) {
+        String accountId = null;
+        String amount = null;
+        String status = null;
+        String transactionDate = null;
+
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalid(lineNumber, "objet JSON attendu");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    throw invalid(lineNumber, "valeur scalaire attendue pour " + name);
+                }
+                switch (name) {
+                    case "account_id", "accountId" -> accountId = parser.getText();
+                    case "amount" -> amount = parser.getText();
+                    case "status" -> status = parser.getText();
+                    case "transaction_date", "transactionDate" -> transactionDate = parser.getText();
+                    default -> {
+                        // champ inconnu ignoré
+                    }
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                throw invalid(lineNumber, "un seul objet JSON attendu par ligne");
+            }
+        } catch (JsonProcessingException e) {
+            throw invalid(lineNumber, "JSON invalide (" + e.getOriginalMessage() + ")");
+        } catch (IOException e) {
+            throw invalid(lineNumber, "JSON illisible (" + e.getMessage() + ")");
+        }
+
+        append(target, lineNumber, accountId, amount, status, transactionDate);
+        return true;
+    }
+
+    // ================= VALIDATION =================
+    private void append(StringBuilder target, long lineNumber,
+                        String accountId, String amount, String status, String transactionDate) {
+        long id;
+        try {
+            id = Long.parseLong(required(accountId, "account_id", lineNumber));
+        } catch (NumberFormatException e) {
+            throw invalid(lineNumber, "account_id non numérique : " + accountId);
+        }
+        if (id <= 0) {
+            throw invalid(lineNumber, "account_id doit être > 0 : " + accountId);
+        }
+        if (!AMOUNT.matcher(required(amount, "amount", lineNumber)).matches()) {
+            throw invalid(lineNumber, "amount invalide (numeric(18, 2)) : " + amount);
+        }
+        if (!allowedStatuses.contains(required(status, "status", lineNumber))) {
+            throw invalid(lineNumber, "status inconnu : " + status + " (attendu : " + allowedStatuses + ")");
+        }
+        try {
+            LocalDate.parse(required(transactionDate, "transaction_date", lineNumber));
+        } catch (DateTimeParseException e) {
+            throw invalid(lineNumber, "transaction_date invalide (AAAA-MM-JJ) : " + transactionDate);
+        }
+
+        target.append(id).append('\t')
+                .append(amount).append('\t')
+                .append(status).append('\t')
+                .append(transactionDate).append('\n');
+    }
+
+    private static String required(String value, String field, long lineNumber) {
+        if (value == null || value.isEmpty()) {
+            throw invalid(lineNumber, field + " manquant");
+        }
+        return value;
+    }
+
+    private static ApiException invalid(long lineNumber, String message) {
+        return new ApiException("Ligne " + lineNumber + " : " + message);
+    }
+}
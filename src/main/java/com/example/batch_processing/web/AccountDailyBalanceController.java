@@ -2,19 +2,38 @@ package com.example.batch_processing.web;
 
 import com.example.batch_processing.domain.Response;
 import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.BusinessDayVersion;
+import com.example.batch_processing.dto.DailySummaryCursor;
+import com.example.batch_processing.dto.DailySummaryLookupRequest;
+import com.example.batch_processing.exception.ApiException;
+import com.example.batch_processing.exception.ServiceBusyException;
 import com.example.batch_processing.service.AccountDailyBalanceService;
+import com.example.batch_processing.service.DailySummaryExportService;
+import com.example.batch_processing.service.SummaryExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Classe AccountDailyBalanceController
@@ -29,35 +48,192 @@ import java.util.Map;
 @Validated
 public class AccountDailyBalanceController {
 
+    // Une page est construite entièrement en mémoire : au-delà, utiliser l'export en streaming
+    static final int MAX_PAGE_SIZE = 10_000;
+
+    // Comptes par recherche groupée : un seul tableau lié à la requête
+    static final int MAX_LOOKUP_ACCOUNTS = 1_000;
+
+    // Délai conseillé au client quand tous les exports sont occupés
+    static final long EXPORT_RETRY_AFTER_SECONDS = 30;
+
     private final AccountDailyBalanceService service;
+    private final DailySummaryExportService exportService;
 
+    /**
+     * Résumé journalier paginé. Deux modes :
+     * <ul>
+     *   <li>{@code page} / {@code size} : pagination par OFFSET, dont le coût croît avec la profondeur ;</li>
+     *   <li>{@code cursor} : jeton {@code nextCursor} de la page précédente, pagination par clé à coût
+     *   constant (parcours complet des comptes). La date est celle du jeton.</li>
+     * </ul>
+     * {@code nextCursor} est renvoyé tant que la page est pleine.
+     * <p>
+     * Pour une date clôturée, la réponse porte un ETag (version de la date et page) et un Last-Modified :
+     * une requête conditionnelle à jour reçoit 304 Not Modified sans lecture en base.
+     */
     @GetMapping("/daily-summary")
     public ResponseEntity<Response> getDailySummary(
             @RequestParam(defaultValue = "1")
             @Min(value = 1, message = "page doit être > 0") int page,
 
             @RequestParam(defaultValue = "20")
-            @Min(value = 1, message = "size doit être > 0") int size,
+            @Min(value = 1, message = "size doit être > 0")
+            @Max(value = MAX_PAGE_SIZE, message = "size doit être <= " + MAX_PAGE_SIZE
+                    + " (tous les comptes : /api/accounts/daily-summary/export)") int size,
 
             @RequestParam(required = false) Long accountId,
-            @RequestParam(required = false) String date
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String cursor,
+
+            WebRequest webRequest
     ) {
 
+        DailySummaryCursor after = StringUtils.isNotBlank(cursor) ? DailySummaryCursor.decode(cursor) : null;
+
         LocalDate balanceDate = (StringUtils.isNotBlank(date))
                 ? LocalDate.parse(date)
+                : (after != null) ? after.balanceDate() : LocalDate.now().minusDays(1);
+
+        if (after != null && !after.balanceDate().equals(balanceDate)) {
+            throw new ApiException("Le curseur porte sur le " + after.balanceDate() + ", pas sur le " + balanceDate);
+        }
+
+        Optional<BusinessDayVersion> version = service.getBusinessDayVersion(balanceDate);
+        String etag = version
+                .map(v -> v.etag(pageKey(after, page, size, accountId)))
+                .orElse(null);
+        if (version.isPresent() && webRequest.checkNotModified(etag, version.get().lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        List<AccountDailySummaryDTO> result = (after != null)
+                ? service.getDailySummaryAfter(balanceDate, accountId, after.afterAccountId(), size)
+                : service.getDailySummary(balanceDate, accountId, page, size);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("accounts", result);
+        data.put("page", 0);
+        if (result.size() == size) {
+            Long lastAccountId = result.get(result.size() - 1).getAccountId();
+            data.put("nextCursor", new DailySummaryCursor(balanceDate, lastAccountId).encode());
+        }
+
+        Response response = Response.builder()
+                .time(LocalDateTime.now().toString())
+                .code(HttpStatus.OK.value())
+                .status(HttpStatus.OK)
+                .message("Résumé journalier récupéré avec succès")
+                .data(data)
+                .build();
+
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(version.get().lastModified())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response);
+    }
+
+    // Paramètres qui identifient la page dans l'ETag (la date y figure déjà)
+    private static String pageKey(DailySummaryCursor after, int page, int size, Long accountId) {
+        String key = (after != null) ? "a" + after.afterAccountId() : "p" + page;
+        return key + "s" + size + ((accountId != null) ? "c" + accountId : "");
+    }
+
+    /**
+     * Résumé journalier d'une liste de comptes (au plus {@value #MAX_LOOKUP_ACCOUNTS}) en un appel et une
+     * requête, dans l'ordre de la demande. Les comptes inexistants sont listés dans {@code notFound}.
+     */
+    @PostMapping("/daily-summary/lookup")
+    public ResponseEntity<Response> lookupDailySummary(@RequestBody DailySummaryLookupRequest request) {
+
+        List<Long> accountIds = request.accountIds();
+        if (accountIds == null || accountIds.isEmpty() || accountIds.contains(null)) {
+            throw new ApiException("accountIds doit contenir au moins un compte");
+        }
+        if (accountIds.size() > MAX_LOOKUP_ACCOUNTS) {
+            throw new ApiException("accountIds doit contenir au plus " + MAX_LOOKUP_ACCOUNTS + " comptes");
+        }
+
+        LocalDate balanceDate = (StringUtils.isNotBlank(request.date()))
+                ? LocalDate.parse(request.date())
                 : LocalDate.now().minusDays(1);
 
-        List<AccountDailySummaryDTO> result =
-                service.getDailySummary(balanceDate, accountId, page, size);
+        List<AccountDailySummaryDTO> result = service.getDailySummaries(balanceDate, accountIds);
+
+        Set<Long> notFound = new LinkedHashSet<>(accountIds);
+        result.forEach(summary -> notFound.remove(summary.getAccountId()));
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("accounts", result);
+        data.put("notFound", notFound);
 
         Response response = Response.builder()
                 .time(LocalDateTime.now().toString())
                 .code(HttpStatus.OK.value())
                 .status(HttpStatus.OK)
                 .message("Résumé journalier récupéré avec succès")
-                .data(Map.of("accounts", result, "page", 0))
+                .data(data)
                 .build();
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Résumé journalier de tous les comptes d'une date (par défaut la veille), transmis en streaming
+     * dans l'ordre des comptes : un objet JSON par ligne ({@code format=ndjson}) ou CSV.
+     * <p>
+     * Le délai de la requête asynchrone ({@code batch.export.timeout}) ne vaut que pour cet endpoint. Le
+     * permis d'export est rendu par la tâche quand elle se termine (la connexion est alors libérée), ou à
+     * la fin de la requête si la tâche n'a jamais démarré.
+     */
+    @GetMapping("/daily-summary/export")
+    public WebAsyncTask<Void> exportDailySummary(
+            @RequestParam(required = false) String date,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) {
+
+        SummaryExportFormat exportFormat = EnumUtils.getEnumIgnoreCase(SummaryExportFormat.class, format);
+        if (exportFormat == null) {
+            throw new ApiException("format doit être ndjson ou csv");
+        }
+
+        LocalDate balanceDate = (StringUtils.isNotBlank(date))
+                ? LocalDate.parse(date)
+                : LocalDate.now().minusDays(1);
+
+        if (!exportService.tryAcquirePermit()) {
+            throw new ServiceBusyException("Trop d'exports en cours, réessayer plus tard", EXPORT_RETRY_AFTER_SECONDS);
+        }
+
+        response.setContentType(exportFormat.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("daily-summary-" + balanceDate + "." + exportFormat.getExtension())
+                .build()
+                .toString());
+
+        // Pris par la tâche au démarrage ou par la fin de requête : le permis n'est rendu qu'une fois
+        AtomicBoolean claimed = new AtomicBoolean();
+        WebAsyncTask<Void> task = new WebAsyncTask<>(exportService.getTimeout().toMillis(), () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                exportService.export(balanceDate, exportFormat, response.getOutputStream());
+                return null;
+            } finally {
+                exportService.releasePermit();
+            }
+        });
+        task.onCompletion(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                exportService.releasePermit();
+            }
+        });
+        return task;
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.batch_processing.web;
+
+import com.example.batch_processing.batch.BusinessDates;
+import com.example.batch_processing.batch.EndOfDayJobService;
+import com.example.batch_processing.domain.Response;
+import com.example.batch_processing.exception.ApiException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Classe BatchJobController
+ * <p>
+ * Pilotage manuel des exécutions du batch de fin de journée : lancement pour une date métier,
+ * rattrapage sur plusieurs jours et redémarrage d'une exécution en échec.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+public class BatchJobController {
+
+    @Value("${batch.eod.zone:America/Toronto}")
+    private ZoneId batchZone;
+
+    private final JobOperator jobOperator;
+    private final EndOfDayJobService endOfDayJobService;
+
+    /**
+     * Lance le job de fin de journée pour une date métier (la veille par défaut).
+     */
+    @PostMapping("/end-of-day")
+    public ResponseEntity<Response> launch(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate,
+            @RequestParam(required = false) String workerMode
+    ) {
+        LocalDate date = (businessDate != null) ? businessDate : BusinessDates.yesterday(batchZone);
+
+        JobExecution execution;
+        try {
+            execution = endOfDayJobService.launch(date, workerMode);
+        } catch (Exception e) {
+            throw new ApiException("Impossible de lancer le batch pour le " + date + " : " + e.getMessage());
+        }
+
+        return accepted("Batch de fin de journée lancé",
+                Map.of("executionId", execution.getId(), "businessDate", date.toString()));
+    }
+
+    /**
+     * Rattrapage : recalcule chaque jour de [fromDate, toDate] dans une seule exécution partitionnée.
+     */
+    @PostMapping("/end-of-day/backfill")
+    public ResponseEntity<Response> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String workerMode
+    ) {
+        JobExecution execution;
+        try {
+            execution = endOfDayJobService.backfill(fromDate, toDate, workerMode);
+        } catch (Exception e) {
+            throw new ApiException("Impossible de lancer le rattrapage du " + fromDate + " au " + toDate + " : " + e.getMessage());
+        }
+
+        return accepted("Rattrapage lancé",
+                Map.of("executionId", execution.getId(), "fromDate", fromDate.toString(), "toDate", toDate.toString()));
+    }
+
+    /**
+     * Corrige les dates déjà clôturées dont des transactions sont arrivées ou ont changé depuis.
+     */
+    @PostMapping("/corrections")
+    public ResponseEntity<Response> correctLateArrivals() {
+        JobExecution execution;
+        try {
+            execution = endOfDayJobService.correctLateArrivals();
+        } catch (Exception e) {
+            throw new ApiException("Impossible de lancer la correction : " + e.getMessage());
+        }
+
+        return accepted("Correction lancée", Map.of("executionId", execution.getId()));
+    }
+
+    /**
+     * Redémarre une exécution en échec : seules les partitions non terminées sont relancées,
+     * chacune à partir de son dernier point de reprise (lastProcessedId).
+     */
+    @PostMapping("/executions/{executionId}/restart")
+    public ResponseEntity<Response> restart(@PathVariable long executionId) {
+        Long restartedExecutionId;
+        try {
+            restartedExecutionId = jobOperator.restart(executionId);
+        } catch (Exception e) {
+            throw new ApiException("Impossible de redémarrer l'exécution " + executionId + " : " + e.getMessage());
+        }
+
+        return accepted("Exécution redémarrée",
+                Map.of("previousExecutionId", executionId, "executionId", restartedExecutionId));
+    }
+
+    private ResponseEntity<Response> accepted(String message, Map<?, ?> data) {
+        Response response = Response.builder()
+                .time(LocalDateTime.now().toString())
+                .code(HttpStatus.ACCEPTED.value())
+                .status(HttpStatus.ACCEPTED)
+                .message(message)
+                .data(data)
+                .build();
+
+        return ResponseEntity.accepted().body(response);
+    }
+}
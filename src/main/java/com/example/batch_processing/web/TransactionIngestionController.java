@@ -0,0 +1,70 @@
+package com.example.batch_processing.web;
+
+import com.example.batch_processing.domain.Response;
+import com.example.batch_processing.service.IngestionFormat;
+import com.example.batch_processing.service.TransactionIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Classe TransactionIngestionController
+ * <p>
+ * Chargement en masse des transactions consommées par le batch de fin de journée. Le corps de la
+ * requête est transmis en streaming à PostgreSQL ({@code COPY}) : le fichier n'est jamais chargé
+ * en mémoire.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@RestController
+@RequestMapping("/api/transactions")
+@RequiredArgsConstructor
+public class TransactionIngestionController {
+
+    static final String TEXT_CSV = "text/csv";
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final TransactionIngestionService ingestionService;
+
+    /**
+     * account_id,amount,status,transaction_date (ligne d'en-tête facultative).
+     */
+    @PostMapping(value = "/bulk", consumes = TEXT_CSV)
+    public ResponseEntity<Response> ingestCsv(InputStream body) {
+        return ingest(body, IngestionFormat.CSV);
+    }
+
+    /**
+     * Un objet JSON par ligne : account_id, amount, status, transaction_date.
+     */
+    @PostMapping(value = "/bulk", consumes = APPLICATION_NDJSON)
+    public ResponseEntity<Response> ingestNdjson(InputStream body) {
+        return ingest(body, IngestionFormat.NDJSON);
+    }
+
+    private ResponseEntity<Response> ingest(InputStream body, IngestionFormat format) {
+        TransactionIngestionService.IngestionResult result = ingestionService.ingest(body, format);
+
+        Response response = Response.builder()
+                .time(LocalDateTime.now().toString())
+                .code(HttpStatus.OK.value())
+                .status(HttpStatus.OK)
+                .message("Transactions chargées")
+                .data(Map.of(
+                        "rows", result.rows(),
+                        "elapsedMs", result.elapsed().toMillis(),
+                        "rowsPerSecond", result.rowsPerSecond()))
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+}
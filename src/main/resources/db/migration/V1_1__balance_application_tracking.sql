@@ -0,0 +1,20 @@
+-- Application des soldes suivie dans account_daily_balance : applied_total est le montant déjà reporté
+-- dans accounts.balance pour le couple (compte, date) ; une relance n'applique que l'écart.
+
+
+-- public.account_daily_balance
+
+ALTER TABLE public.account_daily_balance
+	ADD COLUMN applied_total numeric(18, 2) NULL,
+	ADD COLUMN applied_job_execution_id int8 NULL,
+	ADD COLUMN applied_at timestamp NULL;
+
+-- Lignes déjà traitées par le batch d'origine : leur total est déjà dans accounts.balance
+UPDATE public.account_daily_balance
+SET applied_total = daily_total,
+	applied_at = now()
+WHERE processed;
+
+-- Lignes dont le total n'est pas (ou plus) reporté dans accounts.balance : seules lignes lues par une relance
+CREATE INDEX idx_adb_unapplied ON public.account_daily_balance USING btree (balance_date, account_id)
+	WHERE applied_total IS DISTINCT FROM daily_total;
@@ -0,0 +1,27 @@
+-- public.eod_work_queue definition
+-- File de partitions du job de fin de journée en mode distribué (batch.eod.remote.enabled) :
+-- le step gestionnaire y dépose une ligne par partition, les workers de chaque instance les réclament
+-- (FOR UPDATE SKIP LOCKED) et y reportent le statut final
+
+-- Drop table
+
+-- DROP TABLE public.eod_work_queue;
+
+CREATE TABLE public.eod_work_queue (
+	id bigserial NOT NULL,
+	job_execution_id int8 NOT NULL,
+	step_execution_id int8 NOT NULL,
+	worker_step_name varchar(100) NOT NULL,
+	weight int8 DEFAULT 0 NOT NULL,
+	status varchar(10) DEFAULT 'PENDING' NOT NULL,
+	claimed_by varchar(100) NULL,
+	claimed_at timestamp NULL,
+	heartbeat_at timestamp NULL,
+	finished_at timestamp NULL,
+	created_at timestamp DEFAULT now() NULL,
+	CONSTRAINT eod_work_queue_pkey PRIMARY KEY (id),
+	CONSTRAINT eod_work_queue_step_execution_uk UNIQUE (step_execution_id)
+);
+-- Prochaines partitions à réclamer : les plus lourdes d'abord
+CREATE INDEX idx_eod_work_queue_pending ON public.eod_work_queue USING btree (weight DESC, id) WHERE status = 'PENDING';
+CREATE INDEX idx_eod_work_queue_job ON public.eod_work_queue USING btree (job_execution_id, status);
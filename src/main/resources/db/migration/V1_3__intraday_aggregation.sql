@@ -0,0 +1,22 @@
+-- public.daily_aggregation_watermark definition
+-- Agrégation intraday : plus grand transactions.id déjà cumulé dans account_daily_balance.daily_total
+-- pour la date. Une date présente ici est clôturée par le job de fin de journée en ne cumulant que
+-- le reliquat au-delà du watermark, puis en appliquant les soldes.
+
+-- Drop table
+
+-- DROP TABLE public.daily_aggregation_watermark;
+
+CREATE TABLE public.daily_aggregation_watermark (
+	balance_date date NOT NULL,
+	last_transaction_id int8 DEFAULT 0 NOT NULL,
+	updated_at timestamp DEFAULT now() NULL,
+	CONSTRAINT daily_aggregation_watermark_pkey PRIMARY KEY (balance_date)
+);
+
+
+-- public.transactions
+
+-- Agrégation intraday : transactions VALIDATED d'une date au-delà du watermark, dans l'ordre des ids
+CREATE INDEX idx_transactions_date_id_validated ON public.transactions USING btree (transaction_date, id)
+	WHERE status = 'VALIDATED';
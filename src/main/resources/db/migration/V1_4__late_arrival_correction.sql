@@ -0,0 +1,66 @@
+-- public.business_day_close definition
+-- Dates métier clôturées par le job de fin de journée. version est incrémentée à chaque clôture
+-- ou correction de la date (totaux ou soldes modifiés).
+
+-- Drop table
+
+-- DROP TABLE public.business_day_close;
+
+CREATE TABLE public.business_day_close (
+	balance_date date NOT NULL,
+	closed_at timestamp DEFAULT now() NOT NULL,
+	job_execution_id int8 NULL,
+	version int8 DEFAULT 1 NOT NULL,
+	updated_at timestamp DEFAULT now() NOT NULL,
+	CONSTRAINT business_day_close_pkey PRIMARY KEY (balance_date)
+);
+
+-- Dates déjà traitées par le batch de fin de journée : considérées comme clôturées
+INSERT INTO public.business_day_close (balance_date)
+SELECT DISTINCT balance_date FROM public.account_daily_balance WHERE processed;
+
+
+-- public.dirty_account_day definition
+-- Couples (compte, date) dont les transactions ont changé après avoir été comptées : date clôturée,
+-- ou transaction déjà cumulée par l'agrégation intraday (id <= watermark). Alimentée par trigger,
+-- vidée par le job de correction.
+
+-- Drop table
+
+-- DROP TABLE public.dirty_account_day;
+
+CREATE TABLE public.dirty_account_day (
+	account_id int8 NOT NULL,
+	balance_date date NOT NULL,
+	marked_at timestamp DEFAULT clock_timestamp() NOT NULL,
+	CONSTRAINT dirty_account_day_pkey PRIMARY KEY (balance_date, account_id)
+);
+
+CREATE OR REPLACE FUNCTION public.mark_dirty_account_day(p_transaction_id int8, p_account_id int8, p_date date)
+RETURNS void AS $$
+BEGIN
+	IF EXISTS (SELECT 1 FROM public.business_day_close c WHERE c.balance_date = p_date)
+	   OR EXISTS (SELECT 1 FROM public.daily_aggregation_watermark w
+	              WHERE w.balance_date = p_date AND p_transaction_id <= w.last_transaction_id) THEN
+		INSERT INTO public.dirty_account_day (account_id, balance_date)
+		VALUES (p_account_id, p_date)
+		ON CONFLICT (balance_date, account_id) DO UPDATE SET marked_at = clock_timestamp();
+	END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION public.transactions_mark_dirty() RETURNS trigger AS $$
+BEGIN
+	IF TG_OP IN ('UPDATE', 'DELETE') THEN
+		PERFORM public.mark_dirty_account_day(OLD.id, OLD.account_id, OLD.transaction_date);
+	END IF;
+	IF TG_OP IN ('INSERT', 'UPDATE') THEN
+		PERFORM public.mark_dirty_account_day(NEW.id, NEW.account_id, NEW.transaction_date);
+	END IF;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transactions_mark_dirty
+	AFTER INSERT OR DELETE OR UPDATE OF status, amount, account_id, transaction_date ON public.transactions
+	FOR EACH ROW EXECUTE FUNCTION public.transactions_mark_dirty();
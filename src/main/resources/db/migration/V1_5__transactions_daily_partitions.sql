@@ -0,0 +1,82 @@
+-- public.transactions partitionnée par jour sur transaction_date : le batch de fin de journée
+-- (WHERE transaction_date = date) ne lit qu'une partition, et les jours expirés sont détachés sans DELETE
+-- ni maintenance d'index. Les partitions à venir sont créées par TransactionPartitionMaintenance
+-- (create_transaction_partitions) et détachées après la rétention.
+--
+-- La table existante est recopiée dans la table partitionnée : sur une base volumineuse, prévoir la durée
+-- de la copie (verrou exclusif sur transactions pendant la migration).
+
+ALTER TABLE public.transactions RENAME TO transactions_legacy;
+ALTER TABLE public.transactions_legacy RENAME CONSTRAINT transactions_pkey TO transactions_legacy_pkey;
+DROP TRIGGER trg_transactions_mark_dirty ON public.transactions_legacy;
+DROP INDEX public.idx_transactions_account;
+DROP INDEX public.idx_transactions_date_status;
+DROP INDEX public.idx_transactions_date_id_validated;
+
+
+-- public.transactions definition
+
+-- Drop table
+
+-- DROP TABLE public.transactions;
+
+CREATE TABLE public.transactions (
+	-- même séquence que la table d'origine
+	id int8 DEFAULT nextval('public.transactions_id_seq') NOT NULL,
+	account_id int8 NOT NULL,
+	amount numeric(18, 2) NOT NULL,
+	status varchar(20) NOT NULL,
+	transaction_date date NOT NULL,
+	created_at timestamp DEFAULT now() NULL,
+	-- la clé de partitionnement fait partie de la clé primaire ; id reste unique (séquence)
+	CONSTRAINT transactions_pkey PRIMARY KEY (id, transaction_date)
+) PARTITION BY RANGE (transaction_date);
+CREATE INDEX idx_transactions_account ON public.transactions USING btree (account_id);
+CREATE INDEX idx_transactions_date_status ON public.transactions USING btree (transaction_date, status);
+-- Agrégation intraday : transactions VALIDATED d'une date au-delà du watermark, dans l'ordre des ids
+CREATE INDEX idx_transactions_date_id_validated ON public.transactions USING btree (transaction_date, id)
+	WHERE status = 'VALIDATED';
+
+
+-- public.transactions foreign keys
+
+ALTER TABLE public.transactions ADD CONSTRAINT fk_account FOREIGN KEY (account_id) REFERENCES public.accounts(id);
+
+-- public.transactions partitions
+-- Une partition transactions_AAAAMMJJ par jour de [from_date, to_date] ; les jours existants sont ignorés.
+-- Retourne le nombre de partitions créées.
+
+CREATE OR REPLACE FUNCTION public.create_transaction_partitions(from_date date, to_date date) RETURNS int AS $$
+DECLARE
+	d date := from_date;
+	partition_name text;
+	created int := 0;
+BEGIN
+	WHILE d <= to_date LOOP
+		partition_name := 'transactions_' || to_char(d, 'YYYYMMDD');
+		IF to_regclass('public.' || partition_name) IS NULL THEN
+			EXECUTE format('CREATE TABLE public.%I PARTITION OF public.transactions FOR VALUES FROM (%L) TO (%L)',
+			               partition_name, d, d + 1);
+			created := created + 1;
+		END IF;
+		d := d + 1;
+	END LOOP;
+	RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Jours présents dans la table d'origine ; les suivants sont créés au démarrage de l'application
+SELECT public.create_transaction_partitions(MIN(transaction_date), MAX(transaction_date))
+FROM public.transactions_legacy;
+
+INSERT INTO public.transactions (id, account_id, amount, status, transaction_date, created_at)
+SELECT id, account_id, amount, status, transaction_date, created_at
+FROM public.transactions_legacy;
+
+ALTER SEQUENCE public.transactions_id_seq OWNED BY public.transactions.id;
+DROP TABLE public.transactions_legacy;
+
+-- Trigger des arrivées tardives, recréé sur la table partitionnée après la copie
+CREATE TRIGGER trg_transactions_mark_dirty
+	AFTER INSERT OR DELETE OR UPDATE OF status, amount, account_id, transaction_date ON public.transactions
+	FOR EACH ROW EXECUTE FUNCTION public.transactions_mark_dirty();
@@ -1,4 +1,21 @@
 --Bussiness Table -------
+-- Schéma d'origine (ancien schema-batch.sql). Une base créée avant Flyway est marquée en version 1
+-- (baseline-on-migrate) puis reçoit toutes les migrations suivantes.
+
+-- public.accounts definition
+
+-- Drop table
+
+-- DROP TABLE public.accounts;
+
+CREATE TABLE public.accounts (
+	id bigserial NOT NULL,
+	customer_name varchar(100) NULL,
+	balance numeric(18, 2) DEFAULT 0 NOT NULL,
+	created_at timestamp DEFAULT now() NULL,
+	CONSTRAINT accounts_pkey PRIMARY KEY (id)
+);
+
 
 -- public.account_daily_balance definition
 
@@ -42,20 +59,6 @@ CREATE INDEX idx_transactions_date_status ON public.transactions USING btree (tr
 
 ALTER TABLE public.transactions ADD CONSTRAINT fk_account FOREIGN KEY (account_id) REFERENCES public.accounts(id);
 
--- public.accounts definition
-
--- Drop table
-
--- DROP TABLE public.accounts;
-
-CREATE TABLE public.accounts (
-	id bigserial NOT NULL,
-	customer_name varchar(100) NULL,
-	balance numeric(18, 2) DEFAULT 0 NOT NULL,
-	created_at timestamp DEFAULT now() NULL,
-	CONSTRAINT accounts_pkey PRIMARY KEY (id)
-);
-
 
 -- Autogenerated: do not edit this file
 
@@ -149,59 +152,3 @@ CREATE SEQUENCE BATCH_STEP_EXECUTION_CONTEXT_SEQ START 1;
 ALTER TABLE BATCH_JOB_INSTANCE ALTER COLUMN JOB_INSTANCE_ID SET DEFAULT nextval('BATCH_JOB_SEQ');
 ALTER TABLE BATCH_JOB_EXECUTION ALTER COLUMN JOB_EXECUTION_ID SET DEFAULT nextval('BATCH_JOB_EXECUTION_SEQ');
 ALTER TABLE BATCH_STEP_EXECUTION ALTER COLUMN STEP_EXECUTION_ID SET DEFAULT nextval('BATCH_STEP_EXECUTION_SEQ');
-
-
--------Quelques Requetes SQL
-
-SELECT
-    a.id AS account_id,
-    a.customer_name,
-    a.balance AS current_balance,
-    COALESCE(adb.balance_date, CURRENT_DATE - INTERVAL '1 day') AS balance_date,
-    COALESCE(SUM(t.amount), 0) AS total_transactions,
-    COALESCE(adb.daily_total, 0) AS daily_total,
-    COALESCE(adb.processed, FALSE) AS daily_processed
-FROM public.accounts a
-LEFT JOIN public.account_daily_balance adb
-    ON adb.account_id = a.id
-   AND adb.balance_date = CURRENT_DATE - INTERVAL '1 day'
-LEFT JOIN public.transactions t
-    ON t.account_id = a.id
-   AND t.transaction_date = CURRENT_DATE - INTERVAL '1 day'
-   AND t.status = 'VALIDATED'
-GROUP BY
-    a.id,
-    a.customer_name,
-    a.balance,
-    adb.balance_date,
-    adb.daily_total,
-    adb.processed
-ORDER BY a.id;
-
-
-
-SELECT
-    a.id AS account_id,
-    a.customer_name,
-    a.balance AS current_balance,
-    COALESCE(adb.balance_date, CURRENT_DATE - INTERVAL '1 day') AS balance_date,
-    COALESCE(SUM(t.amount), 0) AS total_transactions,
-    COALESCE(adb.daily_total, 0) AS daily_total,
-    COALESCE(adb.processed, FALSE) AS daily_processed
-FROM public.accounts a
-LEFT JOIN public.account_daily_balance adb
-    ON adb.account_id = a.id
-   AND adb.balance_date = CURRENT_DATE - INTERVAL '1 day'
-LEFT JOIN public.transactions t
-    ON t.account_id = a.id
-   AND t.transaction_date = CURRENT_DATE - INTERVAL '1 day'
-   AND t.status = 'VALIDATED'
-WHERE COALESCE(adb.processed, FALSE) = FALSE
-GROUP BY
-    a.id,
-    a.customer_name,
-    a.balance,
-    adb.balance_date,
-    adb.daily_total,
-    adb.processed
-ORDER BY a.id;
@@ -0,0 +1,50 @@
+-- Index couvrants et partiels taillés pour les requêtes du batch et de l'API : chaque lecture de
+-- transactions est un Index Only Scan (aucun accès au heap tant que la visibility map est à jour).
+-- Vérifiés par QueryPlanRegressionIT (EXPLAIN de chaque requête sur une base alimentée).
+--
+-- Sur une base volumineuse, créer plutôt l'index de chaque partition avec CREATE INDEX CONCURRENTLY,
+-- puis l'index parent avec CREATE INDEX ... ON ONLY et ALTER INDEX ... ATTACH PARTITION.
+
+
+-- public.transactions
+
+-- Agrégation par plage de comptes (UPSERT_DAILY_BALANCE, APPLY_DAILY_BALANCE_FUSED, SELECT_DAILY_TOTALS,
+-- SELECT_VALIDATED_CENTS, histogramme de TransactionVolumePartitioner, SELECT_DAILY_SUMMARY) :
+-- date = :businessDate AND status = 'VALIDATED' AND account_id BETWEEN, lecture de amount seulement
+CREATE INDEX idx_transactions_validated_date_account ON public.transactions USING btree (transaction_date, account_id)
+	INCLUDE (amount)
+	WHERE status = 'VALIDATED';
+
+-- Remplacé par l'index précédent : le statut n'est jamais lu que pour VALIDATED
+DROP INDEX IF EXISTS public.idx_transactions_date_status;
+
+-- Agrégation intraday (FOLD_DAILY_TOTALS, CTE batch) : lot suivant le watermark dans l'ordre des ids
+DROP INDEX IF EXISTS public.idx_transactions_date_id_validated;
+CREATE INDEX idx_transactions_date_id_validated ON public.transactions USING btree (transaction_date, id)
+	INCLUDE (account_id, amount)
+	WHERE status = 'VALIDATED';
+
+-- Agrégation intraday (FOLD_DAILY_TOTALS, CTE horizon) : première transaction trop récente, tous statuts.
+-- Le planificateur y lit MIN(id) par la clé primaire : created_at y est inclus plutôt que dans un index de plus
+ALTER TABLE public.transactions DROP CONSTRAINT transactions_pkey;
+ALTER TABLE public.transactions ADD CONSTRAINT transactions_pkey PRIMARY KEY (id, transaction_date)
+	INCLUDE (created_at);
+
+-- Correction des arrivées tardives (CORRECT_DIRTY_ACCOUNT_DAYS) : transactions d'un couple (compte, date),
+-- tous statuts ; sert aussi la clé étrangère fk_account
+DROP INDEX IF EXISTS public.idx_transactions_account;
+CREATE INDEX idx_transactions_account_date ON public.transactions USING btree (account_id, transaction_date)
+	INCLUDE (status, amount);
+
+
+-- public.account_daily_balance
+
+-- Lignes non appliquées d'une plage (UPDATE_ACCOUNT_BALANCE, SELECT_UNAPPLIED_DAILY_TOTALS) : daily_total inclus
+DROP INDEX IF EXISTS public.idx_adb_unapplied;
+CREATE INDEX idx_adb_unapplied ON public.account_daily_balance USING btree (balance_date, account_id)
+	INCLUDE (daily_total)
+	WHERE applied_total IS DISTINCT FROM daily_total;
+
+-- Résumé journalier de l'API (SELECT_DAILY_SUMMARY) : totaux d'une date dans l'ordre des comptes
+CREATE INDEX idx_adb_date_account ON public.account_daily_balance USING btree (balance_date, account_id)
+	INCLUDE (daily_total, processed);
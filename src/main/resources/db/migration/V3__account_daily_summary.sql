@@ -0,0 +1,28 @@
+-- Modèle de lecture du résumé journalier (GET /api/accounts/daily-summary) : total des transactions
+-- VALIDATED par compte et par date clôturée. Alimenté par le dernier step du job de fin de journée
+-- (REFRESH_DAILY_SUMMARY) et tenu à jour par le job de correction des arrivées tardives
+-- (CORRECT_DIRTY_ACCOUNT_DAYS) ; les dates non clôturées sont lues directement dans transactions.
+
+
+-- public.account_daily_summary definition
+
+-- Drop table
+
+-- DROP TABLE public.account_daily_summary;
+
+CREATE TABLE public.account_daily_summary (
+	balance_date date NOT NULL,
+	account_id int8 NOT NULL,
+	total_transactions numeric(18, 2) NOT NULL,
+	-- Lecture d'une date dans l'ordre des comptes : Index Only Scan
+	CONSTRAINT account_daily_summary_pkey PRIMARY KEY (balance_date, account_id) INCLUDE (total_transactions)
+);
+
+-- Dates déjà clôturées
+INSERT INTO public.account_daily_summary (balance_date, account_id, total_transactions)
+SELECT t.transaction_date, t.account_id, SUM(t.amount)
+FROM public.business_day_close c
+JOIN public.transactions t
+	ON t.transaction_date = c.balance_date
+   AND t.status = 'VALIDATED'
+GROUP BY t.transaction_date, t.account_id;
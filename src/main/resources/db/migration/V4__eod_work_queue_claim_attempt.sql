@@ -0,0 +1,10 @@
+-- Jeton de réclamation des partitions distantes : chaque réclamation incrémente attempt, et le détenteur
+-- ne peut plus heartbeat ni terminer une ligne réclamée depuis par une autre instance (même après une
+-- pause plus longue que stale-after-seconds). CANCELLED : partitions abandonnées par un gestionnaire
+-- arrivé à son délai d'attente.
+
+
+-- public.eod_work_queue
+
+ALTER TABLE public.eod_work_queue
+	ADD COLUMN attempt int4 DEFAULT 0 NOT NULL;
@@ -0,0 +1,66 @@
+-- Trigger des arrivées tardives par instruction plutôt que par ligne : un COPY ou un INSERT de masse
+-- (TransactionIngestionService) ne paie plus deux lookups et un upsert par ligne, mais une seule
+-- insertion des couples (compte, date) distincts de l'instruction, lus dans ses tables de transition.
+-- Une table de transition n'accepte ni plusieurs événements ni liste de colonnes : un trigger par
+-- opération, et l'UPDATE ne retient que les lignes dont status, amount, account_id ou transaction_date change.
+
+
+-- public.transactions
+
+DROP TRIGGER trg_transactions_mark_dirty ON public.transactions;
+DROP FUNCTION public.transactions_mark_dirty();
+DROP FUNCTION public.mark_dirty_account_day(int8, int8, date);
+
+-- Couple marqué si sa date est clôturée, ou si la transaction a déjà été cumulée par l'agrégation
+-- intraday (id <= watermark). business_day_close et daily_aggregation_watermark : une ligne par date.
+CREATE OR REPLACE FUNCTION public.transactions_mark_dirty() RETURNS trigger AS $$
+BEGIN
+	IF TG_OP = 'INSERT' THEN
+		INSERT INTO public.dirty_account_day (account_id, balance_date)
+		SELECT DISTINCT r.account_id, r.transaction_date
+		FROM new_rows r
+		LEFT JOIN public.business_day_close c ON c.balance_date = r.transaction_date
+		LEFT JOIN public.daily_aggregation_watermark w ON w.balance_date = r.transaction_date
+		WHERE c.balance_date IS NOT NULL OR r.id <= w.last_transaction_id
+		ON CONFLICT (balance_date, account_id) DO UPDATE SET marked_at = clock_timestamp();
+	ELSIF TG_OP = 'DELETE' THEN
+		INSERT INTO public.dirty_account_day (account_id, balance_date)
+		SELECT DISTINCT r.account_id, r.transaction_date
+		FROM old_rows r
+		LEFT JOIN public.business_day_close c ON c.balance_date = r.transaction_date
+		LEFT JOIN public.daily_aggregation_watermark w ON w.balance_date = r.transaction_date
+		WHERE c.balance_date IS NOT NULL OR r.id <= w.last_transaction_id
+		ON CONFLICT (balance_date, account_id) DO UPDATE SET marked_at = clock_timestamp();
+	ELSE
+		-- Ancien et nouveau couple : un changement de compte ou de date touche les deux
+		INSERT INTO public.dirty_account_day (account_id, balance_date)
+		SELECT DISTINCT r.account_id, r.transaction_date
+		FROM old_rows o
+		JOIN new_rows n ON n.id = o.id
+		CROSS JOIN LATERAL (VALUES (o.id, o.account_id, o.transaction_date),
+		                           (n.id, n.account_id, n.transaction_date)) r(id, account_id, transaction_date)
+		LEFT JOIN public.business_day_close c ON c.balance_date = r.transaction_date
+		LEFT JOIN public.daily_aggregation_watermark w ON w.balance_date = r.transaction_date
+		WHERE (o.status, o.amount, o.account_id, o.transaction_date)
+		      IS DISTINCT FROM (n.status, n.amount, n.account_id, n.transaction_date)
+		  AND (c.balance_date IS NOT NULL OR r.id <= w.last_transaction_id)
+		ON CONFLICT (balance_date, account_id) DO UPDATE SET marked_at = clock_timestamp();
+	END IF;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transactions_mark_dirty_insert
+	AFTER INSERT ON public.transactions
+	REFERENCING NEW TABLE AS new_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION public.transactions_mark_dirty();
+
+CREATE TRIGGER trg_transactions_mark_dirty_update
+	AFTER UPDATE ON public.transactions
+	REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION public.transactions_mark_dirty();
+
+CREATE TRIGGER trg_transactions_mark_dirty_delete
+	AFTER DELETE ON public.transactions
+	REFERENCING OLD TABLE AS old_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION public.transactions_mark_dirty();
@@ -0,0 +1,44 @@
+-- Partition par défaut de transactions : une transaction dont le jour n'a pas (encore) de partition
+-- (arrivée tardive, rattrapage, date antérieure aux partitions créées) y est rangée au lieu d'échouer
+-- avec « no partition of relation found ». TransactionPartitionMaintenance crée ensuite la partition
+-- de chacun de ces jours en y déplaçant leurs lignes.
+--
+-- Avec une partition par défaut, DETACH PARTITION ... CONCURRENTLY n'est plus permis : le détachement
+-- des partitions expirées prend un verrou exclusif bref sur transactions (lock_timeout).
+
+
+-- public.transactions partitions
+
+CREATE TABLE public.transactions_default PARTITION OF public.transactions DEFAULT;
+
+-- Une partition transactions_AAAAMMJJ par jour de [from_date, to_date] ; les jours existants sont ignorés.
+-- Les lignes du jour déjà rangées dans la partition par défaut sont déplacées dans la nouvelle partition
+-- (sinon la création échoue). Retourne le nombre de partitions créées.
+CREATE OR REPLACE FUNCTION public.create_transaction_partitions(from_date date, to_date date) RETURNS int AS $$
+DECLARE
+	d date := from_date;
+	partition_name text;
+	created int := 0;
+BEGIN
+	WHILE d <= to_date LOOP
+		partition_name := 'transactions_' || to_char(d, 'YYYYMMDD');
+		IF to_regclass('public.' || partition_name) IS NULL THEN
+			IF EXISTS (SELECT 1 FROM public.transactions_default t WHERE t.transaction_date = d) THEN
+				-- Instructions adressées aux partitions, pas à transactions : le trigger des arrivées
+				-- tardives ne voit pas ce déplacement
+				EXECUTE format('CREATE TABLE public.%I (LIKE public.transactions INCLUDING DEFAULTS)', partition_name);
+				EXECUTE format('WITH moved AS (DELETE FROM public.transactions_default WHERE transaction_date = %L RETURNING *) '
+				               'INSERT INTO public.%I SELECT * FROM moved', d, partition_name);
+				EXECUTE format('ALTER TABLE public.transactions ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+				               partition_name, d, d + 1);
+			ELSE
+				EXECUTE format('CREATE TABLE public.%I PARTITION OF public.transactions FOR VALUES FROM (%L) TO (%L)',
+				               partition_name, d, d + 1);
+			END IF;
+			created := created + 1;
+		END IF;
+		d := d + 1;
+	END LOOP;
+	RETURN created;
+END;
+$$ LANGUAGE plpgsql;
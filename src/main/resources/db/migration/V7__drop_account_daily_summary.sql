@@ -0,0 +1,8 @@
+-- account_daily_summary dupliquait account_daily_balance.daily_total (total des transactions VALIDATED par
+-- compte et par date) : le résumé des dates clôturées lit désormais directement account_daily_balance, sans
+-- second GROUP BY de la journée ni step d'alimentation séparé de la clôture.
+
+
+-- public.account_daily_summary
+
+DROP TABLE public.account_daily_summary;
@@ -0,0 +1,90 @@
+-- Agrégation intraday sans horizon de temps : le cumul avançait sur un watermark d'id et laissait au
+-- passage suivant les transactions créées depuis moins de commit-lag-seconds. Une transaction d'écriture
+-- commitée après ce délai (COPY d'un gros fichier, created_at unique) avait des ids déjà dépassés et
+-- n'était jamais cumulée ; une transaction devenue VALIDATED après le passage du cumul non plus.
+--
+-- Chaque ligne porte désormais l'xid de la transaction qui l'a insérée (created_xid). Le cumul avance
+-- sur (created_xid, id) sans dépasser le xmin du snapshot courant : toute transaction d'xid inférieur est
+-- terminée, ses lignes sont visibles ou ne le seront jamais. Les modifications et suppressions d'une date
+-- alimentée en cours de journée sont marquées dans dirty_account_day et recalculées à la clôture
+-- (closeIntradayStep), ainsi que les insertions postérieures au début de la clôture (closing).
+
+
+-- public.transactions
+
+ALTER TABLE public.transactions ADD COLUMN created_xid int8 NULL;
+-- Défaut posé après l'ajout de la colonne : pas de réécriture de la table
+ALTER TABLE public.transactions ALTER COLUMN created_xid SET DEFAULT (pg_current_xact_id()::text::int8);
+
+-- Lignes existantes des dates non clôturées : xid 1, avant toute transaction à venir. Les dates clôturées
+-- ne sont plus cumulées (INIT_AGGREGATION_WATERMARK) et gardent created_xid NULL. Trigger des arrivées
+-- tardives suspendu : aucune colonne qu'il surveille ne change, inutile de remplir ses tables de transition.
+ALTER TABLE public.transactions DISABLE TRIGGER trg_transactions_mark_dirty_update;
+UPDATE public.transactions t
+SET created_xid = 1
+WHERE NOT EXISTS (SELECT 1 FROM public.business_day_close c WHERE c.balance_date = t.transaction_date);
+ALTER TABLE public.transactions ENABLE TRIGGER trg_transactions_mark_dirty_update;
+
+-- Agrégation intraday (FOLD_DAILY_TOTALS, CTE batch) : lot suivant le watermark dans l'ordre (created_xid, id)
+DROP INDEX public.idx_transactions_date_id_validated;
+CREATE INDEX idx_transactions_date_xid_validated ON public.transactions USING btree (transaction_date, created_xid, id)
+	INCLUDE (account_id, amount)
+	WHERE status = 'VALIDATED';
+
+
+-- public.daily_aggregation_watermark
+
+-- last_xid : xid de la dernière transaction cumulée (avec last_transaction_id).
+-- active_from_xid : xmax d'un snapshot pris après la création du watermark ; le cumul attend que le xmin
+-- l'ait dépassé, pour qu'une modification commencée avant que le trigger voie le watermark soit terminée.
+-- closing : clôture commencée, les insertions de la date sont aussi marquées dans dirty_account_day.
+ALTER TABLE public.daily_aggregation_watermark ADD COLUMN last_xid int8 DEFAULT 0 NOT NULL;
+ALTER TABLE public.daily_aggregation_watermark ADD COLUMN active_from_xid int8 NULL;
+ALTER TABLE public.daily_aggregation_watermark ADD COLUMN closing bool DEFAULT false NOT NULL;
+
+-- Watermarks existants : les lignes déjà cumulées (id <= last_transaction_id) ont reçu l'xid 1, et aucune
+-- écriture de transactions n'est en cours pendant la migration (verrou exclusif de l'ALTER TABLE)
+UPDATE public.daily_aggregation_watermark SET last_xid = 1, active_from_xid = 0;
+
+
+-- public.transactions triggers
+
+-- Couple marqué si sa date est clôturée, ou, pour une date alimentée par l'agrégation intraday :
+-- toute modification ou suppression (la ligne a pu être cumulée avec ses anciennes valeurs), et les
+-- insertions une fois la clôture commencée (elles peuvent être commitées après le dernier cumul).
+CREATE OR REPLACE FUNCTION public.transactions_mark_dirty() RETURNS trigger AS $$
+BEGIN
+	IF TG_OP = 'INSERT' THEN
+		INSERT INTO public.dirty_account_day (account_id, balance_date)
+		SELECT DISTINCT r.account_id, r.transaction_date
+		FROM new_rows r
+		LEFT JOIN public.business_day_close c ON c.balance_date = r.transaction_date
+		LEFT JOIN public.daily_aggregation_watermark w ON w.balance_date = r.transaction_date
+		WHERE c.balance_date IS NOT NULL OR w.closing
+		ON CONFLICT (balance_date, account_id) DO UPDATE SET marked_at = clock_timestamp();
+	ELSIF TG_OP = 'DELETE' THEN
+		INSERT INTO public.dirty_account_day (account_id, balance_date)
+		SELECT DISTINCT r.account_id, r.transaction_date
+		FROM old_rows r
+		LEFT JOIN public.business_day_close c ON c.balance_date = r.transaction_date
+		LEFT JOIN public.daily_aggregation_watermark w ON w.balance_date = r.transaction_date
+		WHERE c.balance_date IS NOT NULL OR w.balance_date IS NOT NULL
+		ON CONFLICT (balance_date, account_id) DO UPDATE SET marked_at = clock_timestamp();
+	ELSE
+		-- Ancien et nouveau couple : un changement de compte ou de date touche les deux
+		INSERT INTO public.dirty_account_day (account_id, balance_date)
+		SELECT DISTINCT r.account_id, r.transaction_date
+		FROM old_rows o
+		JOIN new_rows n ON n.id = o.id
+		CROSS JOIN LATERAL (VALUES (o.account_id, o.transaction_date),
+		                           (n.account_id, n.transaction_date)) r(account_id, transaction_date)
+		LEFT JOIN public.business_day_close c ON c.balance_date = r.transaction_date
+		LEFT JOIN public.daily_aggregation_watermark w ON w.balance_date = r.transaction_date
+		WHERE (o.status, o.amount, o.account_id, o.transaction_date)
+		      IS DISTINCT FROM (n.status, n.amount, n.account_id, n.transaction_date)
+		  AND (c.balance_date IS NOT NULL OR w.balance_date IS NOT NULL)
+		ON CONFLICT (balance_date, account_id) DO UPDATE SET marked_at = clock_timestamp();
+	END IF;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,78 @@
+package com.example.batch_processing.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountCentsMapTest {
+
+    @Test
+    void accumulatesPerAccount() {
+        var totals = new AccountCentsMap(4);
+        totals.add(7L, 1_000);
+        totals.add(9L, -250);
+        totals.add(7L, 205);
+
+        assertThat(totals.size()).isEqualTo(2);
+        assertThat(totals.get(7L)).isEqualTo(1_205);
+        assertThat(totals.get(9L)).isEqualTo(-250);
+        assertThat(totals.get(8L)).isZero();
+    }
+
+    @Test
+    void growsBeyondTheExpectedSize() {
+        var totals = new AccountCentsMap(1);
+        for (long accountId = 1; accountId <= 100_000; accountId++) {
+            totals.add(accountId, accountId);
+            totals.add(accountId, 1);
+        }
+
+        assertThat(totals.size()).isEqualTo(100_000);
+        assertThat(totals.get(1L)).isEqualTo(2);
+        assertThat(totals.get(65_536L)).isEqualTo(65_537);
+        assertThat(totals.get(100_000L)).isEqualTo(100_001);
+    }
+
+    @Test
+    void handlesTheSentinelKey() {
+        var totals = new AccountCentsMap(16);
+        assertThat(totals.isEmpty()).isTrue();
+
+        totals.add(0L, 5);
+        totals.add(0L, -2);
+
+        assertThat(totals.size()).isEqualTo(1);
+        assertThat(totals.get(0L)).isEqualTo(3);
+    }
+
+    @Test
+    void visitsEveryEntry() {
+        var totals = new AccountCentsMap(16);
+        totals.add(0L, 1);
+        totals.add(3L, 30);
+        totals.add(-4L, 40);
+
+        Map<Long, Long> visited = new HashMap<>();
+        totals.forEach(visited::put);
+
+        assertThat(visited).containsExactlyInAnyOrderEntriesOf(Map.of(0L, 1L, 3L, 30L, -4L, 40L));
+    }
+
+    @Test
+    void failsInsteadOfWrappingOnOverflow() {
+        var totals = new AccountCentsMap(16);
+        totals.add(7L, Long.MAX_VALUE);
+        totals.add(0L, Long.MIN_VALUE);
+
+        assertThatThrownBy(() -> totals.add(7L, 1)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> totals.add(0L, -1)).isInstanceOf(ArithmeticException.class);
+        // Total inchangé, et les ajouts qui restent dans l'intervalle passent toujours
+        assertThat(totals.get(7L)).isEqualTo(Long.MAX_VALUE);
+        totals.add(7L, -Long.MAX_VALUE);
+        assertThat(totals.get(7L)).isZero();
+    }
+}
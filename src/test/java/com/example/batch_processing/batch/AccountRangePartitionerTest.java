@@ -0,0 +1,126 @@
+package com.example.batch_processing.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountRangePartitionerTest {
+
+    /**
+     * Partitionneur dont les tranches NTILE sont fournies par le test au lieu de la base.
+     */
+    private static AccountRangePartitioner partitionerWithBuckets(List<IdRange> buckets) {
+        return partitionerWithBuckets(buckets, List.of(LocalDate.of(2026, 10, 17)));
+    }
+
+    private static AccountRangePartitioner partitionerWithBuckets(List<IdRange> buckets, List<LocalDate> businessDates) {
+        return new AccountRangePartitioner(null, businessDates) {
+            @Override
+            protected List<IdRange> loadBuckets(int gridSize) {
+                return buckets.size() > gridSize ? buckets.subList(0, gridSize) : buckets;
+            }
+        };
+    }
+
+    @Test
+    void partitionsFollowActualIdDistribution() {
+        var partitions = partitionerWithBuckets(List.of(
+                new IdRange(1, 100),
+                new IdRange(5_000, 5_100),
+                new IdRange(12_000_000, 12_000_050)
+        )).partition(3);
+
+        assertThat(partitions).hasSize(3);
+        assertThat(partitions.get("partition0").getLong("minId")).isEqualTo(1L);
+        assertThat(partitions.get("partition0").getLong("maxId")).isEqualTo(100L);
+        assertThat(partitions.get("partition1").getLong("minId")).isEqualTo(101L);
+        assertThat(partitions.get("partition1").getLong("maxId")).isEqualTo(5_100L);
+        assertThat(partitions.get("partition2").getLong("minId")).isEqualTo(5_101L);
+        assertThat(partitions.get("partition2").getLong("maxId")).isEqualTo(12_000_050L);
+    }
+
+    @Test
+    void partitionsCoverIdsAboveTenMillion() {
+        var partitions = partitionerWithBuckets(List.of(
+                new IdRange(1, 6_000_000),
+                new IdRange(6_000_001, 14_000_000)
+        )).partition(2);
+
+        assertThat(partitions.get("partition1").getLong("maxId")).isEqualTo(14_000_000L);
+    }
+
+    @Test
+    void partitionsAreGapFree() {
+        Map<String, ExecutionContext> partitions = partitionerWithBuckets(List.of(
+                new IdRange(3, 10),
+                new IdRange(20, 30),
+                new IdRange(45, 50),
+                new IdRange(90, 99)
+        )).partition(4);
+
+        long expectedMin = 3;
+        for (int i = 0; i < partitions.size(); i++) {
+            ExecutionContext context = partitions.get("partition" + i);
+            assertThat(context.getLong("minId")).isEqualTo(expectedMin);
+            expectedMin = context.getLong("maxId") + 1;
+        }
+        assertThat(expectedMin).isEqualTo(100L);
+    }
+
+    @Test
+    void gridSizeIsHonored() {
+        var partitions = partitionerWithBuckets(List.of(
+                new IdRange(1, 10),
+                new IdRange(11, 20),
+                new IdRange(21, 30),
+                new IdRange(31, 40)
+        )).partition(2);
+
+        assertThat(partitions).hasSize(2);
+    }
+
+    @Test
+    void partitionsCarryTheirBusinessDate() {
+        var partitions = partitionerWithBuckets(List.of(new IdRange(1, 100))).partition(8);
+
+        assertThat(partitions.get("partition0").getString("businessDate")).isEqualTo("2026-10-17");
+        assertThat(partitions.get("partition0").getLong(WorkQueuePartitionHandler.WEIGHT)).isEqualTo(100L);
+    }
+
+    @Test
+    void backfillCreatesOnePartitionPerDayAndRange() {
+        List<LocalDate> week = BusinessDates.range(LocalDate.of(2026, 10, 11), LocalDate.of(2026, 10, 17));
+        var partitions = partitionerWithBuckets(List.of(
+                new IdRange(1, 100),
+                new IdRange(101, 200)
+        ), week).partition(2);
+
+        assertThat(partitions).hasSize(14);
+        assertThat(partitions.values())
+                .extracting(context -> context.getString("businessDate") + ":" + context.getLong("minId"))
+                .doesNotHaveDuplicates()
+                .contains("2026-10-11:1", "2026-10-11:101", "2026-10-17:1", "2026-10-17:101");
+    }
+
+    @Test
+    void onlyDatesFoldedIntradayAreMarkedApplyOnly() {
+        var partitioner = partitionerWithBuckets(List.of(new IdRange(1, 100)),
+                List.of(LocalDate.of(2026, 10, 16), LocalDate.of(2026, 10, 17)));
+        partitioner.setApplyOnlyDates(Set.of(LocalDate.of(2026, 10, 17)));
+
+        assertThat(partitioner.partition(1).values())
+                .extracting(context -> context.getString("businessDate") + ":" + context.get(IdRangePartitioner.APPLY_ONLY))
+                .containsExactlyInAnyOrder("2026-10-16:false", "2026-10-17:true");
+    }
+
+    @Test
+    void emptyAccountsTableProducesNoPartition() {
+        assertThat(partitionerWithBuckets(List.of()).partition(8)).isEmpty();
+    }
+}
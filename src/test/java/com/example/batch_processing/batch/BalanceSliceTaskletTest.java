@@ -0,0 +1,134 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class BalanceSliceTaskletTest {
+
+    private final LocalDate businessDate = LocalDate.of(2026, 10, 17);
+    private JdbcClientWrapper jdbcWrapper;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setup() {
+        jdbcWrapper = mock(JdbcClientWrapper.class);
+        when(jdbcWrapper.upsertDailyBalance(anyMap())).thenReturn(1);
+        when(jdbcWrapper.updateAccountBalance(anyMap())).thenReturn(1);
+        stepExecution = new StepExecution("updateBalanceWorkerStep", new JobExecution(1L));
+    }
+
+    private RepeatStatus executeOnce(BalanceSliceTasklet tasklet) throws Exception {
+        return tasklet.execute(new StepContribution(stepExecution), mock(ChunkContext.class));
+    }
+
+    @Test
+    void processesRangeSliceBySliceAndStoresHighWaterMark() throws Exception {
+        var tasklet = new BalanceSliceTasklet(jdbcWrapper, businessDate, 1, 250, 100);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(stepExecution.getExecutionContext().getLong("lastProcessedId")).isEqualTo(100L);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(stepExecution.getExecutionContext().getLong("lastProcessedId")).isEqualTo(200L);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+        assertThat(stepExecution.getExecutionContext().getLong("lastProcessedId")).isEqualTo(250L);
+
+        verify(jdbcWrapper).upsertDailyBalance(argThat(p -> p.get("minId").equals(201L) && p.get("maxId").equals(250L)
+                && p.get("businessDate").equals(businessDate)));
+        verify(jdbcWrapper, times(3)).updateAccountBalance(argThat(p -> p.get("jobExecutionId").equals(1L)));
+    }
+
+    @Test
+    void restartResumesAfterHighWaterMark() throws Exception {
+        stepExecution.getExecutionContext().putLong("lastProcessedId", 180L);
+        var tasklet = new BalanceSliceTasklet(jdbcWrapper, businessDate, 1, 250, 100);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+
+        verify(jdbcWrapper).upsertDailyBalance(argThat(p -> p.get("minId").equals(181L) && p.get("maxId").equals(250L)));
+        verify(jdbcWrapper, times(1)).updateAccountBalance(anyMap());
+    }
+
+    @Test
+    void completedPartitionDoesNothingOnRestart() throws Exception {
+        stepExecution.getExecutionContext().putLong("lastProcessedId", 250L);
+        var tasklet = new BalanceSliceTasklet(jdbcWrapper, businessDate, 1, 250, 100);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+
+        verifyNoInteractions(jdbcWrapper);
+    }
+
+    @Test
+    void failedSliceDoesNotMoveHighWaterMark() {
+        when(jdbcWrapper.updateAccountBalance(anyMap())).thenThrow(new RuntimeException("DB Error"));
+        var tasklet = new BalanceSliceTasklet(jdbcWrapper, businessDate, 1, 250, 100);
+
+        try {
+            executeOnce(tasklet);
+        } catch (Exception e) {
+            assertThat(e.getMessage()).isEqualTo("DB Error");
+        }
+
+        assertThat(stepExecution.getExecutionContext().containsKey("lastProcessedId")).isFalse();
+    }
+
+    @Test
+    void fusedModeAppliesEachSliceWithASingleStatement() throws Exception {
+        when(jdbcWrapper.applyDailyBalanceFused(anyMap())).thenReturn(new JdbcClientWrapper.ApplyResult(3, 3));
+        var tasklet = new BalanceSliceTasklet(jdbcWrapper, businessDate, 1, 250, 100, true);
+
+        while (executeOnce(tasklet) == RepeatStatus.CONTINUABLE) {
+            // tranche suivante
+        }
+
+        verify(jdbcWrapper, times(3)).applyDailyBalanceFused(anyMap());
+        verify(jdbcWrapper, never()).upsertDailyBalance(anyMap());
+        verify(jdbcWrapper, never()).updateAccountBalance(anyMap());
+        assertThat(stepExecution.getExecutionContext().getLong("lastProcessedId")).isEqualTo(250L);
+    }
+
+    @Test
+    void stopsEarlyWhenTheRestOfTheRangeIsTakenBack() throws Exception {
+        stepExecution.setId(42L);
+        RangeLeaseRegistry leases = new RangeLeaseRegistry();
+        RangeLease lease = leases.open(42L, 1, 250);
+        var tasklet = new BalanceSliceTasklet(jdbcWrapper, businessDate, 1, 250, 100, false, leases, Duration.ofSeconds(30));
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(lease.splitOffRemainder()).contains(new IdRange(101, 250));
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+        assertThat(stepExecution.getExecutionContext().getLong("lastProcessedId")).isEqualTo(100L);
+        verify(jdbcWrapper, times(1)).setLocalStatementTimeout(Duration.ofSeconds(30));
+        verify(jdbcWrapper, times(1)).updateAccountBalance(anyMap());
+    }
+
+    @Test
+    void applyOnlyModeSkipsAggregationForDatesFoldedIntraday() throws Exception {
+        var tasklet = new BalanceSliceTasklet(jdbcWrapper, businessDate, 1, 250, 100, true, null, Duration.ZERO, true);
+
+        while (executeOnce(tasklet) == RepeatStatus.CONTINUABLE) {
+            // tranche suivante
+        }
+
+        verify(jdbcWrapper, times(3)).updateAccountBalance(anyMap());
+        verify(jdbcWrapper, never()).upsertDailyBalance(anyMap());
+        verify(jdbcWrapper, never()).applyDailyBalanceFused(anyMap());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.batch_processing.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BusinessDatesTest {
+
+    private final ZoneId zone = ZoneId.of("America/Toronto");
+
+    @Test
+    void defaultsToYesterday() {
+        assertThat(BusinessDates.resolve(null, null, null, zone))
+                .containsExactly(LocalDate.now(zone).minusDays(1));
+    }
+
+    @Test
+    void explicitBusinessDateIsUsed() {
+        assertThat(BusinessDates.resolve("2026-10-01", null, null, zone))
+                .containsExactly(LocalDate.of(2026, 10, 1));
+    }
+
+    @Test
+    void backfillRangeIsInclusive() {
+        assertThat(BusinessDates.resolve(null, "2026-09-29", "2026-10-02", zone))
+                .containsExactly(
+                        LocalDate.of(2026, 9, 29),
+                        LocalDate.of(2026, 9, 30),
+                        LocalDate.of(2026, 10, 1),
+                        LocalDate.of(2026, 10, 2));
+    }
+
+    @Test
+    void incompleteOrInvertedRangeIsRejected() {
+        assertThatThrownBy(() -> BusinessDates.resolve(null, "2026-10-01", null, zone))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BusinessDates.range(LocalDate.of(2026, 10, 2), LocalDate.of(2026, 10, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BusinessDates.range(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CloseBusinessDayTaskletTest {
+
+    @Test
+    void everyProcessedDateIsClosedByTheExecution() throws Exception {
+        JdbcClientWrapper jdbcWrapper = mock(JdbcClientWrapper.class);
+        StepExecution stepExecution = new StepExecution("closeBusinessDayStep", new JobExecution(5L));
+        var tasklet = new CloseBusinessDayTasklet(jdbcWrapper,
+                BusinessDates.range(LocalDate.of(2026, 10, 15), LocalDate.of(2026, 10, 17)));
+
+        assertThat(tasklet.execute(new StepContribution(stepExecution), mock(ChunkContext.class)))
+                .isEqualTo(RepeatStatus.FINISHED);
+
+        verify(jdbcWrapper).closeBusinessDay(LocalDate.of(2026, 10, 15), 5L);
+        verify(jdbcWrapper).closeBusinessDay(LocalDate.of(2026, 10, 16), 5L);
+        verify(jdbcWrapper).closeBusinessDay(LocalDate.of(2026, 10, 17), 5L);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.service.AccountDailyBalanceService;
+import com.example.batch_processing.service.DailySummaryCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DailySummaryCacheListenerTest {
+
+    private final DailySummaryCache cache = mock(DailySummaryCache.class);
+    private final AccountDailyBalanceService service = mock(AccountDailyBalanceService.class);
+    private final DailySummaryCacheListener listener =
+            new DailySummaryCacheListener(cache, service, ZoneId.of("America/Toronto"), 3, 2);
+
+    private final LocalDate from = LocalDate.of(2026, 10, 16);
+    private final LocalDate to = LocalDate.of(2026, 10, 17);
+
+    private JobExecution execution(BatchStatus status) {
+        JobExecution execution = new JobExecution(1L, new JobParametersBuilder()
+                .addLocalDate(BusinessDates.FROM_DATE, from)
+                .addLocalDate(BusinessDates.TO_DATE, to)
+                .toJobParameters());
+        execution.setStatus(status);
+        return execution;
+    }
+
+    private static List<AccountDailySummaryDTO> page(int size) {
+        return Collections.nCopies(size, mock(AccountDailySummaryDTO.class));
+    }
+
+    @Test
+    void completedRunEvictsThenPrewarmsUntilAPartialPage() {
+        when(service.getDailySummary(eq(from), isNull(), anyInt(), eq(2))).thenReturn(page(2));
+        when(service.getDailySummary(eq(to), isNull(), eq(1), eq(2))).thenReturn(page(2));
+        when(service.getDailySummary(eq(to), isNull(), eq(2), eq(2))).thenReturn(page(1));
+
+        listener.afterJob(execution(BatchStatus.COMPLETED));
+
+        var order = inOrder(cache, service);
+        order.verify(cache).evictAll();
+        order.verify(service).getDailySummary(from, null, 1, 2);
+        verify(service, times(3)).getDailySummary(eq(from), isNull(), anyInt(), eq(2));
+        verify(service, times(2)).getDailySummary(eq(to), isNull(), anyInt(), eq(2));
+    }
+
+    @Test
+    void failedRunOnlyEvicts() {
+        listener.afterJob(execution(BatchStatus.FAILED));
+
+        verify(cache).evictAll();
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void prewarmFailureDoesNotFailTheJob() {
+        when(service.getDailySummary(any(), any(), anyInt(), anyInt())).thenThrow(new IllegalStateException("pool épuisé"));
+
+        listener.afterJob(execution(BatchStatus.COMPLETED));
+
+        verify(cache).evictAll();
+    }
+}
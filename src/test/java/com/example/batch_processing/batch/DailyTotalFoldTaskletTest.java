@@ -0,0 +1,104 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DailyTotalFoldTaskletTest {
+
+    private final LocalDate day16 = LocalDate.of(2026, 10, 16);
+    private final LocalDate day17 = LocalDate.of(2026, 10, 17);
+    private final Duration closeWait = Duration.ofSeconds(5);
+    private final JdbcClientWrapper jdbcWrapper = mock(JdbcClientWrapper.class);
+    private final StepExecution stepExecution = new StepExecution("intradayFoldStep", new JobExecution(1L));
+
+    private RepeatStatus executeOnce(DailyTotalFoldTasklet tasklet) throws Exception {
+        return tasklet.execute(new StepContribution(stepExecution), mock(ChunkContext.class));
+    }
+
+    @Test
+    void foldsUntilABatchIsIncomplete() throws Exception {
+        when(jdbcWrapper.foldDailyTotals(day17, 100)).thenReturn(
+                new JdbcClientWrapper.FoldResult(100, 40, 900, 1100),
+                new JdbcClientWrapper.FoldResult(12, 9, 901, 1112));
+        var tasklet = new DailyTotalFoldTasklet(jdbcWrapper, List.of(day17), false, 100, 50, closeWait);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+
+        verify(jdbcWrapper, times(2)).foldDailyTotals(day17, 100);
+        verify(jdbcWrapper, never()).watermarkedDates(any(), any());
+        verify(jdbcWrapper, never()).beginAggregationClosing(any());
+        verify(jdbcWrapper, never()).recomputeDirtyDailyTotals(any(), anyInt());
+    }
+
+    @Test
+    void closingWaitsForWritersThenFoldsAndRecomputesMarkedAccounts() throws Exception {
+        when(jdbcWrapper.watermarkedDates(day16, day17)).thenReturn(Set.of(day17));
+        when(jdbcWrapper.beginAggregationClosing(day17)).thenReturn(true);
+        when(jdbcWrapper.snapshotXmax()).thenReturn(5000L);
+        when(jdbcWrapper.snapshotXminReached(5000L)).thenReturn(false, true);
+        when(jdbcWrapper.foldDailyTotals(day17, 100)).thenReturn(new JdbcClientWrapper.FoldResult(3, 3, 4990, 9));
+        when(jdbcWrapper.recomputeDirtyDailyTotals(day17, 50)).thenReturn(
+                new JdbcClientWrapper.RecomputeResult(50, 12),
+                new JdbcClientWrapper.RecomputeResult(7, 1));
+        var tasklet = new DailyTotalFoldTasklet(jdbcWrapper, List.of(day16, day17), true, 100, 50, closeWait);
+
+        // closing, attente, cumul, deux lots de recalcul
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+
+        InOrder inOrder = inOrder(jdbcWrapper);
+        inOrder.verify(jdbcWrapper).beginAggregationClosing(day17);
+        inOrder.verify(jdbcWrapper, times(2)).snapshotXminReached(5000L);
+        inOrder.verify(jdbcWrapper).activateAggregationWatermark(day17, 5000L);
+        inOrder.verify(jdbcWrapper).foldDailyTotals(day17, 100);
+        inOrder.verify(jdbcWrapper, times(2)).recomputeDirtyDailyTotals(day17, 50);
+        verify(jdbcWrapper, never()).foldDailyTotals(eq(day16), anyInt());
+        verify(jdbcWrapper, never()).deleteAggregationWatermark(any());
+    }
+
+    @Test
+    void closingFallsBackToFullAggregationWhenWritersOutlastTheWait() throws Exception {
+        when(jdbcWrapper.watermarkedDates(day17, day17)).thenReturn(Set.of(day17));
+        when(jdbcWrapper.beginAggregationClosing(day17)).thenReturn(true);
+        when(jdbcWrapper.snapshotXmax()).thenReturn(5000L);
+        when(jdbcWrapper.snapshotXminReached(5000L)).thenReturn(false);
+        var tasklet = new DailyTotalFoldTasklet(jdbcWrapper, List.of(day17), true, 100, 50, Duration.ZERO);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+
+        verify(jdbcWrapper).deleteAggregationWatermark(day17);
+        verify(jdbcWrapper, never()).foldDailyTotals(any(), anyInt());
+        verify(jdbcWrapper, never()).recomputeDirtyDailyTotals(any(), anyInt());
+    }
+
+    @Test
+    void closingWithoutIntradayAggregationDoesNothing() throws Exception {
+        when(jdbcWrapper.watermarkedDates(day17, day17)).thenReturn(Set.of());
+        var tasklet = new DailyTotalFoldTasklet(jdbcWrapper, List.of(day17), true, 100, 50, closeWait);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+
+        verify(jdbcWrapper, never()).beginAggregationClosing(any());
+        verify(jdbcWrapper, never()).foldDailyTotals(any(), anyInt());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.repo.EodWorkQueueRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DatabaseQueuePartitionHandlerTest {
+
+    private final JobExecution jobExecution = new JobExecution(7L);
+    private final EodWorkQueueRepository repository = mock(EodWorkQueueRepository.class);
+    private final JobExplorer jobExplorer = mock(JobExplorer.class);
+
+    private Set<StepExecution> partitions(long... weights) {
+        Set<StepExecution> partitions = new HashSet<>();
+        for (int i = 0; i < weights.length; i++) {
+            StepExecution partition = new StepExecution("worker:partition" + i, jobExecution, 100L + i);
+            partition.getExecutionContext().putLong(WorkQueuePartitionHandler.WEIGHT, weights[i]);
+            partitions.add(partition);
+        }
+        return partitions;
+    }
+
+    private DatabaseQueuePartitionHandler handler(Duration timeout) {
+        return new DatabaseQueuePartitionHandler("worker", repository, jobExplorer,
+                Duration.ofMillis(1), timeout, 3);
+    }
+
+    @Test
+    void partitionsAreEnqueuedHeaviestFirstAndReloadedOnceFinished() throws Exception {
+        when(repository.countUnfinished(7L, "worker")).thenReturn(3L, 1L, 0L);
+        when(jobExplorer.getStepExecution(eq(7L), anyLong())).thenAnswer(invocation -> {
+            StepExecution reloaded = new StepExecution("worker:reloaded", jobExecution, invocation.getArgument(1));
+            reloaded.setStatus(BatchStatus.COMPLETED);
+            return reloaded;
+        });
+
+        Set<StepExecution> result = handler(Duration.ofMinutes(1))
+                .doHandle(new StepExecution("partitionStep", jobExecution), partitions(10, 500, 40));
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).enqueue(7L, 101L, "worker", 500L);
+        order.verify(repository).enqueue(7L, 102L, "worker", 40L);
+        order.verify(repository).enqueue(7L, 100L, "worker", 10L);
+        verify(repository, times(3)).countUnfinished(7L, "worker");
+        assertThat(result).hasSize(3)
+                .allMatch(partition -> partition.getStatus() == BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void managerFailsWhenPartitionsAreNotFinishedInTime() {
+        when(repository.countUnfinished(anyLong(), anyString())).thenReturn(2L);
+
+        assertThatThrownBy(() -> handler(Duration.ofMillis(20))
+                .doHandle(new StepExecution("partitionStep", jobExecution), partitions(1, 1)))
+                .isInstanceOf(TimeoutException.class)
+                .hasMessageContaining("2 partitions non terminées");
+        // Partitions abandonnées : plus réclamées, et arrêtées sur les instances qui les exécutent
+        verify(repository).cancelUnfinished(7L, "worker");
+    }
+}
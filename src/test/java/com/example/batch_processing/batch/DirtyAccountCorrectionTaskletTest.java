@@ -0,0 +1,42 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class DirtyAccountCorrectionTaskletTest {
+
+    private final JdbcClientWrapper jdbcWrapper = mock(JdbcClientWrapper.class);
+    private final StepExecution stepExecution = new StepExecution("correctDirtyAccountsStep", new JobExecution(3L));
+
+    private RepeatStatus executeOnce(DirtyAccountCorrectionTasklet tasklet) throws Exception {
+        return tasklet.execute(new StepContribution(stepExecution), mock(ChunkContext.class));
+    }
+
+    @Test
+    void correctsBatchesUntilADirtyBatchIsIncomplete() throws Exception {
+        when(jdbcWrapper.correctDirtyAccountDays(100, 3L)).thenReturn(
+                new JdbcClientWrapper.CorrectionResult(100, 60, 58),
+                new JdbcClientWrapper.CorrectionResult(7, 2, 2));
+        var tasklet = new DirtyAccountCorrectionTasklet(jdbcWrapper, 100);
+
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.CONTINUABLE);
+        assertThat(executeOnce(tasklet)).isEqualTo(RepeatStatus.FINISHED);
+
+        verify(jdbcWrapper, times(2)).correctDirtyAccountDays(100, 3L);
+    }
+
+    @Test
+    void nothingDirtyFinishesImmediately() throws Exception {
+        when(jdbcWrapper.correctDirtyAccountDays(100, 3L)).thenReturn(new JdbcClientWrapper.CorrectionResult(0, 0, 0));
+
+        assertThat(executeOnce(new DirtyAccountCorrectionTasklet(jdbcWrapper, 100))).isEqualTo(RepeatStatus.FINISHED);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.repo.EodWorkQueueRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInterruptedException;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EodWorkQueueWorkerTest {
+
+    private final EodWorkQueueRepository repository = mock(EodWorkQueueRepository.class);
+    private final JobExplorer jobExplorer = mock(JobExplorer.class);
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final BeanFactory beanFactory = mock(BeanFactory.class);
+    private final Step step = mock(Step.class);
+    private final JobExecution jobExecution = new JobExecution(7L);
+
+    private EodWorkQueueWorker worker() {
+        when(beanFactory.getBean("worker", Step.class)).thenReturn(step);
+        return new EodWorkQueueWorker(repository, jobExplorer, jobRepository, beanFactory,
+                new SyncTaskExecutor(), new PartitionConcurrencyLimiter(4, 0), "node-a", 120);
+    }
+
+    private StepExecution partition(long id) {
+        StepExecution partition = new StepExecution("worker:partition" + id, jobExecution, id);
+        when(jobExplorer.getStepExecution(7L, id)).thenReturn(partition);
+        return partition;
+    }
+
+    private static EodWorkQueueRepository.WorkItem item(long id, long stepExecutionId) {
+        return new EodWorkQueueRepository.WorkItem(id, 7L, stepExecutionId, "worker", 1);
+    }
+
+    @Test
+    void claimedPartitionsAreExecutedAndReported() throws Exception {
+        EodWorkQueueWorker worker = worker();
+        partition(100L);
+        partition(101L);
+        when(repository.claim("node-a", 4)).thenReturn(List.of(item(1L, 100L), item(2L, 101L)));
+        doAnswer(invocation -> {
+            invocation.<StepExecution>getArgument(0).setStatus(BatchStatus.COMPLETED);
+            return null;
+        }).when(step).execute(any());
+        when(repository.finish(any(), anyString(), any())).thenReturn(true);
+
+        worker.poll();
+
+        verify(step).execute(jobExplorer.getStepExecution(7L, 100L));
+        verify(step).execute(jobExplorer.getStepExecution(7L, 101L));
+        verify(repository).finish(item(1L, 100L), "node-a", BatchStatus.COMPLETED);
+        verify(repository).finish(item(2L, 101L), "node-a", BatchStatus.COMPLETED);
+        // Rien en cours au moment du passage : pas de heartbeat
+        verify(repository, never()).heartbeat(anyString());
+    }
+
+    @Test
+    void partitionFailingOutsideTheStepIsRecordedAsFailed() throws Exception {
+        EodWorkQueueWorker worker = worker();
+        StepExecution partition = partition(100L);
+        when(repository.claim("node-a", 4)).thenReturn(List.of(item(1L, 100L)));
+        doThrow(new JobInterruptedException("stop")).when(step).execute(partition);
+
+        worker.poll();
+
+        assertThat(partition.getStatus()).isEqualTo(BatchStatus.FAILED);
+        verify(jobRepository).update(partition);
+        verify(repository).finish(item(1L, 100L), "node-a", BatchStatus.FAILED);
+    }
+
+    @Test
+    void unknownPartitionIsMarkedFailedWithoutExecution() throws Exception {
+        EodWorkQueueWorker worker = worker();
+        when(repository.claim("node-a", 4)).thenReturn(List.of(item(1L, 999L)));
+
+        worker.poll();
+
+        verify(step, never()).execute(any());
+        verify(repository).finish(eq(item(1L, 999L)), eq("node-a"), eq(BatchStatus.FAILED));
+    }
+
+    @Test
+    void partitionRecentlyUpdatedByAnotherClaimIsReleasedWithoutExecution() throws Exception {
+        EodWorkQueueWorker worker = worker();
+        StepExecution partition = partition(100L);
+        partition.setStatus(BatchStatus.STARTED);
+        partition.setLastUpdated(LocalDateTime.now().minusSeconds(5));
+        when(repository.claim("node-a", 4)).thenReturn(List.of(item(1L, 100L)));
+
+        worker.poll();
+
+        verify(step, never()).execute(any());
+        verify(repository).release(item(1L, 100L), "node-a");
+        verify(repository, never()).finish(any(), anyString(), any());
+    }
+
+    @Test
+    void lostClaimStopsTheRunningStepAndIsNotReported() throws Exception {
+        EodWorkQueueWorker worker = worker();
+        StepExecution partition = partition(100L);
+        when(repository.claim("node-a", 4)).thenReturn(List.of(item(1L, 100L)));
+        // Pendant l'exécution, la ligne a été remise dans la file puis réclamée ailleurs (attempt 2)
+        doAnswer(invocation -> {
+            worker.fenceLostClaims(Map.of(1L, 2));
+            StepExecution running = invocation.getArgument(0);
+            running.setStatus(running.isTerminateOnly() ? BatchStatus.STOPPED : BatchStatus.COMPLETED);
+            return null;
+        }).when(step).execute(partition);
+
+        worker.poll();
+
+        assertThat(partition.isTerminateOnly()).isTrue();
+        assertThat(partition.getStatus()).isEqualTo(BatchStatus.STOPPED);
+        verify(repository).finish(item(1L, 100L), "node-a", BatchStatus.STOPPED);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.service.JdbcClientWrapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Classe JavaDailyTotalAggregatorIT
+ * <p>
+ * Les trois calculs des totaux journaliers d'une tranche (UPSERT_DAILY_BALANCE en SQL, requête fusionnée,
+ * JavaDailyTotalAggregator) sont exécutés par BalanceSliceTasklet sur les mêmes données : une première
+ * exécution, puis une seconde après des transactions rejetées, supprimées (totaux revenus à 0) et ajoutées.
+ * account_daily_balance et accounts doivent être identiques d'un mode à l'autre, au centime près.
+ * <p>
+ * Base créée puis supprimée sur le serveur indiqué par PLAN_TEST_JDBC_URL (par défaut le PostgreSQL
+ * local de docker-compose) ; le test est ignoré si le serveur est injoignable.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+class JavaDailyTotalAggregatorIT {
+
+    private static final String SERVER_URL = setting("PLAN_TEST_JDBC_URL", "jdbc:postgresql://localhost:5432/localdb");
+    private static final String USERNAME = setting("PLAN_TEST_USERNAME", "user");
+    private static final String PASSWORD = setting("PLAN_TEST_PASSWORD", "letmein");
+    private static final String DATABASE = "batch_java_aggregation";
+
+    private static final int ACCOUNTS = 5000;
+    private static final long SLICE_SIZE = 700;
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2026, 10, 17);
+
+    private enum Mode { SQL, FUSED, JAVA }
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcClient jdbc;
+    private static TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void createDatabase() throws SQLException {
+        assumeTrue(reachable(), "PostgreSQL injoignable sur " + SERVER_URL + " : modes d'agrégation non comparés");
+
+        try (Connection admin = DriverManager.getConnection(SERVER_URL, USERNAME, PASSWORD);
+             Statement statement = admin.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + DATABASE + " WITH (FORCE)");
+            statement.execute("CREATE DATABASE " + DATABASE);
+        }
+
+        String url = SERVER_URL.substring(0, SERVER_URL.lastIndexOf('/') + 1) + DATABASE;
+        Flyway.configure().dataSource(url, USERNAME, PASSWORD).load().migrate();
+        dataSource = new SingleConnectionDataSource(url, USERNAME, PASSWORD, true);
+        jdbc = JdbcClient.create(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        jdbc.sql("""
+                INSERT INTO accounts (customer_name, balance)
+                SELECT 'client ' || g, 100 FROM generate_series(1, :accounts) g
+                """).param("accounts", ACCOUNTS).update();
+    }
+
+    @AfterAll
+    static void dropDatabase() throws SQLException {
+        if (dataSource == null) {
+            return;
+        }
+        dataSource.destroy();
+        try (Connection admin = DriverManager.getConnection(SERVER_URL, USERNAME, PASSWORD);
+             Statement statement = admin.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + DATABASE + " WITH (FORCE)");
+        }
+    }
+
+    @Test
+    void javaAggregationWritesTheSameBalancesAsTheSqlModes() {
+        List<String> sql = runScenario(Mode.SQL);
+        List<String> fused = runScenario(Mode.FUSED);
+        List<String> java = runScenario(Mode.JAVA);
+
+        assertThat(sql).hasSizeGreaterThan(ACCOUNTS);
+        assertThat(java).containsExactlyElementsOf(sql);
+        assertThat(fused).containsExactlyElementsOf(sql);
+    }
+
+    @Test
+    void balancesMatchTheValidatedTransactionsOfTheDay() {
+        runScenario(Mode.JAVA);
+
+        BigDecimal balances = jdbc.sql("SELECT SUM(balance) FROM accounts").query(BigDecimal.class).single();
+        BigDecimal validated = jdbc.sql("""
+                SELECT SUM(amount) FROM transactions WHERE transaction_date = :businessDate AND status = 'VALIDATED'
+                """).param("businessDate", BUSINESS_DATE).query(BigDecimal.class).single();
+
+        assertThat(balances).isEqualByComparingTo(validated.add(BigDecimal.valueOf(100L * ACCOUNTS)));
+    }
+
+    // ================= SCÉNARIO =================
+    private List<String> runScenario(Mode mode) {
+        reset();
+        run(mode, 1L);
+
+        // Rejets, comptes sans plus aucune transaction (total revenu à 0), arrivées
+        jdbc.sql("UPDATE transactions SET status = 'REJECTED' WHERE transaction_date = :businessDate AND id % 7 = 0")
+                .param("businessDate", BUSINESS_DATE).update();
+        jdbc.sql("DELETE FROM transactions WHERE transaction_date = :businessDate AND account_id % 50 = 0")
+                .param("businessDate", BUSINESS_DATE).update();
+        jdbc.sql("""
+                INSERT INTO transactions (account_id, amount, status, transaction_date)
+                SELECT (g * 31 % :accounts) + 1, (g % 901) / 100.0, 'VALIDATED', :businessDate
+                FROM generate_series(1, 3000) g
+                """).param("accounts", ACCOUNTS).param("businessDate", BUSINESS_DATE).update();
+        run(mode, 2L);
+
+        return snapshot();
+    }
+
+    private static void reset() {
+        jdbc.sql("TRUNCATE account_daily_balance, transactions, dirty_account_day").update();
+        jdbc.sql("UPDATE accounts SET balance = 100").update();
+        // Montants en centimes de -1000,00 à +1000,00, quelques très gros montants, un dixième PENDING,
+        // et une journée suivante qui ne doit pas être touchée
+        jdbc.sql("""
+                INSERT INTO transactions (account_id, amount, status, transaction_date)
+                SELECT (g * 7919 % :accounts) + 1,
+                       CASE WHEN g % 997 = 0 THEN 123456789012.34 * (g % 3 - 1)
+                            ELSE ((g * 104729 % 200001) - 100000) / 100.0 END,
+                       CASE WHEN g % 10 = 0 THEN 'PENDING' ELSE 'VALIDATED' END,
+                       CASE WHEN g % 6 = 0 THEN :businessDate + 1 ELSE :businessDate END
+                FROM generate_series(1::int8, 60000) g
+                """).param("accounts", ACCOUNTS).param("businessDate", BUSINESS_DATE).update();
+        // Totaux d'une exécution précédente déjà appliqués, sans transaction derrière pour une partie des comptes
+        jdbc.sql("""
+                INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed, applied_total)
+                SELECT g, :businessDate, 5.00, TRUE, 5.00
+                FROM generate_series(1, :accounts, 97) g
+                """).param("accounts", ACCOUNTS).param("businessDate", BUSINESS_DATE).update();
+        jdbc.sql("UPDATE accounts SET balance = balance + 5.00 WHERE id % 97 = 1").update();
+    }
+
+    private static void run(Mode mode, long jobExecutionId) {
+        BalanceSliceTasklet tasklet = new BalanceSliceTasklet(new JdbcClientWrapper(jdbc), BUSINESS_DATE,
+                1, ACCOUNTS, SLICE_SIZE, mode == Mode.FUSED);
+        if (mode == Mode.JAVA) {
+            tasklet.enableJavaAggregation(new JavaDailyTotalAggregator(dataSource, jdbc, 1000));
+        }
+        StepContribution contribution = new StepContribution(
+                new StepExecution("updateBalanceWorkerStep", new JobExecution(jobExecutionId)));
+
+        RepeatStatus status;
+        do {
+            // Une tranche par transaction, comme TaskletStep
+            status = transactionTemplate.execute(tx -> tasklet.execute(contribution, mock(ChunkContext.class)));
+        } while (status == RepeatStatus.CONTINUABLE);
+    }
+
+    private static List<String> snapshot() {
+        List<String> rows = new ArrayList<>(jdbc.sql("""
+                SELECT 'adb ' || account_id || ' ' || balance_date || ' ' || daily_total || ' ' || processed
+                       || ' ' || COALESCE(applied_total::text, '-') || ' ' || COALESCE(applied_job_execution_id::text, '-')
+                FROM account_daily_balance
+                ORDER BY account_id, balance_date
+                """).query(String.class).list());
+        rows.addAll(jdbc.sql("SELECT 'account ' || id || ' ' || balance FROM accounts ORDER BY id")
+                .query(String.class).list());
+        return rows;
+    }
+
+    private static boolean reachable() {
+        try (Connection ignored = DriverManager.getConnection(SERVER_URL, USERNAME, PASSWORD)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return (value != null && !value.isBlank()) ? value : defaultValue;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.batch_processing.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JavaDailyTotalAggregatorTest {
+
+    private static String format(long cents) {
+        return JavaDailyTotalAggregator.appendCents(new StringBuilder(), cents).toString();
+    }
+
+    @Test
+    void formatsCentsAsNumeric() {
+        assertThat(format(100)).isEqualTo("1.00");
+        assertThat(format(5)).isEqualTo("0.05");
+        assertThat(format(-5)).isEqualTo("-0.05");
+        assertThat(format(-1205)).isEqualTo("-12.05");
+        assertThat(format(1_234_567_890L)).isEqualTo("12345678.90");
+    }
+
+    @Test
+    void overflowFailsLikeTheSqlSum() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getLong(1)).thenReturn(42L);
+        when(rs.getLong(2)).thenReturn(Long.MAX_VALUE, 1L);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(rs);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        var aggregator = new JavaDailyTotalAggregator(null, null, 1000);
+
+        assertThatThrownBy(() -> aggregator.aggregate(connection, LocalDate.of(2026, 10, 17), 1, 100))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("compte 42")
+                .hasCauseInstanceOf(ArithmeticException.class);
+    }
+}
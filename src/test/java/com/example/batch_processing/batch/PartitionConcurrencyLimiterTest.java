@@ -0,0 +1,78 @@
+package com.example.batch_processing.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionConcurrencyLimiterTest {
+
+    @Test
+    void availableConnectionsArePoolSizeMinusReservedConnections() {
+        assertThat(PartitionConcurrencyLimiter.availableConnections(10, 3)).isEqualTo(7);
+        assertThat(PartitionConcurrencyLimiter.availableConnections(2, 5)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrencyIsAvailableConnectionsPerPartition() {
+        PartitionConcurrencyLimiter limiter = new PartitionConcurrencyLimiter(7, 0);
+        assertThat(limiter.getMaxConcurrency(1)).isEqualTo(7);
+        // Mode chunk : curseur + écriture
+        assertThat(limiter.getMaxConcurrency(2)).isEqualTo(3);
+
+        assertThat(new PartitionConcurrencyLimiter(7, 4).getMaxConcurrency(1)).isEqualTo(4);
+        assertThat(new PartitionConcurrencyLimiter(7, 50).getMaxConcurrency(2)).isEqualTo(3);
+        assertThat(new PartitionConcurrencyLimiter(1, 0).getMaxConcurrency(2)).isEqualTo(1);
+    }
+
+    @Test
+    void manyPartitionsNeverExceedPermits() throws Exception {
+        assertThat(maxRunning(new PartitionConcurrencyLimiter(3, 0), 1)).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void chunkPartitionsTakeTwoConnectionsEach() throws Exception {
+        assertThat(maxRunning(new PartitionConcurrencyLimiter(7, 0), 2)).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void maxPartitionsCapsConcurrency() throws Exception {
+        assertThat(maxRunning(new PartitionConcurrencyLimiter(7, 2), 1)).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void partitionNeedingMoreConnectionsThanAvailableStillRuns() throws Exception {
+        assertThat(maxRunning(new PartitionConcurrencyLimiter(1, 0), 2)).isEqualTo(1);
+    }
+
+    private static int maxRunning(PartitionConcurrencyLimiter limiter, int connectionsPerPartition) throws Exception {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-partition-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(limiter.forConnections(connectionsPerPartition));
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+
+        for (int i = 0; i < 50; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        return maxRunning.get();
+    }
+}
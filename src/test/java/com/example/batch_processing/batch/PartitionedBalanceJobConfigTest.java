@@ -3,14 +3,20 @@ package com.example.batch_processing.batch;
 import com.example.batch_processing.service.JdbcClientWrapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.jdbc.core.simple.JdbcClient;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -23,36 +29,10 @@ class PartitionedBalanceJobConfigTest {
     @BeforeEach
     void setup() {
         jdbcClient = mock(JdbcClient.class);
-        config = new PartitionedBalanceJobConfig(null, null, jdbcClient);
+        config = new PartitionedBalanceJobConfig(null, null, jdbcClient, null, null, null);
         mockWrapper = mock(JdbcClientWrapper.class);
     }
 
-    /** ============================
-     * Partitioner tests
-     * ============================ */
-    @Test
-    void testRangePartitionerCreates8Partitions() {
-        var partitions = config.rangePartitioner().partition(8);
-        assertThat(partitions).hasSize(8);
-    }
-
-    @Test
-    void testRangePartitionerLastPartitionMaxId() {
-        var partitions = config.rangePartitioner().partition(8);
-        long maxIdLast = partitions.get("partition7").getLong("maxId");
-        assertThat(maxIdLast).isEqualTo(10_000_000L);
-    }
-
-    @Test
-    void partitionsCoverFullRange() {
-        var partitions = config.rangePartitioner().partition(8);
-        long firstMin = partitions.get("partition0").getLong("minId");
-        long lastMax = partitions.get("partition7").getLong("maxId");
-
-        assertThat(firstMin).isEqualTo(1L);
-        assertThat(lastMax).isEqualTo(10_000_000L);
-    }
-
     /** ============================
      * Tasklet tests
      * ============================ */
@@ -182,27 +162,36 @@ class PartitionedBalanceJobConfigTest {
     @Test
     void testTaskletThrowsExceptionIfJdbcFails() {
         JdbcClient.StatementSpec specUpsert = mock(JdbcClient.StatementSpec.class);
-        when(specUpsert.paramSource(any())).thenReturn(specUpsert);
+        when(specUpsert.paramSource(anyMap())).thenReturn(specUpsert);
         when(specUpsert.update()).thenThrow(new RuntimeException("DB Error"));
         when(jdbcClient.sql(contains("INSERT INTO account_daily_balance"))).thenReturn(specUpsert);
 
-        var tasklet = config.updateBalanceTasklet(1L, 100L);
+        var tasklet = config.updateBalanceTasklet("2026-10-17", 1L, 100L, false);
+        StepContribution contribution = new StepContribution(new StepExecution("updateBalanceWorkerStep", new JobExecution(1L)));
 
-        try {
-            tasklet.execute(mock(StepContribution.class), mock(ChunkContext.class));
-        } catch (Exception e) {
-            assertThat(e.getMessage()).contains("Cannot invoke \"org.springframework.jdbc.core.simple.JdbcClient$StatementSpec.update()\"");
-        }
+        assertThatThrownBy(() -> tasklet.execute(contribution, mock(ChunkContext.class)))
+                .hasMessage("DB Error");
+        assertThat(contribution.getStepExecution().getExecutionContext().containsKey("lastProcessedId")).isFalse();
     }
 
     /** ============================
      * Thread pool test
      * ============================ */
     @Test
-    void testTaskExecutorThreadPool() {
-        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) config.taskExecutor();
-        assertThat(executor.getCorePoolSize()).isEqualTo(8);
-        assertThat(executor.getMaxPoolSize()).isEqualTo(8);
-        assertThat(executor.getThreadNamePrefix()).isEqualTo("batch-thread-");
+    void testPartitionTaskExecutorUsesVirtualThreads() throws Exception {
+        SimpleAsyncTaskExecutor executor = (SimpleAsyncTaskExecutor) config.partitionTaskExecutor();
+        assertThat(executor.getThreadNamePrefix()).isEqualTo("batch-partition-");
+
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+        assertThat(virtual.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testPartitionConcurrencyDerivedFromPoolSize() {
+        // maximum-pool-size 10 - 3 connexions réservées à l'API
+        PartitionConcurrencyLimiter limiter = config.partitionConcurrencyLimiter();
+        assertThat(limiter.getMaxConcurrency(WorkerMode.TASKLET.getConnectionsPerPartition())).isEqualTo(7);
+        assertThat(limiter.getMaxConcurrency(WorkerMode.CHUNK.getConnectionsPerPartition())).isEqualTo(3);
     }
 }
\ No newline at end of file
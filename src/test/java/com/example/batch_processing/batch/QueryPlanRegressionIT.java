@@ -0,0 +1,289 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.query.AccountQuery;
+import com.example.batch_processing.query.BalanceQuery;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Classe QueryPlanRegressionIT
+ * <p>
+ * EXPLAIN de chaque requête du batch et de l'API sur une base PostgreSQL migrée par Flyway et
+ * alimentée (200 000 comptes, 300 000 transactions sur trois jours) : échoue si une requête lit
+ * accounts, account_daily_balance ou transactions (hors partitions vides) par un Seq Scan, ou si une table censée être
+ * couverte par un index n'est pas lue par un Index Only Scan. Chaque requête est vérifiée en plan
+ * personnalisé et en plan générique (requête préparée réutilisée par le driver).
+ * <p>
+ * Base créée puis supprimée sur le serveur indiqué par PLAN_TEST_JDBC_URL (par défaut le PostgreSQL
+ * local de docker-compose) ; le test est ignoré si le serveur est injoignable.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+class QueryPlanRegressionIT {
+
+    private static final String SERVER_URL = setting("PLAN_TEST_JDBC_URL", "jdbc:postgresql://localhost:5432/localdb");
+    private static final String USERNAME = setting("PLAN_TEST_USERNAME", "user");
+    private static final String PASSWORD = setting("PLAN_TEST_PASSWORD", "letmein");
+    private static final String DATABASE = "batch_plan_regression";
+
+    private static final Set<String> GUARDED_TABLES = Set.of("accounts", "account_daily_balance", "transactions");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static SingleConnectionDataSource dataSource;
+    private static LocalDate businessDate;
+    private static LocalDate today;
+    private static Set<String> emptyTables;
+
+    /**
+     * Requête vérifiée : paramètres nommés (Map) ou positionnels (List), tables à lire par Index Only Scan.
+     */
+    record PlanCase(String name, String sql, Object params, Set<String> indexOnly) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // ================= BASE DE TEST =================
+    @BeforeAll
+    static void createDatabase() throws SQLException {
+        assumeTrue(reachable(), "PostgreSQL injoignable sur " + SERVER_URL + " : plans non vérifiés");
+
+        try (Connection admin = DriverManager.getConnection(SERVER_URL, USERNAME, PASSWORD);
+             Statement statement = admin.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + DATABASE + " WITH (FORCE)");
+            statement.execute("CREATE DATABASE " + DATABASE);
+        }
+
+        String url = SERVER_URL.substring(0, SERVER_URL.lastIndexOf('/') + 1) + DATABASE;
+        // Base au schéma d'origine alimentée avant les migrations suivantes : même chemin qu'une base de production
+        Flyway.configure().dataSource(url, USERNAME, PASSWORD).target("1").load().migrate();
+        dataSource = new SingleConnectionDataSource(url, USERNAME, PASSWORD, true);
+        JdbcClient jdbc = JdbcClient.create(dataSource);
+        seedOriginalSchema(jdbc);
+        Flyway.configure().dataSource(url, USERNAME, PASSWORD).load().migrate();
+
+        seed(jdbc);
+        businessDate = jdbc.sql("SELECT CURRENT_DATE - 1").query(LocalDate.class).single();
+        today = businessDate.plusDays(1);
+        // Partitions sans ligne (jours à venir) : un Seq Scan n'y lit rien
+        emptyTables = Set.copyOf(jdbc.sql("""
+                SELECT c.relname FROM pg_class c
+                WHERE c.relnamespace = 'public'::regnamespace AND c.relkind = 'r' AND c.relpages = 0
+                """).query(String.class).list());
+    }
+
+    @AfterAll
+    static void dropDatabase() throws SQLException {
+        if (dataSource == null) {
+            return;
+        }
+        dataSource.destroy();
+        try (Connection admin = DriverManager.getConnection(SERVER_URL, USERNAME, PASSWORD);
+             Statement statement = admin.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + DATABASE + " WITH (FORCE)");
+        }
+    }
+
+    private static void seedOriginalSchema(JdbcClient jdbc) {
+        jdbc.sql("""
+                INSERT INTO accounts (customer_name, balance)
+                SELECT 'client ' || g, 100 FROM generate_series(1, 200000) g
+                """).update();
+        jdbc.sql("""
+                INSERT INTO transactions (account_id, amount, status, transaction_date)
+                SELECT (g % 200000) + 1, ((g % 1000) - 300) / 100.0,
+                       CASE WHEN g % 10 = 0 THEN 'PENDING' ELSE 'VALIDATED' END,
+                       CURRENT_DATE - (g % 3)
+                FROM generate_series(1, 300000) g
+                """).update();
+    }
+
+    private static void seed(JdbcClient jdbc) {
+        // Veille agrégée, un compte sur deux pas encore appliqué
+        jdbc.sql("""
+                INSERT INTO account_daily_balance (account_id, balance_date, daily_total, processed, applied_total)
+                SELECT t.account_id, t.transaction_date, SUM(t.amount), TRUE,
+                       CASE WHEN t.account_id % 2 = 0 THEN SUM(t.amount) END
+                FROM transactions t
+                WHERE t.status = 'VALIDATED' AND t.transaction_date < CURRENT_DATE
+                GROUP BY t.account_id, t.transaction_date
+                """).update();
+        jdbc.sql("INSERT INTO business_day_close (balance_date, job_execution_id) VALUES (CURRENT_DATE - 1, 1)").update();
+        jdbc.sql("""
+                INSERT INTO dirty_account_day (balance_date, account_id)
+                SELECT CURRENT_DATE - 1, g FROM generate_series(1, 200000, 4000) g
+                """).update();
+        jdbc.sql("""
+                INSERT INTO daily_aggregation_watermark (balance_date, last_xid, last_transaction_id, active_from_xid)
+                VALUES (CURRENT_DATE, 1, 150000, 0)
+                """).update();
+        // Statistiques et visibility map à jour : condition des Index Only Scan
+        jdbc.sql("VACUUM ANALYZE").update();
+    }
+
+    // ================= REQUÊTES =================
+    static Stream<Arguments> planCases() {
+        Map<String, Object> slice = Map.of("businessDate", businessDate, "minId", 1L, "maxId", 500L, "jobExecutionId", 1L);
+        List<Object> positionalSlice = List.of(businessDate, 1L, 500L);
+        long[] lookupIds = LongStream.iterate(7, id -> id <= 200000, id -> id + 400).toArray();
+
+        List<PlanCase> cases = List.of(
+                new PlanCase("UPSERT_DAILY_BALANCE", BalanceQuery.UPSERT_DAILY_BALANCE, slice, Set.of("transactions")),
+                new PlanCase("APPLY_DAILY_BALANCE_FUSED", BalanceQuery.APPLY_DAILY_BALANCE_FUSED, slice, Set.of("transactions")),
+                new PlanCase("UPDATE_ACCOUNT_BALANCE", BalanceQuery.UPDATE_ACCOUNT_BALANCE, slice, Set.of()),
+                new PlanCase("SELECT_DAILY_TOTALS", BalanceQuery.SELECT_DAILY_TOTALS,
+                        List.of(businessDate, 1L, 500L, businessDate, 1L, 500L), Set.of("transactions")),
+                new PlanCase("SELECT_VALIDATED_CENTS", BalanceQuery.SELECT_VALIDATED_CENTS, positionalSlice, Set.of("transactions")),
+                new PlanCase("SELECT_UNAPPLIED_DAILY_TOTALS", BalanceQuery.SELECT_UNAPPLIED_DAILY_TOTALS, positionalSlice,
+                        Set.of("account_daily_balance")),
+                new PlanCase("UPSERT_DAILY_BALANCE_ITEM", BalanceQuery.UPSERT_DAILY_BALANCE_ITEM,
+                        Map.of("accountId", 77L, "balanceDate", businessDate, "dailyTotal", 12.5), Set.of()),
+                new PlanCase("UPDATE_ACCOUNT_BALANCE_ITEM", BalanceQuery.UPDATE_ACCOUNT_BALANCE_ITEM,
+                        Map.of("accountId", 77L, "balanceDate", businessDate, "jobExecutionId", 1L), Set.of()),
+                new PlanCase("FOLD_DAILY_TOTALS", BalanceQuery.FOLD_DAILY_TOTALS,
+                        Map.of("businessDate", today, "activeFromXid", 0L, "lastXid", 1L, "lastTransactionId", 150000L,
+                                "maxTransactions", 50000),
+                        Set.of("transactions")),
+                new PlanCase("RECOMPUTE_DIRTY_DAILY_TOTALS", BalanceQuery.RECOMPUTE_DIRTY_DAILY_TOTALS,
+                        Map.of("businessDate", businessDate, "batchSize", 5000), Set.of("transactions")),
+                new PlanCase("CORRECT_DIRTY_ACCOUNT_DAYS", BalanceQuery.CORRECT_DIRTY_ACCOUNT_DAYS,
+                        Map.of("batchSize", 5000, "jobExecutionId", 1L), Set.of("transactions")),
+                new PlanCase("SELECT_VOLUME_HISTOGRAM", TransactionVolumePartitioner.SELECT_VOLUME_HISTOGRAM,
+                        Map.of("businessDate", businessDate, "minId", 1L, "bucketWidth", 20L), Set.of("transactions")),
+                new PlanCase("SELECT_ACCOUNT_BOUNDS", TransactionVolumePartitioner.SELECT_ACCOUNT_BOUNDS, Map.of(), Set.of("accounts")),
+                new PlanCase("SELECT_ACCOUNT_BUCKETS", AccountRangePartitioner.SELECT_ACCOUNT_BUCKETS, Map.of("gridSize", 8),
+                        Set.of("accounts")),
+                new PlanCase("SELECT_DAILY_SUMMARY", AccountQuery.SELECT_DAILY_SUMMARY.replace("/**WHERE_CLAUSE**/", ""),
+                        Map.of("balanceDate", businessDate, "size", 20, "offset", 0),
+                        Set.of("account_daily_balance", "transactions")),
+                new PlanCase("SELECT_DAILY_SUMMARY (compte)",
+                        AccountQuery.SELECT_DAILY_SUMMARY.replace("/**WHERE_CLAUSE**/", "WHERE a.id = :accountId"),
+                        Map.of("balanceDate", businessDate, "size", 20, "offset", 0, "accountId", 77L),
+                        Set.of("transactions")),
+                new PlanCase("SELECT_DAILY_SUMMARY_AFTER",
+                        AccountQuery.SELECT_DAILY_SUMMARY_AFTER.replace("/**WHERE_CLAUSE**/", "WHERE a.id > :afterAccountId"),
+                        Map.of("balanceDate", businessDate, "size", 1000, "afterAccountId", 150000L),
+                        Set.of("account_daily_balance", "transactions")),
+                new PlanCase("SELECT_BUSINESS_DAY_CLOSED", AccountQuery.SELECT_BUSINESS_DAY_CLOSED,
+                        Map.of("balanceDate", businessDate), Set.of()),
+                new PlanCase("SELECT_CLOSED_DAILY_SUMMARY", AccountQuery.SELECT_CLOSED_DAILY_SUMMARY.replace("/**WHERE_CLAUSE**/", ""),
+                        Map.of("balanceDate", businessDate, "size", 20, "offset", 0),
+                        Set.of("account_daily_balance")),
+                new PlanCase("SELECT_CLOSED_DAILY_SUMMARY_AFTER",
+                        AccountQuery.SELECT_CLOSED_DAILY_SUMMARY_AFTER.replace("/**WHERE_CLAUSE**/", "WHERE a.id > :afterAccountId"),
+                        Map.of("balanceDate", businessDate, "size", 1000, "afterAccountId", 150000L),
+                        Set.of("account_daily_balance")),
+                new PlanCase("SELECT_DAILY_SUMMARY_BY_IDS", AccountQuery.SELECT_DAILY_SUMMARY_BY_IDS,
+                        Map.of("balanceDate", businessDate, "accountIds", lookupIds),
+                        Set.of("transactions")),
+                new PlanCase("SELECT_CLOSED_DAILY_SUMMARY_BY_IDS", AccountQuery.SELECT_CLOSED_DAILY_SUMMARY_BY_IDS,
+                        Map.of("balanceDate", businessDate, "accountIds", lookupIds),
+                        Set.of("account_daily_balance")));
+
+        return cases.stream().flatMap(c -> Stream.of(
+                Arguments.of(c, "force_custom_plan"),
+                Arguments.of(c, "force_generic_plan")));
+    }
+
+    @ParameterizedTest(name = "{0} ({1})")
+    @MethodSource("planCases")
+    void readsThroughIndexes(PlanCase planCase, String planCacheMode) throws Exception {
+        JdbcClient jdbc = JdbcClient.create(dataSource);
+        jdbc.sql("SELECT set_config('plan_cache_mode', :mode, false)").param("mode", planCacheMode).query().singleRow();
+
+        String json = bind(jdbc.sql("EXPLAIN (FORMAT JSON) " + planCase.sql()), planCase.params())
+                .query(String.class)
+                .single();
+        JsonNode plan = MAPPER.readTree(json).get(0).get("Plan");
+
+        List<String> scans = new ArrayList<>();
+        collectScans(plan, scans);
+
+        for (String scan : scans) {
+            String[] parts = scan.split(" on ", 2);
+            String nodeType = parts[0];
+            String table = tableOf(parts[1]);
+            if (!GUARDED_TABLES.contains(table) || emptyTables.contains(parts[1].split(" using ", 2)[0])) {
+                continue;
+            }
+            assertThat(nodeType)
+                    .as("%s : %s dans le plan %s", planCase.name(), scan, scans)
+                    .isNotEqualTo("Seq Scan");
+            if (planCase.indexOnly().contains(table)) {
+                assertThat(nodeType)
+                        .as("%s : %s devrait être couvert par un index (plan %s)", planCase.name(), scan, scans)
+                        .isEqualTo("Index Only Scan");
+            }
+        }
+        for (String table : planCase.indexOnly()) {
+            assertThat(scans)
+                    .as("%s : aucune lecture de %s dans le plan", planCase.name(), table)
+                    .anyMatch(scan -> tableOf(scan.split(" on ", 2)[1]).equals(table));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JdbcClient.StatementSpec bind(JdbcClient.StatementSpec spec, Object params) {
+        return (params instanceof Map<?, ?> named)
+                ? spec.params((Map<String, ?>) named)
+                : spec.params((List<?>) params);
+    }
+
+    // "transactions_20261017 using ..." -> transactions
+    private static String tableOf(String relation) {
+        String table = relation.split(" using ", 2)[0];
+        return table.matches("transactions_\\d{8}") ? "transactions" : table;
+    }
+
+    private static void collectScans(JsonNode node, List<String> scans) {
+        String nodeType = node.path("Node Type").asText();
+        if (node.has("Relation Name") && nodeType.endsWith("Scan")) {
+            scans.add(nodeType + " on " + node.get("Relation Name").asText()
+                    + (node.has("Index Name") ? " using " + node.get("Index Name").asText() : ""));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, scans);
+        }
+    }
+
+    private static boolean reachable() {
+        try (Connection ignored = DriverManager.getConnection(SERVER_URL, USERNAME, PASSWORD)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return (value != null && !value.isBlank()) ? value : defaultValue;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.batch_processing.batch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeLeaseTest {
+
+    @Test
+    void slicesStopAtTheLeaseMaxId() {
+        RangeLease lease = new RangeLease(1, 25);
+
+        assertThat(lease.nextSliceEnd(1, 10)).isEqualTo(10L);
+        assertThat(lease.nextSliceEnd(21, 10)).isEqualTo(25L);
+    }
+
+    @Test
+    void splitKeepsTheSliceInFlight() {
+        RangeLease lease = new RangeLease(1, 100);
+        lease.nextSliceEnd(1, 10);
+
+        assertThat(lease.splitOffRemainder()).contains(new IdRange(11, 100));
+        assertThat(lease.maxId()).isEqualTo(10L);
+        // La tranche suivante est vide : la partition s'arrête après la tranche en cours
+        assertThat(lease.nextSliceEnd(11, 10)).isLessThan(11L);
+    }
+
+    @Test
+    void nothingToSplitOnTheLastSlice() {
+        RangeLease lease = new RangeLease(1, 100);
+        lease.nextSliceEnd(91, 10);
+
+        assertThat(lease.splitOffRemainder()).isEmpty();
+        assertThat(lease.maxId()).isEqualTo(100L);
+    }
+
+    @Test
+    void releaseFromHandsBackEverythingLeft() {
+        RangeLease lease = new RangeLease(1, 100);
+        lease.nextSliceEnd(41, 10);
+
+        assertThat(lease.releaseFrom(41)).contains(new IdRange(41, 100));
+        assertThat(lease.releaseFrom(41)).isEmpty();
+    }
+
+    @Test
+    void idRangeSplitsIntoContiguousPieces() {
+        assertThat(new IdRange(11, 20).split(3)).containsExactly(
+                new IdRange(11, 14),
+                new IdRange(15, 17),
+                new IdRange(18, 20));
+        assertThat(new IdRange(5, 6).split(4)).containsExactly(new IdRange(5, 5), new IdRange(6, 6));
+    }
+}
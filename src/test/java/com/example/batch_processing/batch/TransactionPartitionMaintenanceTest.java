@@ -0,0 +1,84 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.repo.TransactionPartitionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionPartitionMaintenanceTest {
+
+    private final LocalDate today = LocalDate.of(2026, 10, 18);
+    private final TransactionPartitionRepository repository = mock(TransactionPartitionRepository.class);
+
+    private TransactionPartitionMaintenance maintenance(int daysAhead, int retentionDays) {
+        return new TransactionPartitionMaintenance(repository, ZoneId.of("America/Toronto"), daysAhead, retentionDays);
+    }
+
+    @Test
+    void createsPartitionsForTheUpcomingDays() {
+        maintenance(14, 0).createUpcoming(today);
+
+        verify(repository).createPartitions(today, LocalDate.of(2026, 11, 1));
+    }
+
+    @Test
+    void detachesPartitionsOlderThanTheRetention() {
+        when(repository.expiredPartitions(LocalDate.of(2026, 10, 8)))
+                .thenReturn(List.of("transactions_20261006", "transactions_20261007"));
+        doThrow(new IllegalStateException("en cours")).when(repository).detach("transactions_20261006");
+
+        maintenance(14, 10).detachExpired(today);
+
+        // un échec n'empêche pas de détacher les suivantes
+        verify(repository).detach("transactions_20261006");
+        verify(repository).detach("transactions_20261007");
+    }
+
+    @Test
+    void createsThePartitionOfEveryDayFoundInTheDefaultPartition() {
+        when(repository.defaultPartitionDates()).thenReturn(List.of(LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 2)));
+        doThrow(new IllegalStateException("verrou")).when(repository).createPartitions(LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 1));
+
+        maintenance(14, 0).moveDefaultPartitionRows();
+
+        // un échec n'empêche pas de traiter les jours suivants
+        verify(repository).createPartitions(LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 2));
+    }
+
+    @Test
+    void maintenanceRunsOnlyUnderTheLock() {
+        when(repository.runExclusively(any())).thenReturn(false);
+
+        maintenance(14, 10).maintain();
+
+        verify(repository, never()).createPartitions(any(), any());
+        verify(repository, never()).expiredPartitions(any());
+    }
+
+    @Test
+    void lockHolderCreatesMovesAndDetaches() {
+        when(repository.runExclusively(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+
+        maintenance(14, 10).maintain();
+
+        verify(repository).createPartitions(any(), any());
+        verify(repository).defaultPartitionDates();
+        verify(repository).expiredPartitions(any());
+    }
+
+    @Test
+    void keepsEveryPartitionWithoutRetention() {
+        maintenance(14, 0).detachExpired(today);
+
+        verify(repository, never()).expiredPartitions(any());
+        verify(repository, never()).detach(any());
+    }
+}
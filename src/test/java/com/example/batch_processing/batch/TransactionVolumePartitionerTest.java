@@ -0,0 +1,152 @@
+package com.example.batch_processing.batch;
+
+import com.example.batch_processing.batch.TransactionVolumePartitioner.AccountVolume;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionVolumePartitionerTest {
+
+    @Test
+    void uniformVolumeGivesEqualRanges() {
+        List<AccountVolume> histogram = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            histogram.add(new AccountVolume(id, 10));
+        }
+
+        List<IdRange> ranges = TransactionVolumePartitioner.weightedRanges(histogram, 4, 1, 100);
+
+        assertThat(ranges).containsExactly(
+                new IdRange(1, 25),
+                new IdRange(26, 50),
+                new IdRange(51, 75),
+                new IdRange(76, 100));
+    }
+
+    @Test
+    void hotAccountGetsItsOwnPartition() {
+        List<AccountVolume> histogram = new ArrayList<>();
+        for (long id = 1; id <= 90; id++) {
+            histogram.add(new AccountVolume(id, id == 10 ? 1_000_000 : 100));
+        }
+
+        List<IdRange> ranges = TransactionVolumePartitioner.weightedRanges(histogram, 4, 1, 90);
+
+        // Le compte 10 ferme la première partition, les suivantes se répartissent le reste
+        assertThat(ranges).hasSize(4);
+        assertThat(ranges.get(0)).isEqualTo(new IdRange(1, 10));
+        assertThat(ranges.get(1).minId()).isEqualTo(11L);
+        assertThat(ranges.get(3).maxId()).isEqualTo(90L);
+    }
+
+    @Test
+    void rangesAreGapFreeUpToAccountsMaxId() {
+        List<AccountVolume> histogram = List.of(
+                new AccountVolume(50, 5),
+                new AccountVolume(700, 5),
+                new AccountVolume(12_000_000, 5));
+
+        List<IdRange> ranges = TransactionVolumePartitioner.weightedRanges(histogram, 3, 1, 15_000_000);
+
+        long expectedMin = 1;
+        for (IdRange range : ranges) {
+            assertThat(range.minId()).isEqualTo(expectedMin);
+            expectedMin = range.maxId() + 1;
+        }
+        assertThat(expectedMin).isEqualTo(15_000_001L);
+    }
+
+    @Test
+    void neverProducesMoreThanGridSize() {
+        List<AccountVolume> histogram = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            histogram.add(new AccountVolume(id, 1 + id % 7));
+        }
+
+        assertThat(TransactionVolumePartitioner.weightedRanges(histogram, 8, 1, 1_000)).hasSize(8);
+    }
+
+    @Test
+    void fallsBackToAccountRangesWithoutSampledTransactions() {
+        List<LocalDate> businessDates = List.of(LocalDate.of(2026, 10, 17));
+        IdRangePartitioner fallback = new IdRangePartitioner(businessDates) {
+            @Override
+            protected List<IdRange> split(LocalDate businessDate, int gridSize) {
+                return List.of(new IdRange(1, 10));
+            }
+        };
+        TransactionVolumePartitioner partitioner = new TransactionVolumePartitioner(null, fallback, 1.0, businessDates) {
+            @Override
+            protected IdRange loadAccountBounds() {
+                return new IdRange(1, 10);
+            }
+
+            @Override
+            protected List<AccountVolume> loadHistogram(LocalDate businessDate, IdRange bounds) {
+                return List.of();
+            }
+        };
+
+        assertThat(partitioner.partition(8)).hasSize(1);
+    }
+
+    @Test
+    void partitionWeightIsTheSampledVolumeOfItsRange() {
+        List<LocalDate> businessDates = List.of(LocalDate.of(2026, 10, 17));
+        TransactionVolumePartitioner partitioner = new TransactionVolumePartitioner(null, null, 1.0, businessDates) {
+            @Override
+            protected IdRange loadAccountBounds() {
+                return new IdRange(1, 4);
+            }
+
+            @Override
+            protected List<AccountVolume> loadHistogram(LocalDate businessDate, IdRange bounds) {
+                return List.of(new AccountVolume(1, 900), new AccountVolume(3, 50), new AccountVolume(4, 50));
+            }
+        };
+
+        var partitions = partitioner.partition(2);
+
+        assertThat(partitions.get("partition0").getLong(WorkQueuePartitionHandler.WEIGHT)).isEqualTo(900L);
+        assertThat(partitions.get("partition1").getLong(WorkQueuePartitionHandler.WEIGHT)).isEqualTo(100L);
+    }
+
+    @Test
+    void histogramWeightSumsTheAccountsOfTheRange() {
+        TransactionVolumePartitioner.VolumeHistogram histogram = new TransactionVolumePartitioner.VolumeHistogram(List.of(
+                new AccountVolume(3, 10), new AccountVolume(7, 20), new AccountVolume(8, 30), new AccountVolume(20, 40)));
+
+        assertThat(histogram.weight(1, 100)).isEqualTo(100L);
+        assertThat(histogram.weight(3, 8)).isEqualTo(60L);
+        assertThat(histogram.weight(4, 7)).isEqualTo(20L);
+        assertThat(histogram.weight(8, 19)).isEqualTo(30L);
+        assertThat(histogram.weight(9, 19)).isZero();
+        assertThat(histogram.weight(21, 30)).isZero();
+        assertThat(histogram.weight(1, 2)).isZero();
+    }
+
+    @Test
+    void histogramHasAtMostMaxBuckets() {
+        assertThat(TransactionVolumePartitioner.bucketWidth(new IdRange(1, 100))).isEqualTo(1L);
+        assertThat(TransactionVolumePartitioner.bucketWidth(new IdRange(1, 10_000))).isEqualTo(1L);
+        assertThat(TransactionVolumePartitioner.bucketWidth(new IdRange(1, 10_001))).isEqualTo(2L);
+        assertThat(TransactionVolumePartitioner.bucketWidth(new IdRange(1, 15_000_000))).isEqualTo(1_500L);
+    }
+
+    @Test
+    void samplePercentMustBeAPercentage() {
+        List<LocalDate> businessDates = List.of(LocalDate.of(2026, 10, 17));
+
+        assertThatThrownBy(() -> new TransactionVolumePartitioner(null, null, 0, businessDates))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TransactionVolumePartitioner(null, null, 150, businessDates))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TransactionVolumePartitioner(null, null, Double.NaN, businessDates))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
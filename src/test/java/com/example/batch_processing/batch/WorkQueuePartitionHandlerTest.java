@@ -0,0 +1,268 @@
+package com.example.batch_processing.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WorkQueuePartitionHandlerTest {
+
+    private final JobExecution jobExecution = new JobExecution(1L);
+
+    private Set<StepExecution> units(long... weights) {
+        Set<StepExecution> units = new HashSet<>();
+        for (int i = 0; i < weights.length; i++) {
+            StepExecution unit = new StepExecution("worker:partition" + i, jobExecution);
+            unit.getExecutionContext().putLong(WorkQueuePartitionHandler.WEIGHT, weights[i]);
+            units.add(unit);
+        }
+        return units;
+    }
+
+    private static Step recordingStep(List<String> executed) throws Exception {
+        Step step = mock(Step.class);
+        doAnswer(invocation -> {
+            StepExecution unit = invocation.getArgument(0);
+            executed.add(unit.getStepName());
+            unit.setStatus(BatchStatus.COMPLETED);
+            return null;
+        }).when(step).execute(any());
+        return step;
+    }
+
+    @Test
+    void heaviestUnitsArePulledFirst() throws Exception {
+        List<String> executed = new ArrayList<>();
+        var handler = new WorkQueuePartitionHandler(recordingStep(executed), new SyncTaskExecutor(), 1, 4);
+
+        handler.doHandle(new StepExecution("partitionStep", jobExecution), units(10, 500, 1, 40));
+
+        assertThat(executed).containsExactly("worker:partition1", "worker:partition3",
+                "worker:partition0", "worker:partition2");
+    }
+
+    @Test
+    void everyUnitIsExecutedExactlyOnceByTheWorkers() throws Exception {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-worker-");
+        executor.setVirtualThreads(true);
+        var handler = new WorkQueuePartitionHandler(recordingStep(executed), executor, 4, 256);
+
+        long[] weights = new long[256];
+        Arrays.fill(weights, 1);
+        Set<StepExecution> result = handler.doHandle(new StepExecution("partitionStep", jobExecution), units(weights));
+
+        assertThat(executed).hasSize(256).doesNotHaveDuplicates();
+        assertThat(result).allMatch(unit -> unit.getStatus() == BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void failingUnitIsMarkedFailedAndOthersStillRun() throws Exception {
+        Step step = mock(Step.class);
+        doAnswer(invocation -> {
+            StepExecution unit = invocation.getArgument(0);
+            if (unit.getStepName().endsWith("partition1")) {
+                throw new IllegalStateException("DB Error");
+            }
+            unit.setStatus(BatchStatus.COMPLETED);
+            return null;
+        }).when(step).execute(any());
+        var handler = new WorkQueuePartitionHandler(step, new SyncTaskExecutor(), 1, 3);
+
+        Set<StepExecution> result = handler.doHandle(new StepExecution("partitionStep", jobExecution), units(1, 2, 3));
+
+        assertThat(result).filteredOn(unit -> unit.getStatus() == BatchStatus.FAILED)
+                .extracting(StepExecution::getStepName)
+                .containsExactly("worker:partition1");
+        assertThat(result).filteredOn(unit -> unit.getStatus() == BatchStatus.COMPLETED).hasSize(2);
+    }
+
+    // ================= Redécoupage =================
+
+    private final RangeLeaseRegistry leases = new RangeLeaseRegistry();
+    private final AtomicLong ids = new AtomicLong(100);
+
+    private JobRepository idAssigningRepository() {
+        JobRepository jobRepository = mock(JobRepository.class);
+        doAnswer(invocation -> {
+            StepExecution child = invocation.getArgument(0);
+            child.setId(ids.incrementAndGet());
+            return null;
+        }).when(jobRepository).add(any());
+        return jobRepository;
+    }
+
+    private Set<StepExecution> rangeUnits(IdRange... ranges) {
+        Set<StepExecution> units = new HashSet<>();
+        for (int i = 0; i < ranges.length; i++) {
+            StepExecution unit = jobExecution.createStepExecution("worker:partition" + i);
+            unit.setId(ids.incrementAndGet());
+            unit.getExecutionContext().putString(BusinessDates.BUSINESS_DATE, "2026-10-17");
+            unit.getExecutionContext().putLong(IdRangePartitioner.MIN_ID, ranges[i].minId());
+            unit.getExecutionContext().putLong(IdRangePartitioner.MAX_ID, ranges[i].maxId());
+            units.add(unit);
+        }
+        return units;
+    }
+
+    /**
+     * Simule le tasklet : tranches de 10 ids bornées par le bail, la partition0 d'origine étant lente.
+     */
+    private Step slicingStep(List<Long> processedIds, String slowUnit) throws Exception {
+        Step step = mock(Step.class);
+        doAnswer(invocation -> {
+            StepExecution unit = invocation.getArgument(0);
+            unit.setStartTime(LocalDateTime.now());
+            RangeLease lease = leases.get(unit.getId());
+            long start = unit.getExecutionContext().getLong(IdRangePartitioner.MIN_ID);
+            long end;
+            while ((end = lease.nextSliceEnd(start, 10)) >= start) {
+                for (long id = start; id <= end; id++) {
+                    processedIds.add(id);
+                }
+                if (unit.getStepName().equals(slowUnit)) {
+                    Thread.sleep(50);
+                }
+                unit.getExecutionContext().putLong(BalanceSliceTasklet.LAST_PROCESSED_ID, end);
+                start = end + 1;
+            }
+            unit.setStatus(BatchStatus.COMPLETED);
+            unit.setEndTime(LocalDateTime.now());
+            return null;
+        }).when(step).execute(any());
+        return step;
+    }
+
+    @Test
+    void stragglerRemainderIsSplitForIdleWorkers() throws Exception {
+        List<Long> processedIds = Collections.synchronizedList(new ArrayList<>());
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-worker-");
+        executor.setVirtualThreads(true);
+        var handler = new WorkQueuePartitionHandler(slicingStep(processedIds, "worker:partition0"), executor, 3, 3);
+        handler.enableStragglerSplitting(idAssigningRepository(), leases,
+                new StragglerPolicy(2.0, 1, Duration.ofMillis(20), 2));
+
+        Set<StepExecution> result = handler.doHandle(new StepExecution("partitionStep", jobExecution),
+                rangeUnits(new IdRange(1, 200), new IdRange(201, 210), new IdRange(211, 220)));
+
+        assertThat(processedIds).hasSize(220).doesNotHaveDuplicates();
+        assertThat(result).extracting(StepExecution::getStepName).contains("worker:partition0.1");
+        assertThat(result).allMatch(unit -> unit.getStatus() == BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void timedOutUnitHandsBackItsRemainingRange() throws Exception {
+        List<Long> processedIds = Collections.synchronizedList(new ArrayList<>());
+        Step slicing = slicingStep(processedIds, "none");
+        Step step = mock(Step.class);
+        doAnswer(invocation -> {
+            StepExecution unit = invocation.getArgument(0);
+            if (unit.getStepName().equals("worker:partition0")) {
+                // 1 à 40 commités, puis requête annulée par statement_timeout
+                for (long id = 1; id <= 40; id++) {
+                    processedIds.add(id);
+                }
+                unit.getExecutionContext().putLong(BalanceSliceTasklet.LAST_PROCESSED_ID, 40L);
+                unit.setStatus(BatchStatus.FAILED);
+                unit.addFailureException(new QueryTimeoutException("canceling statement due to statement timeout"));
+                return null;
+            }
+            slicing.execute(unit);
+            return null;
+        }).when(step).execute(any());
+        JobRepository jobRepository = idAssigningRepository();
+        var handler = new WorkQueuePartitionHandler(step, new SyncTaskExecutor(), 2, 1);
+        handler.enableStragglerSplitting(jobRepository, leases, new StragglerPolicy(3.0, 5, Duration.ofMillis(10), 2));
+
+        Set<StepExecution> result = handler.doHandle(new StepExecution("partitionStep", jobExecution),
+                rangeUnits(new IdRange(1, 100)));
+
+        assertThat(processedIds).hasSize(100).doesNotHaveDuplicates();
+        assertThat(result).hasSize(3).allMatch(unit -> unit.getStatus() == BatchStatus.COMPLETED);
+        verify(jobRepository).update(argThat((StepExecution unit) -> unit.getStepName().equals("worker:partition0")));
+    }
+
+    @Test
+    void donorFailsWhenOneOfItsSplitsFails() throws Exception {
+        Step step = mock(Step.class);
+        doAnswer(invocation -> {
+            StepExecution unit = invocation.getArgument(0);
+            unit.setStatus(BatchStatus.FAILED);
+            unit.addFailureException(new QueryTimeoutException("canceling statement due to statement timeout"));
+            return null;
+        }).when(step).execute(any());
+        var handler = new WorkQueuePartitionHandler(step, new SyncTaskExecutor(), 2, 1);
+        handler.enableStragglerSplitting(idAssigningRepository(), leases, new StragglerPolicy(3.0, 5, Duration.ofMillis(10), 1));
+
+        Set<StepExecution> result = handler.doHandle(new StepExecution("partitionStep", jobExecution),
+                rangeUnits(new IdRange(1, 100)));
+
+        // Profondeur max 1 : les sous-unités en échec ne sont pas redécoupées, l'unité d'origine reste en échec
+        assertThat(result).hasSize(3).allMatch(unit -> unit.getStatus() == BatchStatus.FAILED);
+    }
+
+    @Test
+    void chunkUnitsAreNeverSplitNorTakenBack() throws Exception {
+        List<Long> processedIds = Collections.synchronizedList(new ArrayList<>());
+        Step step = mock(Step.class);
+        when(step.getName()).thenReturn(WorkerMode.CHUNK.getWorkerStepName());
+        doAnswer(invocation -> {
+            // Curseur du mode chunk : toute la plage, sans consulter de bail
+            StepExecution unit = invocation.getArgument(0);
+            unit.setStartTime(LocalDateTime.now());
+            long minId = unit.getExecutionContext().getLong(IdRangePartitioner.MIN_ID);
+            long maxId = unit.getExecutionContext().getLong(IdRangePartitioner.MAX_ID);
+            for (long id = minId; id <= maxId; id++) {
+                processedIds.add(id);
+            }
+            if (unit.getStepName().equals("worker:partition0")) {
+                Thread.sleep(300);
+                unit.setStatus(BatchStatus.FAILED);
+                unit.addFailureException(new QueryTimeoutException("canceling statement due to statement timeout"));
+            } else {
+                unit.setStatus(BatchStatus.COMPLETED);
+            }
+            unit.setEndTime(LocalDateTime.now());
+            return null;
+        }).when(step).execute(any());
+        JobRepository jobRepository = idAssigningRepository();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-worker-");
+        executor.setVirtualThreads(true);
+        var handler = new WorkQueuePartitionHandler(step, executor, 3, 3);
+        handler.enableStragglerSplitting(jobRepository, leases, new StragglerPolicy(2.0, 1, Duration.ofMillis(20), 2));
+
+        Set<StepExecution> result = handler.doHandle(new StepExecution("partitionStep", jobExecution),
+                rangeUnits(new IdRange(1, 200), new IdRange(201, 210), new IdRange(211, 220)));
+
+        // Ni retardataire redécoupé ni échec repris : chaque id lu une seule fois, l'échec reste à redémarrer
+        assertThat(processedIds).hasSize(220).doesNotHaveDuplicates();
+        assertThat(result).hasSize(3);
+        assertThat(result).filteredOn(unit -> unit.getStepName().equals("worker:partition0"))
+                .singleElement().extracting(StepExecution::getStatus).isEqualTo(BatchStatus.FAILED);
+        verifyNoInteractions(jobRepository);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.batch_processing.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkerModeDeciderTest {
+
+    private final WorkerModeDecider decider = new WorkerModeDecider(WorkerMode.TASKLET);
+
+    @Test
+    void usesDefaultModeWithoutJobParameter() {
+        JobExecution execution = new JobExecution(1L, new JobParametersBuilder().toJobParameters());
+
+        assertThat(decider.decide(execution, null).getName()).isEqualTo("TASKLET");
+    }
+
+    @Test
+    void jobParameterSelectsChunkMode() {
+        JobExecution execution = new JobExecution(1L, new JobParametersBuilder()
+                .addString(WorkerModeDecider.WORKER_MODE_PARAM, "chunk")
+                .toJobParameters());
+
+        assertThat(decider.decide(execution, null).getName()).isEqualTo("CHUNK");
+    }
+
+    @Test
+    void unknownModeIsRejected() {
+        assertThatThrownBy(() -> decider.resolve("turbo")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.batch_processing.benchmark;
+
+import com.example.batch_processing.domain.Response;
+import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.AccountDailySummarySerializer;
+import com.example.batch_processing.repo.AccountDailyBalanceRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SimplePropertyRowMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe DailySummaryJsonBenchmark
+ * <p>
+ * Coût d'une page du résumé journalier entre le ResultSet et les octets de la réponse :
+ * <ul>
+ *   <li>{@code reflective} : chemin d'origine, {@code query(AccountDailySummaryDTO.class)} (mapping par
+ *   réflexion) puis sérialisation du bean par Jackson ;</li>
+ *   <li>{@code precompiled} : chemin actuel de l'API, SUMMARY_ROW_MAPPER puis AccountDailySummarySerializer ;</li>
+ *   <li>{@code direct} : colonnes écrites directement dans le JsonGenerator, sans DTO (export).</li>
+ * </ul>
+ * La page est lue dans une base H2 en mémoire (ResultSet rembobiné à chaque appel) : seuls le mapping et
+ * l'écriture JSON sont mesurés. {@code mvn -Pbenchmark test-compile exec:exec}, ajouter
+ * {@code -Djmh.args="DailySummaryJsonBenchmark -prof gc"} pour les allocations par appel.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DailySummaryJsonBenchmark {
+
+    @Param({"20", "1000"})
+    private int rows;
+
+    private Connection connection;
+    private ResultSet resultSet;
+
+    private final RowMapper<AccountDailySummaryDTO> reflectiveMapper = new SimplePropertyRowMapper<>(AccountDailySummaryDTO.class);
+
+    private final ObjectMapper beanMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper serializerMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new SimpleModule().addSerializer(new AccountDailySummarySerializer()))
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256 * 1024);
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:summary_bench_" + rows);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE summary (
+                        account_id BIGINT, customer_name VARCHAR(100), current_balance NUMERIC(19, 2),
+                        balance_date DATE, total_transactions NUMERIC(19, 2), daily_total NUMERIC(19, 2),
+                        daily_processed BOOLEAN)
+                    """);
+            statement.execute("""
+                    INSERT INTO summary
+                    SELECT x, 'Client ' || x, 1000.00 + x, DATE '2026-10-17', x / 100.0, x / 100.0, MOD(x, 2) = 0
+                    FROM SYSTEM_RANGE(1, %d)
+                    """.formatted(rows));
+        }
+        resultSet = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)
+                .executeQuery("SELECT * FROM summary ORDER BY account_id");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int reflective() throws Exception {
+        return writeResponse(map(reflectiveMapper), beanMapper);
+    }
+
+    @Benchmark
+    public int precompiled() throws Exception {
+        return writeResponse(map(AccountDailyBalanceRepository.SUMMARY_ROW_MAPPER), serializerMapper);
+    }
+
+    @Benchmark
+    public int direct() throws Exception {
+        out.reset();
+        resultSet.beforeFirst();
+        try (JsonGenerator json = serializerMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("time", LocalDateTime.now().toString());
+            json.writeNumberField("code", HttpStatus.OK.value());
+            json.writeStringField("status", HttpStatus.OK.name());
+            json.writeStringField("message", "Résumé journalier récupéré avec succès");
+            json.writeObjectFieldStart("data");
+            json.writeArrayFieldStart("accounts");
+            while (resultSet.next()) {
+                AccountDailySummarySerializer.write(json, resultSet);
+            }
+            json.writeEndArray();
+            json.writeNumberField("page", 0);
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+        return out.size();
+    }
+
+    // ================= CHEMIN DE L'API =================
+    private List<AccountDailySummaryDTO> map(RowMapper<AccountDailySummaryDTO> mapper) throws SQLException {
+        resultSet.beforeFirst();
+        List<AccountDailySummaryDTO> result = new ArrayList<>(rows);
+        while (resultSet.next()) {
+            result.add(mapper.mapRow(resultSet, result.size()));
+        }
+        return result;
+    }
+
+    // Même enveloppe que AccountDailyBalanceController.getDailySummary
+    private int writeResponse(List<AccountDailySummaryDTO> accounts, ObjectMapper mapper) throws Exception {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("accounts", accounts);
+        data.put("page", 0);
+
+        Response response = Response.builder()
+                .time(LocalDateTime.now().toString())
+                .code(HttpStatus.OK.value())
+                .status(HttpStatus.OK)
+                .message("Résumé journalier récupéré avec succès")
+                .data(data)
+                .build();
+
+        out.reset();
+        mapper.writeValue(out, response);
+        return out.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.batch_processing.benchmark;
+
+import com.example.batch_processing.domain.Response;
+import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.AccountDailySummarySerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe ResponseFormatBenchmark
+ * <p>
+ * Temps de sérialisation d'une page du résumé journalier (Response et AccountDailySummaryDTO, comme
+ * l'API) en JSON, CBOR et Smile. {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=ResponseFormatBenchmark}
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"20", "1000"})
+    private int rows;
+
+    private ObjectMapper mapper;
+    private Response response;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256 * 1024);
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        // Configuration du mapper de l'API (Spring Boot + AccountDailySummarySerializer)
+        mapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .registerModule(new SimpleModule().addSerializer(new AccountDailySummarySerializer()))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        LocalDate balanceDate = LocalDate.of(2026, 10, 17);
+        List<AccountDailySummaryDTO> accounts = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            accounts.add(new AccountDailySummaryDTO(id, "Client " + id, BigDecimal.valueOf(100_000 + id * 37, 2),
+                    balanceDate, BigDecimal.valueOf(-id * 13, 2), BigDecimal.valueOf(id * 7, 2), id % 2 == 0));
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("accounts", accounts);
+        data.put("page", 0);
+        response = Response.builder()
+                .time(LocalDateTime.now().toString())
+                .code(HttpStatus.OK.value())
+                .status(HttpStatus.OK)
+                .message("Résumé journalier récupéré avec succès")
+                .data(data)
+                .build();
+    }
+
+    @Benchmark
+    public int serialize() throws Exception {
+        out.reset();
+        mapper.writeValue(out, response);
+        return out.size();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.batch_processing.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountDailySummarySerializerTest {
+
+    // Sérialisation du bean par Jackson, telle que configurée par Spring Boot
+    private final ObjectMapper beanMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper serializerMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new SimpleModule().addSerializer(new AccountDailySummarySerializer()))
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final List<AccountDailySummaryDTO> summaries = List.of(
+            new AccountDailySummaryDTO(1L, "Dupont, \"Bob\"", new BigDecimal("100.00"), LocalDate.of(2026, 10, 17),
+                    new BigDecimal("-12.05"), new BigDecimal("1E+3"), true),
+            new AccountDailySummaryDTO(null, null, null, null, null, null, null));
+
+    @Test
+    void writesTheSameJsonAsTheBeanSerializer() throws Exception {
+        assertThat(serializerMapper.writeValueAsString(summaries))
+                .isEqualTo(beanMapper.writeValueAsString(summaries));
+    }
+
+    @Test
+    void writesEveryPropertyOfTheDto() throws Exception {
+        // Propriétés que Jackson sérialiserait : un champ ajouté au DTO sans être écrit ici fait échouer ce test
+        JavaType type = beanMapper.constructType(AccountDailySummaryDTO.class);
+        List<String> beanProperties = beanMapper.getSerializationConfig().introspect(type).findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .toList();
+
+        List<String> written = new ArrayList<>();
+        serializerMapper.readTree(serializerMapper.writeValueAsString(summaries.get(1))).fieldNames()
+                .forEachRemaining(written::add);
+
+        assertThat(written).containsExactlyInAnyOrderElementsOf(beanProperties);
+    }
+
+    @Test
+    void writesColumnsLikeTheDto() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator json = serializerMapper.getFactory().createGenerator(out)) {
+            AccountDailySummarySerializer.write(json, 1L, "Dupont, \"Bob\"", new BigDecimal("100.00"), "2026-10-17",
+                    new BigDecimal("-12.05"), new BigDecimal("1E+3"), true);
+        }
+
+        assertThat(out.toString()).isEqualTo(serializerMapper.writeValueAsString(summaries.get(0)));
+    }
+}
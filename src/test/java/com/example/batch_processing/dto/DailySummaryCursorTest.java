@@ -0,0 +1,36 @@
+package com.example.batch_processing.dto;
+
+import com.example.batch_processing.exception.ApiException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DailySummaryCursorTest {
+
+    @Test
+    void roundTrips() {
+        DailySummaryCursor cursor = new DailySummaryCursor(LocalDate.of(2026, 10, 17), 9_999_999L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(DailySummaryCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        for (String value : new String[]{"2026-10-17", "2026-10-17:abc", "2026-13-01:5", "2026-10-17:-1"}) {
+            String token = Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+            assertThatThrownBy(() -> DailySummaryCursor.decode(token))
+                    .isInstanceOf(ApiException.class)
+                    .hasMessageContaining("Curseur de pagination invalide");
+        }
+        assertThatThrownBy(() -> DailySummaryCursor.decode("%%%"))
+                .isInstanceOf(ApiException.class);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.BusinessDayVersion;
+import com.example.batch_processing.repo.AccountDailyBalanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AccountDailyBalanceServiceTest {
+
+    private final AccountDailyBalanceRepository repository = mock(AccountDailyBalanceRepository.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private final DailySummaryCache cache =
+            new DailySummaryCache(new SimpleMeterRegistry(), 1000, Duration.ofHours(1), Duration.ofSeconds(5), nanos::get);
+    private final AccountDailyBalanceService service = new AccountDailyBalanceService(repository, cache);
+
+    private final LocalDate closedDate = LocalDate.of(2026, 10, 17);
+    private final LocalDate today = LocalDate.of(2026, 10, 18);
+
+    private final BusinessDayVersion closedVersion =
+            new BusinessDayVersion(closedDate, 2, 41L, Instant.parse("2026-10-18T04:00:00Z"));
+
+    private final List<AccountDailySummaryDTO> rows = List.of(new AccountDailySummaryDTO(
+            1L, "Alice", BigDecimal.TEN, closedDate, BigDecimal.ONE, BigDecimal.ONE, true));
+
+    @Test
+    void closedDatesAreReadFromTheSummaryOnce() {
+        when(repository.findBusinessDayVersion(closedDate)).thenReturn(Optional.of(closedVersion));
+        when(repository.getDailySummary(closedDate, null, 2, 50, true)).thenReturn(rows);
+        when(repository.getDailySummaryAfter(closedDate, 7L, 100L, 50, true)).thenReturn(rows);
+
+        assertThat(service.getDailySummary(closedDate, null, 2, 50)).isEqualTo(rows);
+        assertThat(service.getDailySummary(closedDate, null, 2, 50)).isEqualTo(rows);
+        assertThat(service.getDailySummaryAfter(closedDate, 7L, 100L, 50)).isEqualTo(rows);
+        assertThat(service.getDailySummaryAfter(closedDate, 7L, 100L, 50)).isEqualTo(rows);
+
+        verify(repository, times(1)).getDailySummary(closedDate, null, 2, 50, true);
+        verify(repository, times(1)).getDailySummaryAfter(closedDate, 7L, 100L, 50, true);
+    }
+
+    @Test
+    void openDatesFallBackToTransactionsAndAreNotCached() {
+        when(repository.findBusinessDayVersion(today)).thenReturn(Optional.empty());
+
+        service.getDailySummary(today, null, 1, 20);
+        service.getDailySummary(today, null, 1, 20);
+        service.getDailySummaryAfter(today, null, 0L, 20);
+
+        verify(repository, times(2)).getDailySummary(today, null, 1, 20, false);
+        verify(repository).getDailySummaryAfter(today, null, 0L, 20, false);
+    }
+
+    @Test
+    void evictedDatesAreReadAgain() {
+        when(repository.findBusinessDayVersion(closedDate)).thenReturn(Optional.of(closedVersion));
+        when(repository.getDailySummary(closedDate, null, 1, 20, true)).thenReturn(rows);
+
+        service.getDailySummary(closedDate, null, 1, 20);
+        cache.evict(closedDate);
+        service.getDailySummary(closedDate, null, 1, 20);
+
+        verify(repository, times(2)).getDailySummary(closedDate, null, 1, 20, true);
+    }
+
+    @Test
+    void pagesAreReadAgainWhenTheVersionChanges() {
+        BusinessDayVersion nextVersion =
+                new BusinessDayVersion(closedDate, 3, 41L, Instant.parse("2026-10-19T04:00:00Z"));
+        when(repository.findBusinessDayVersion(closedDate))
+                .thenReturn(Optional.of(closedVersion), Optional.of(nextVersion));
+        when(repository.getDailySummary(closedDate, null, 1, 20, true)).thenReturn(rows);
+
+        service.getDailySummary(closedDate, null, 1, 20);
+        // Version relue après version-ttl, sans éviction locale (job exécuté par une autre instance)
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        service.getDailySummary(closedDate, null, 1, 20);
+        service.getDailySummary(closedDate, null, 1, 20);
+
+        verify(repository, times(2)).getDailySummary(closedDate, null, 1, 20, true);
+    }
+
+    @Test
+    void bulkLookupRunsOneQueryAndKeepsRequestOrder() {
+        AccountDailySummaryDTO bob = new AccountDailySummaryDTO(
+                42L, "Bob", BigDecimal.ONE, closedDate, BigDecimal.ONE, BigDecimal.ONE, true);
+        AccountDailySummaryDTO alice = rows.get(0);
+        when(repository.findBusinessDayVersion(closedDate)).thenReturn(Optional.of(closedVersion));
+        when(repository.getDailySummaryByIds(eq(closedDate), any(long[].class), eq(true)))
+                .thenReturn(List.of(alice, bob));
+
+        assertThat(service.getDailySummaries(closedDate, List.of(42L, 999L, 1L, 42L)))
+                .containsExactly(bob, alice);
+
+        verify(repository).getDailySummaryByIds(closedDate, new long[]{42L, 999L, 1L}, true);
+    }
+
+    @Test
+    void closedDateVersionIsReadOnceUntilEviction() {
+        when(repository.findBusinessDayVersion(closedDate)).thenReturn(Optional.of(closedVersion));
+        when(repository.findBusinessDayVersion(today)).thenReturn(Optional.empty());
+
+        assertThat(service.getBusinessDayVersion(closedDate)).contains(closedVersion);
+        assertThat(service.getBusinessDayVersion(closedDate)).contains(closedVersion);
+        assertThat(service.getBusinessDayVersion(today)).isEmpty();
+        assertThat(service.getBusinessDayVersion(today)).isEmpty();
+        verify(repository, times(1)).findBusinessDayVersion(closedDate);
+        verify(repository, times(2)).findBusinessDayVersion(today);
+
+        cache.evictAll();
+        service.getBusinessDayVersion(closedDate);
+        verify(repository, times(2)).findBusinessDayVersion(closedDate);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.BusinessDayVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailySummaryCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DailySummaryCache cache = new DailySummaryCache(registry, 1000, Duration.ofHours(1), Duration.ofSeconds(5));
+
+    private final LocalDate day1 = LocalDate.of(2026, 10, 16);
+    private final LocalDate day2 = LocalDate.of(2026, 10, 17);
+
+    private static BusinessDayVersion version(LocalDate date) {
+        return new BusinessDayVersion(date, 1, 40L, Instant.parse("2026-10-18T04:00:00Z"));
+    }
+
+    private static List<AccountDailySummaryDTO> rows(LocalDate date) {
+        return List.of(new AccountDailySummaryDTO(1L, "Alice", BigDecimal.TEN, date, BigDecimal.ONE, BigDecimal.ONE, true));
+    }
+
+    @Test
+    void evictsOnlyTheGivenDate() {
+        DailySummaryCache.Key first = DailySummaryCache.Key.page(day1, null, 1, 20);
+        DailySummaryCache.Key cursor = DailySummaryCache.Key.after(day1, null, 500L, 20);
+        DailySummaryCache.Key other = DailySummaryCache.Key.page(day2, null, 1, 20);
+        cache.put(first, version(day1), rows(day1), cache.generation());
+        cache.put(cursor, version(day1), rows(day1), cache.generation());
+        cache.put(other, version(day2), rows(day2), cache.generation());
+
+        cache.evict(day1);
+
+        assertThat(cache.get(first, version(day1))).isNull();
+        assertThat(cache.get(cursor, version(day1))).isNull();
+        assertThat(cache.get(other, version(day2))).isEqualTo(rows(day2));
+    }
+
+    @Test
+    void ignoresPagesReadBeforeAnEviction() {
+        DailySummaryCache.Key key = DailySummaryCache.Key.page(day1, null, 1, 20);
+        long generation = cache.generation();
+
+        cache.evictAll();
+        cache.put(key, version(day1), rows(day1), generation);
+
+        assertThat(cache.get(key, version(day1))).isNull();
+    }
+
+    @Test
+    void publishesHitAndMissCounts() {
+        DailySummaryCache.Key key = DailySummaryCache.Key.page(day1, 3L, 1, 20);
+        cache.get(key, version(day1));
+        cache.put(key, version(day1), rows(day1), cache.generation());
+        cache.get(key, version(day1));
+        cache.get(key, version(day1));
+
+        assertThat(registry.get("cache.gets").tag("cache", DailySummaryCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tag("cache", DailySummaryCache.CACHE_NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void versionsExpireAfterTheirOwnShortTtl() {
+        AtomicLong nanos = new AtomicLong();
+        DailySummaryCache shortLived = new DailySummaryCache(registry, 1000, Duration.ofHours(1), Duration.ofSeconds(5), nanos::get);
+        BusinessDayVersion version = version(day1);
+        DailySummaryCache.Key key = DailySummaryCache.Key.page(day1, null, 1, 20);
+        shortLived.putVersion(version, shortLived.generation());
+        shortLived.put(key, version, rows(day1), shortLived.generation());
+
+        nanos.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThat(shortLived.getVersion(day1)).isEqualTo(version);
+
+        // Version relue dans business_day_close, au cas où une autre instance aurait exécuté un job
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(shortLived.getVersion(day1)).isNull();
+        assertThat(shortLived.get(key, version)).isEqualTo(rows(day1));
+    }
+
+    @Test
+    void pagesReadUnderAnotherVersionAreDropped() {
+        DailySummaryCache.Key key = DailySummaryCache.Key.page(day1, null, 1, 20);
+        cache.put(key, version(day1), rows(day1), cache.generation());
+
+        // Fin de journée exécutée par une autre instance : solde courant et version ont changé
+        BusinessDayVersion next = new BusinessDayVersion(day1, 1, 40L, Instant.parse("2026-10-19T04:00:00Z"));
+
+        assertThat(cache.get(key, next)).isNull();
+        assertThat(cache.get(key, version(day1))).isNull();
+    }
+}
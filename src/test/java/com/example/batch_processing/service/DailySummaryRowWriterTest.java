@@ -0,0 +1,38 @@
+package com.example.batch_processing.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailySummaryRowWriterTest {
+
+    private String write(SummaryExportFormat format) throws Exception {
+        StringWriter out = new StringWriter();
+        DailySummaryRowWriter writer = new DailySummaryRowWriter(format, out);
+        writer.write(1L, "Alice", new BigDecimal("100.00"), "2026-10-17", new BigDecimal("-12.05"), new BigDecimal("-12.05"), true);
+        writer.write(2L, "Dupont, \"Bob\"", new BigDecimal("1E+3"), "2026-10-17", BigDecimal.ZERO, BigDecimal.ZERO, false);
+        writer.flush();
+        return out.toString();
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        assertThat(write(SummaryExportFormat.NDJSON)).isEqualTo("""
+                {"accountId":1,"customerName":"Alice","currentBalance":100.00,"balanceDate":"2026-10-17",\
+                "totalTransactions":-12.05,"dailyTotal":-12.05,"dailyProcessed":true}
+                {"accountId":2,"customerName":"Dupont, \\"Bob\\"","currentBalance":1E+3,"balanceDate":"2026-10-17",\
+                "totalTransactions":0,"dailyTotal":0,"dailyProcessed":false}
+                """);
+    }
+
+    @Test
+    void writesCsvWithHeaderAndQuotedNames() throws Exception {
+        assertThat(write(SummaryExportFormat.CSV)).isEqualTo(DailySummaryRowWriter.CSV_HEADER + """
+                1,Alice,100.00,2026-10-17,-12.05,-12.05,true
+                2,"Dupont, ""Bob\""",1000,2026-10-17,0,0,false
+                """);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.exception.ApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransactionIngestionServiceTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final CopyManager copyManager = mock(CopyManager.class);
+
+    // Contenu envoyé à chaque COPY
+    private final List<StringBuilder> copies = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenAnswer(invocation -> newCopyIn());
+    }
+
+    private CopyIn newCopyIn() throws SQLException {
+        StringBuilder content = new StringBuilder();
+        copies.add(content);
+        CopyIn copyIn = mock(CopyIn.class);
+        doAnswer(invocation -> {
+            byte[] bytes = invocation.getArgument(0);
+            content.append(new String(bytes, invocation.<Integer>getArgument(1), invocation.<Integer>getArgument(2),
+                    StandardCharsets.UTF_8));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(copyIn.endCopy()).thenAnswer(invocation -> content.chars().filter(c -> c == '\n').count());
+        return copyIn;
+    }
+
+    private static TransactionIngestionService service(DataSource dataSource, long rowsPerCommit, int maxLineLength) {
+        return new TransactionIngestionService(dataSource, Set.of("PENDING", "VALIDATED"), 1_000_000,
+                rowsPerCommit, maxLineLength);
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void commitsEveryRowsPerCommitTransactions() throws Exception {
+        String csv = """
+                account_id,amount,status,transaction_date
+                1,10.00,VALIDATED,2026-10-17
+                2,-3.50,PENDING,2026-10-17
+
+                3,7,VALIDATED,2026-10-17
+                4,1.25,VALIDATED,2026-10-18
+                5,2,VALIDATED,2026-10-18
+                """;
+
+        var result = service(dataSource, 2, 4096).ingest(body(csv), IngestionFormat.CSV);
+
+        assertThat(result.rows()).isEqualTo(5);
+        assertThat(copies).extracting(StringBuilder::toString).containsExactly(
+                "1\t10.00\tVALIDATED\t2026-10-17\n2\t-3.50\tPENDING\t2026-10-17\n",
+                "3\t7\tVALIDATED\t2026-10-17\n4\t1.25\tVALIDATED\t2026-10-18\n",
+                "5\t2\tVALIDATED\t2026-10-18\n");
+        verify(connection).setAutoCommit(false);
+        verify(connection, times(3)).commit();
+        verify(connection, never()).rollback();
+        verify(connection).setAutoCommit(true);
+        verify(connection).close();
+    }
+
+    @Test
+    void readsWindowsLineEndingsAndALastLineWithoutNewline() throws Exception {
+        String ndjson = "{\"account_id\":1,\"amount\":1,\"status\":\"VALIDATED\",\"transaction_date\":\"2026-10-17\"}\r\n"
+                + "{\"account_id\":2,\"amount\":2,\"status\":\"VALIDATED\",\"transaction_date\":\"2026-10-17\"}";
+
+        var result = service(dataSource, 100, 4096).ingest(body(ndjson), IngestionFormat.NDJSON);
+
+        assertThat(result.rows()).isEqualTo(2);
+        assertThat(copies).extracting(StringBuilder::toString)
+                .containsExactly("1\t1\tVALIDATED\t2026-10-17\n2\t2\tVALIDATED\t2026-10-17\n");
+    }
+
+    @Test
+    void invalidLineRollsBackItsBatchAndTellsWhereToResume() throws Exception {
+        String csv = """
+                account_id,amount,status,transaction_date
+                1,10.00,VALIDATED,2026-10-17
+                2,-3.50,PENDING,2026-10-17
+                3,7,VALIDATED,2026-10-17
+                4,oops,VALIDATED,2026-10-17
+                """;
+
+        assertThatThrownBy(() -> service(dataSource, 2, 4096).ingest(body(csv), IngestionFormat.CSV))
+                .isInstanceOf(ApiException.class)
+                .hasMessageStartingWith("Ligne 5")
+                .hasMessageContaining("2 transactions déjà chargées (lignes 1 à 3)")
+                .hasMessageEndingWith("à partir de la ligne 4");
+
+        verify(connection, times(1)).commit();
+        verify(connection).rollback();
+        verify(connection).close();
+    }
+
+    @Test
+    void rejectedCopyReportsTheDatabaseError() throws Exception {
+        when(copyManager.copyIn(anyString())).thenAnswer(invocation -> {
+            CopyIn copyIn = newCopyIn();
+            when(copyIn.endCopy()).thenThrow(new SQLException("insert or update on table \"transactions\" violates foreign key constraint \"fk_account\""));
+            return copyIn;
+        });
+
+        assertThatThrownBy(() -> service(dataSource, 100, 4096)
+                .ingest(body("999,1,VALIDATED,2026-10-17\n"), IngestionFormat.CSV))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Chargement refusé : insert or update on table \"transactions\" violates foreign key constraint \"fk_account\"");
+
+        verify(connection, never()).commit();
+        verify(connection).rollback();
+    }
+
+    @Test
+    void refusesOverlongLinesBeforeReadingThemWhole() {
+        // Ligne sans fin de ligne : refusée dès le dépassement, sans attendre un \n
+        InputStream endless = new InputStream() {
+            private long remaining = 64L * 1024 * 1024;
+
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 'x' : -1;
+            }
+        };
+        InputStream csv = new SequenceInputStream(body("1,1,VALIDATED,2026-10-17\n"), endless);
+
+        assertThatThrownBy(() -> service(dataSource, 100, 256).ingest(csv, IngestionFormat.CSV))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Ligne 2 : plus de 256 caractères");
+    }
+
+    @Test
+    void lineReaderAcceptsLinesUpToTheLimit() throws Exception {
+        String atLimit = "x".repeat(10);
+        var reader = new TransactionIngestionService.LineReader(
+                new StringReader(atLimit + "\r\n" + atLimit + "y\n"), 10);
+
+        assertThat(reader.readLine(1)).isEqualTo(atLimit);
+        assertThatThrownBy(() -> reader.readLine(2))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Ligne 2 : plus de 10 caractères");
+    }
+}
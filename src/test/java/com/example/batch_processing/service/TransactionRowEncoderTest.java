@@ -0,0 +1,66 @@
+package com.example.batch_processing.service;
+
+import com.example.batch_processing.exception.ApiException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionRowEncoderTest {
+
+    private final TransactionRowEncoder encoder = new TransactionRowEncoder(Set.of("PENDING", "VALIDATED"));
+
+    private String encode(IngestionFormat format, String line, long lineNumber) {
+        StringBuilder target = new StringBuilder();
+        encoder.encode(format, line, lineNumber, target);
+        return target.toString();
+    }
+
+    @Test
+    void encodesCsvLines() {
+        assertThat(encode(IngestionFormat.CSV, "42,-12.05,VALIDATED,2026-10-17", 2))
+                .isEqualTo("42\t-12.05\tVALIDATED\t2026-10-17\n");
+        assertThat(encode(IngestionFormat.CSV, " \"7\" , 3 ,\"PENDING\",2026-10-18", 3))
+                .isEqualTo("7\t3\tPENDING\t2026-10-18\n");
+    }
+
+    @Test
+    void skipsCsvHeaderAndBlankLines() {
+        StringBuilder target = new StringBuilder();
+
+        assertThat(encoder.encode(IngestionFormat.CSV, "account_id,amount,status,transaction_date", 1, target)).isFalse();
+        assertThat(encoder.encode(IngestionFormat.CSV, "   ", 2, target)).isFalse();
+        assertThat(target).isEmpty();
+    }
+
+    @Test
+    void encodesNdjsonLines() {
+        assertThat(encode(IngestionFormat.NDJSON,
+                "{\"account_id\":42,\"amount\":12.5,\"status\":\"VALIDATED\",\"transaction_date\":\"2026-10-17\",\"source\":\"x\"}", 1))
+                .isEqualTo("42\t12.5\tVALIDATED\t2026-10-17\n");
+        assertThat(encode(IngestionFormat.NDJSON,
+                "{\"accountId\":\"7\",\"amount\":\"-0.01\",\"status\":\"PENDING\",\"transactionDate\":\"2026-10-18\"}", 2))
+                .isEqualTo("7\t-0.01\tPENDING\t2026-10-18\n");
+    }
+
+    @Test
+    void rejectsInvalidRowsWithTheirLineNumber() {
+        assertThatThrownBy(() -> encode(IngestionFormat.CSV, "42,1.234,VALIDATED,2026-10-17", 5))
+                .isInstanceOf(ApiException.class)
+                .hasMessageStartingWith("Ligne 5 : amount invalide");
+        assertThatThrownBy(() -> encode(IngestionFormat.CSV, "0,1.00,VALIDATED,2026-10-17", 6))
+                .hasMessageStartingWith("Ligne 6 : account_id doit être > 0");
+        assertThatThrownBy(() -> encode(IngestionFormat.CSV, "42,1.00,UNKNOWN,2026-10-17", 7))
+                .hasMessageStartingWith("Ligne 7 : status inconnu");
+        assertThatThrownBy(() -> encode(IngestionFormat.CSV, "42,1.00,VALIDATED,2026-02-30", 8))
+                .hasMessageStartingWith("Ligne 8 : transaction_date invalide");
+        assertThatThrownBy(() -> encode(IngestionFormat.CSV, "42,1.00,VALIDATED", 9))
+                .hasMessageStartingWith("Ligne 9 : 4 colonnes attendues");
+        assertThatThrownBy(() -> encode(IngestionFormat.NDJSON, "{\"account_id\":42,\"amount\":1}", 10))
+                .hasMessageStartingWith("Ligne 10 : status manquant");
+        assertThatThrownBy(() -> encode(IngestionFormat.NDJSON, "{\"account_id\":42,", 11))
+                .hasMessageStartingWith("Ligne 11 : JSON invalide");
+    }
+}
@@ -1,7 +1,16 @@
 package com.example.batch_processing.web;
 
 import com.example.batch_processing.dto.AccountDailySummaryDTO;
+import com.example.batch_processing.dto.BusinessDayVersion;
+import com.example.batch_processing.dto.DailySummaryCursor;
 import com.example.batch_processing.service.AccountDailyBalanceService;
+import com.example.batch_processing.service.DailySummaryExportService;
+import com.example.batch_processing.service.SummaryExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,15 +18,25 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -40,6 +59,9 @@ class AccountDailyBalanceControllerIT {
     @MockBean
     private AccountDailyBalanceService service;
 
+    @MockBean
+    private DailySummaryExportService exportService;
+
     private final LocalDate yesterday = LocalDate.now().minusDays(1);
 
     // ------------------- Scénarios 1 à 15 -------------------
@@ -300,4 +322,250 @@ class AccountDailyBalanceControllerIT {
                     .andExpect(jsonPath("$.data.accounts[0].totalTransactions").value(5))
                     .andExpect(jsonPath("$.data.accounts[0].dailyTotal").value(500));
         }
+
+        // 16️⃣ Page pleine : jeton de la page suivante
+        @Test
+        void testNextCursorOnFullPage() throws Exception {
+            AccountDailySummaryDTO dto1 = new AccountDailySummaryDTO(1L, "Alice", BigDecimal.valueOf(100), yesterday,
+                    BigDecimal.valueOf(2), BigDecimal.valueOf(200), true);
+            AccountDailySummaryDTO dto2 = new AccountDailySummaryDTO(2L, "Bob", BigDecimal.valueOf(150), yesterday,
+                    BigDecimal.valueOf(1), BigDecimal.valueOf(150), true);
+
+            Mockito.when(service.getDailySummary(eq(yesterday), isNull(), eq(1), eq(2)))
+                    .thenReturn(List.of(dto1, dto2));
+
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.nextCursor").value(new DailySummaryCursor(yesterday, 2L).encode()));
+        }
+
+        // 17️⃣ Curseur : pagination par clé sur la date du jeton
+        @Test
+        void testCursorUsesKeyset() throws Exception {
+            LocalDate cursorDate = yesterday.minusDays(3);
+            AccountDailySummaryDTO dto = new AccountDailySummaryDTO(
+                    501L, "Gina", BigDecimal.valueOf(80), cursorDate,
+                    BigDecimal.ONE, BigDecimal.TEN, true
+            );
+
+            Mockito.when(service.getDailySummaryAfter(eq(cursorDate), isNull(), eq(500L), eq(20)))
+                    .thenReturn(List.of(dto));
+
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .param("cursor", new DailySummaryCursor(cursorDate, 500L).encode()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.accounts[0].accountId").value(501))
+                    .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+
+            Mockito.verify(service, Mockito.never()).getDailySummary(any(), any(), anyInt(), anyInt());
+        }
+
+        // 18️⃣ Curseur invalide ou sur une autre date
+        @Test
+        void testInvalidCursor() throws Exception {
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .param("cursor", "pas-un-curseur"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.exception").value("ApiException"));
+
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .param("cursor", new DailySummaryCursor(yesterday, 10L).encode())
+                            .param("date", yesterday.minusDays(1).toString()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.exception").value("ApiException"));
+        }
+
+        // 19️⃣ Page trop grande : l'export est fait pour tous les comptes
+        @Test
+        void testSizeAboveMaximum() throws Exception {
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .param("size", "1000000"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.exception").value("ConstraintViolationException"));
+
+            Mockito.verifyNoInteractions(service);
+        }
+
+        // 20️⃣ Export CSV en streaming
+        @Test
+        void testExportCsv() throws Exception {
+            Mockito.when(exportService.tryAcquirePermit()).thenReturn(true);
+            Mockito.when(exportService.getTimeout()).thenReturn(Duration.ofMinutes(5));
+            Mockito.doAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(2);
+                out.write("account_id\n1\n".getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            }).when(exportService).export(eq(yesterday), eq(SummaryExportFormat.CSV), any());
+
+            var result = mockMvc.perform(get("/api/accounts/daily-summary/export")
+                            .param("format", "csv"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", org.hamcrest.Matchers.startsWith("text/csv")))
+                    .andExpect(header().string("Content-Disposition",
+                            "attachment; filename=\"daily-summary-" + yesterday + ".csv\""))
+                    .andExpect(content().string("account_id\n1\n"));
+            Mockito.verify(exportService).releasePermit();
+        }
+
+        // 21️⃣ Tous les exports occupés : 503 avec Retry-After, sans lecture
+        @Test
+        void testExportBusy() throws Exception {
+            Mockito.when(exportService.tryAcquirePermit()).thenReturn(false);
+
+            mockMvc.perform(get("/api/accounts/daily-summary/export"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "30"))
+                    .andExpect(jsonPath("$.message").value("Trop d'exports en cours, réessayer plus tard"));
+
+            Mockito.verify(exportService, Mockito.never()).export(any(), any(), any());
+            Mockito.verify(exportService, Mockito.never()).releasePermit();
+        }
+
+        // 22️⃣ Export en échec : le permis est rendu
+        @Test
+        void testExportFailureReleasesPermit() throws Exception {
+            Mockito.when(exportService.tryAcquirePermit()).thenReturn(true);
+            Mockito.when(exportService.getTimeout()).thenReturn(Duration.ofMinutes(5));
+            Mockito.when(exportService.export(eq(yesterday), eq(SummaryExportFormat.NDJSON), any()))
+                    .thenThrow(new IllegalStateException("base indisponible"));
+
+            mockMvc.perform(get("/api/accounts/daily-summary/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            Mockito.verify(exportService, Mockito.timeout(5000)).releasePermit();
+        }
+
+        // 23️⃣ Format d'export inconnu
+        @Test
+        void testExportUnknownFormat() throws Exception {
+            mockMvc.perform(get("/api/accounts/daily-summary/export")
+                            .param("format", "xml"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("format doit être ndjson ou csv"));
+        }
+
+        // 24️⃣ Recherche groupée : ordre de la demande, comptes inexistants signalés
+        @Test
+        void testLookupKeepsRequestOrder() throws Exception {
+            AccountDailySummaryDTO second = new AccountDailySummaryDTO(
+                    42L, "Bob", BigDecimal.valueOf(50), yesterday,
+                    BigDecimal.ONE, BigDecimal.ONE, true
+            );
+            AccountDailySummaryDTO first = new AccountDailySummaryDTO(
+                    7L, "Alice", BigDecimal.valueOf(100), yesterday,
+                    BigDecimal.TEN, BigDecimal.TEN, true
+            );
+            Mockito.when(service.getDailySummaries(eq(yesterday), eq(List.of(42L, 999L, 7L))))
+                    .thenReturn(List.of(second, first));
+
+            mockMvc.perform(post("/api/accounts/daily-summary/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"accountIds\": [42, 999, 7]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.accounts[*].accountId", contains(42, 7)))
+                    .andExpect(jsonPath("$.data.notFound", contains(999)));
+        }
+
+        // 25️⃣ Recherche groupée : liste vide ou trop longue
+        @Test
+        void testLookupRejectsInvalidLists() throws Exception {
+            mockMvc.perform(post("/api/accounts/daily-summary/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"accountIds\": []}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.exception").value("ApiException"));
+
+            String tooMany = LongStream.rangeClosed(1, AccountDailyBalanceController.MAX_LOOKUP_ACCOUNTS + 1)
+                    .mapToObj(Long::toString)
+                    .collect(Collectors.joining(",", "{\"accountIds\": [", "]}"));
+            mockMvc.perform(post("/api/accounts/daily-summary/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(tooMany))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("accountIds doit contenir au plus 1000 comptes"));
+
+            Mockito.verifyNoInteractions(service);
+        }
+
+        // 26️⃣ Négociation de contenu : même réponse en CBOR ou en Smile
+        @Test
+        void testBinaryFormats() throws Exception {
+            AccountDailySummaryDTO dto = new AccountDailySummaryDTO(
+                    1L, "Alice", new BigDecimal("100.00"), yesterday,
+                    new BigDecimal("-12.05"), BigDecimal.ZERO, true
+            );
+            Mockito.when(service.getDailySummary(eq(yesterday), isNull(), eq(1), eq(20)))
+                    .thenReturn(List.of(dto));
+
+            int jsonLength = mockMvc.perform(get("/api/accounts/daily-summary"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andReturn().getResponse().getContentAsByteArray().length;
+
+            for (ObjectMapper decoder : List.of(new CBORMapper(), new SmileMapper())) {
+                String mediaType = (decoder instanceof CBORMapper) ? "application/cbor" : "application/x-jackson-smile";
+                byte[] body = mockMvc.perform(get("/api/accounts/daily-summary")
+                                .accept(mediaType))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(mediaType))
+                        .andReturn().getResponse().getContentAsByteArray();
+
+                JsonNode account = decoder.readTree(body).get("data").get("accounts").get(0);
+                Assertions.assertThat(account.get("accountId").asLong()).isEqualTo(1L);
+                Assertions.assertThat(account.get("customerName").asText()).isEqualTo("Alice");
+                Assertions.assertThat(account.get("balanceDate").asText()).isEqualTo(yesterday.toString());
+                Assertions.assertThat(account.get("totalTransactions").decimalValue()).isEqualByComparingTo("-12.05");
+                Assertions.assertThat(body.length).isLessThan(jsonLength);
+            }
+        }
+
+        // 27️⃣ Date clôturée : ETag / Last-Modified, puis 304 sans lecture du résumé
+        @Test
+        void testConditionalGetOnClosedDate() throws Exception {
+            BusinessDayVersion version = new BusinessDayVersion(yesterday, 3, 412L, Instant.parse("2026-10-18T04:00:00Z"));
+            Mockito.when(service.getBusinessDayVersion(yesterday)).thenReturn(Optional.of(version));
+            Mockito.when(service.getDailySummary(eq(yesterday), isNull(), eq(1), eq(20))).thenReturn(List.of());
+
+            String etag = mockMvc.perform(get("/api/accounts/daily-summary"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", version.etag("p1s20")))
+                    .andExpect(header().string("Last-Modified", "Sun, 18 Oct 2026 04:00:00 GMT"))
+                    .andExpect(header().string("Vary", "Accept"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .header("If-Modified-Since", "Sun, 18 Oct 2026 04:00:00 GMT"))
+                    .andExpect(status().isNotModified());
+
+            // Autre page : autre ETag
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .param("page", "2")
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", version.etag("p2s20")));
+
+            Mockito.verify(service, Mockito.times(1)).getDailySummary(eq(yesterday), isNull(), eq(1), eq(20));
+        }
+
+        // 28️⃣ Date non clôturée : ni ETag ni 304
+        @Test
+        void testNoEtagForOpenDate() throws Exception {
+            Mockito.when(service.getBusinessDayVersion(yesterday)).thenReturn(Optional.empty());
+
+            mockMvc.perform(get("/api/accounts/daily-summary")
+                            .header("If-None-Match", "*"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"));
+        }
 }
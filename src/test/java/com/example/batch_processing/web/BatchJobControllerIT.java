@@ -0,0 +1,183 @@
+package com.example.batch_processing.web;
+
+import com.example.batch_processing.batch.BusinessDates;
+import com.example.batch_processing.batch.EndOfDayJobService;
+import com.example.batch_processing.batch.WorkerModeDecider;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.batch.core.launch.NoSuchJobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe BatchJobControllerIT
+ * <p>
+ * Endpoints de pilotage du batch avec le vrai EndOfDayJobService (validation des dates du rattrapage),
+ * le JobLauncher et le JobOperator étant simulés.
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@WebMvcTest(BatchJobController.class)
+@Import(EndOfDayJobService.class)
+class BatchJobControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JobLauncher jobLauncher;
+
+    @MockBean
+    private JobOperator jobOperator;
+
+    @MockBean(name = "endOfDayBalanceJobPartitioned")
+    private Job endOfDayBalanceJobPartitioned;
+
+    @MockBean(name = "lateArrivalCorrectionJob")
+    private Job lateArrivalCorrectionJob;
+
+    private static JobExecution execution(long id) {
+        return new JobExecution(id);
+    }
+
+    @Test
+    void launchPassesTheBusinessDateAndWorkerMode() throws Exception {
+        Mockito.when(jobLauncher.run(eq(endOfDayBalanceJobPartitioned), any())).thenReturn(execution(7L));
+
+        mockMvc.perform(post("/api/batch/end-of-day")
+                        .param("businessDate", "2026-10-17")
+                        .param("workerMode", "FUSED"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.executionId").value(7))
+                .andExpect(jsonPath("$.data.businessDate").value("2026-10-17"));
+
+        Mockito.verify(jobLauncher).run(eq(endOfDayBalanceJobPartitioned), argThat((JobParameters parameters) ->
+                LocalDate.of(2026, 10, 17).equals(parameters.getLocalDate(BusinessDates.BUSINESS_DATE))
+                        && "FUSED".equals(parameters.getString(WorkerModeDecider.WORKER_MODE_PARAM))));
+    }
+
+    @Test
+    void invalidBusinessDateIsABadRequest() throws Exception {
+        mockMvc.perform(post("/api/batch/end-of-day")
+                        .param("businessDate", "17/10/2026"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(jobLauncher);
+    }
+
+    @Test
+    void backfillLaunchesOneExecutionForTheRange() throws Exception {
+        Mockito.when(jobLauncher.run(eq(endOfDayBalanceJobPartitioned), any())).thenReturn(execution(8L));
+
+        mockMvc.perform(post("/api/batch/end-of-day/backfill")
+                        .param("fromDate", "2026-10-01")
+                        .param("toDate", "2026-10-17"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.executionId").value(8))
+                .andExpect(jsonPath("$.data.fromDate").value("2026-10-01"))
+                .andExpect(jsonPath("$.data.toDate").value("2026-10-17"));
+
+        Mockito.verify(jobLauncher).run(eq(endOfDayBalanceJobPartitioned), argThat((JobParameters parameters) ->
+                LocalDate.of(2026, 10, 1).equals(parameters.getLocalDate(BusinessDates.FROM_DATE))
+                        && LocalDate.of(2026, 10, 17).equals(parameters.getLocalDate(BusinessDates.TO_DATE))));
+    }
+
+    @Test
+    void backfillRequiresBothDates() throws Exception {
+        mockMvc.perform(post("/api/batch/end-of-day/backfill")
+                        .param("fromDate", "2026-10-01"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(jobLauncher);
+    }
+
+    @Test
+    void backfillLongerThanTheLimitIsRejected() throws Exception {
+        LocalDate fromDate = LocalDate.of(2026, 1, 1);
+        LocalDate toDate = fromDate.plusDays(BusinessDates.MAX_BACKFILL_DAYS);
+
+        mockMvc.perform(post("/api/batch/end-of-day/backfill")
+                        .param("fromDate", fromDate.toString())
+                        .param("toDate", toDate.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Impossible de lancer le rattrapage du " + fromDate
+                        + " au " + toDate + " : Un rattrapage est limité à " + BusinessDates.MAX_BACKFILL_DAYS + " jours"));
+
+        Mockito.verifyNoInteractions(jobLauncher);
+    }
+
+    @Test
+    void backfillLimitIsInclusive() throws Exception {
+        Mockito.when(jobLauncher.run(eq(endOfDayBalanceJobPartitioned), any())).thenReturn(execution(9L));
+        LocalDate fromDate = LocalDate.of(2026, 1, 1);
+
+        mockMvc.perform(post("/api/batch/end-of-day/backfill")
+                        .param("fromDate", fromDate.toString())
+                        .param("toDate", fromDate.plusDays(BusinessDates.MAX_BACKFILL_DAYS - 1).toString()))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void backfillWithReversedDatesIsRejected() throws Exception {
+        mockMvc.perform(post("/api/batch/end-of-day/backfill")
+                        .param("fromDate", "2026-10-17")
+                        .param("toDate", "2026-10-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Impossible de lancer le rattrapage du 2026-10-17 au 2026-10-01 : "
+                        + "fromDate doit être antérieure ou égale à toDate"));
+
+        Mockito.verifyNoInteractions(jobLauncher);
+    }
+
+    @Test
+    void correctionsLaunchTheCorrectionJob() throws Exception {
+        Mockito.when(jobLauncher.run(eq(lateArrivalCorrectionJob), any())).thenReturn(execution(10L));
+
+        mockMvc.perform(post("/api/batch/corrections"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.executionId").value(10));
+    }
+
+    @Test
+    void restartReturnsTheNewExecution() throws Exception {
+        Mockito.when(jobOperator.restart(41L)).thenReturn(42L);
+
+        mockMvc.perform(post("/api/batch/executions/41/restart"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.previousExecutionId").value(41))
+                .andExpect(jsonPath("$.data.executionId").value(42));
+    }
+
+    @Test
+    void restartOfAnUnknownExecutionIsABadRequest() throws Exception {
+        Mockito.when(jobOperator.restart(99L)).thenThrow(new NoSuchJobExecutionException("exécution 99 inconnue"));
+
+        mockMvc.perform(post("/api/batch/executions/99/restart"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Impossible de redémarrer l'exécution 99 : exécution 99 inconnue"));
+    }
+
+    @Test
+    void nonNumericExecutionIdIsABadRequest() throws Exception {
+        mockMvc.perform(post("/api/batch/executions/abc/restart"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(jobOperator);
+    }
+}
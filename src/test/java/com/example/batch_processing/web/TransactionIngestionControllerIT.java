@@ -0,0 +1,93 @@
+package com.example.batch_processing.web;
+
+import com.example.batch_processing.exception.ApiException;
+import com.example.batch_processing.service.IngestionFormat;
+import com.example.batch_processing.service.TransactionIngestionService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe TransactionIngestionControllerIT
+ *
+ * @author Fabrice
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@WebMvcTest(TransactionIngestionController.class)
+class TransactionIngestionControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TransactionIngestionService ingestionService;
+
+    @Test
+    void csvBodyIsStreamedToTheService() throws Exception {
+        Mockito.when(ingestionService.ingest(any(InputStream.class), eq(IngestionFormat.CSV)))
+                .thenAnswer(invocation -> {
+                    String body = new String(invocation.<InputStream>getArgument(0).readAllBytes(), StandardCharsets.UTF_8);
+                    return new TransactionIngestionService.IngestionResult(body.lines().count(), Duration.ofMillis(500));
+                });
+
+        mockMvc.perform(post("/api/transactions/bulk")
+                        .contentType(TransactionIngestionController.TEXT_CSV)
+                        .content("1,10.00,VALIDATED,2026-10-17\n2,3,PENDING,2026-10-17\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Transactions chargées"))
+                .andExpect(jsonPath("$.data.rows").value(2))
+                .andExpect(jsonPath("$.data.elapsedMs").value(500))
+                .andExpect(jsonPath("$.data.rowsPerSecond").value(4));
+    }
+
+    @Test
+    void ndjsonBodyUsesTheNdjsonFormat() throws Exception {
+        Mockito.when(ingestionService.ingest(any(InputStream.class), eq(IngestionFormat.NDJSON)))
+                .thenReturn(new TransactionIngestionService.IngestionResult(1, Duration.ofMillis(1)));
+
+        mockMvc.perform(post("/api/transactions/bulk")
+                        .contentType(TransactionIngestionController.APPLICATION_NDJSON)
+                        .content("{\"account_id\":1,\"amount\":1,\"status\":\"VALIDATED\",\"transaction_date\":\"2026-10-17\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.rows").value(1));
+
+        Mockito.verify(ingestionService).ingest(any(InputStream.class), eq(IngestionFormat.NDJSON));
+    }
+
+    @Test
+    void rejectedLineIsABadRequest() throws Exception {
+        Mockito.when(ingestionService.ingest(any(InputStream.class), any()))
+                .thenThrow(new ApiException("Ligne 5 : montant invalide ; 2 transactions déjà chargées (lignes 1 à 3), "
+                        + "renvoyer le fichier à partir de la ligne 4"));
+
+        mockMvc.perform(post("/api/transactions/bulk")
+                        .contentType(TransactionIngestionController.TEXT_CSV)
+                        .content("..."))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(endsWith("à partir de la ligne 4")));
+    }
+
+    @Test
+    void otherContentTypesAreRejected() throws Exception {
+        mockMvc.perform(post("/api/transactions/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        Mockito.verifyNoInteractions(ingestionService);
+    }
+}